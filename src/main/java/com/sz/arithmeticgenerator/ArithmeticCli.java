@@ -0,0 +1,174 @@
+package com.sz.arithmeticgenerator;
+
+import com.sz.arithmeticgenerator.service.AnswerEvaluator;
+import com.sz.arithmeticgenerator.service.BulkGrader;
+import com.sz.arithmeticgenerator.service.GenerationCheckpoint;
+import com.sz.arithmeticgenerator.service.GenerationPipeline;
+import com.sz.arithmeticgenerator.service.GenerationSpec;
+import com.sz.arithmeticgenerator.service.QuestionGenerator;
+import com.sz.arithmeticgenerator.util.Metrics;
+import org.apache.commons.cli.*;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * 命令行入口
+ * 生成与评分只用到静态方法, 因此直接解析参数并执行, 不初始化 Spring 上下文;
+ * 本类不引用任何 Spring 类, 适合用 AppCDS 归档 (-XX:ArchiveClassesAtExit) 进一步缩短启动时间
+ * @author zyh
+ * @version 1.0.0
+ * @date 2026/10/18
+ */
+public class ArithmeticCli {
+
+    /**
+     * 以服务方式启动 (初始化 Spring 上下文) 的参数
+     */
+    public static final String SERVE_OPTION = "-serve";
+
+    /**
+     * 是否以服务方式启动
+     * @param args 命令行参数
+     * @return boolean 参数中包含 -serve 时返回 true
+     * @author zyh
+     * @date 2026/10/18
+     */
+    public static boolean isServeMode(String[] args) {
+        for (String arg : args) {
+            if (SERVE_OPTION.equals(arg) || ("-" + SERVE_OPTION).equals(arg)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * 命令行选项
+     * @return {@code Options} 全部选项
+     * @author zyh
+     * @date 2026/10/18
+     */
+    public static Options options() {
+        Options options = new Options();
+        options.addOption("n", true, "生成的题目数量");
+        options.addOption("r", true, "生成题目的数字范围");
+        options.addOption("p", true, "生成题目和计算答案的并行线程数 (默认 1)");
+        options.addOption("d", true, "去重索引类型: hash (默认) / exact / bloom / bloom-exact");
+        options.addOption("s", true, "随机种子 (种子和其余参数相同时生成相同的题目)");
+        options.addOption("shard", true, "分片: 序号/总数, 如 0/4, 各分片生成同一题目集合中互不重复的一段 (默认 0/1)");
+        options.addOption("b", true, "同时写出的二进制题目集文件 (评分时可代替题目文件, 无需解析和求值)");
+        options.addOption("append", true, "向已有题库追加: 已有的题目文件 (逗号分隔, 可含二进制题目集), 新题目与其中任何一道都不重复, 接着编号追加到 Exercises.txt / Answers.txt");
+        options.addOption("checkpoint", true, "检查点文件: 定期记录生成进度, 中断后以相同参数重新运行即从断点继续 (未指定 -s 时沿用检查点中的种子)");
+        options.addOption("e", true, "题目文件 (文本或二进制题目集)");
+        options.addOption("a", true, "答案文件");
+        options.addOption("batch", true, "批量评分: 答案文件所在目录或通配符 (如 answers/*.txt), 与 -e 一起使用, 并行线程数由 -p 指定");
+        options.addOption("metrics", true, "启用内置指标, 结束时把汇总 (JSON) 写入指定文件");
+        options.addOption("serve", false, "以服务方式启动 (初始化 Spring 上下文)");
+        return options;
+    }
+
+    /**
+     * 解析命令行参数并执行生成或评分
+     * @param args 命令行参数
+     * @author zyh
+     * @date 2026/10/18
+     */
+    public static void run(String[] args) {
+        Options options = options();
+
+        // 创建命令行解析器
+        CommandLineParser parser = new DefaultParser();
+        try {
+            // 解析命令行参数
+            CommandLine cmd = parser.parse(options, args);
+            // 指定了汇总文件时启用指标, 无论成功与否都在结束时写出
+            String metricsFile = cmd.getOptionValue("metrics");
+            if (metricsFile != null) {
+                Metrics.enable();
+            }
+            try {
+                execute(cmd, options);
+            } finally {
+                if (metricsFile != null) {
+                    Metrics.writeSummary(metricsFile);
+                }
+            }
+        } catch (Exception ex) {
+            System.err.println("处理命令行参数时出错: " + ex.getMessage());
+        }
+    }
+
+    // 按解析后的参数执行生成或评分
+    private static void execute(CommandLine cmd, Options options) throws IOException {
+        // 如果指定了“n”和“r”选项，生成题目和答案
+        if (cmd.hasOption("n") && cmd.hasOption("r")) {
+            // 获取题目数量
+            int numQuestions = Integer.parseInt(cmd.getOptionValue("n"));
+            // 获取数字范围
+            int range = Integer.parseInt(cmd.getOptionValue("r"));
+            // 获取并行线程数
+            int parallelism = Integer.parseInt(cmd.getOptionValue("p", "1"));
+            // 流水线生成: 边生成题目边计算答案, 并按顺序写入题目文件和答案文件
+            // 获取去重索引类型
+            String dedupMode = cmd.getOptionValue("d", QuestionGenerator.DEFAULT_DEDUP_MODE);
+            // 获取检查点文件, 未指定时不写检查点
+            String checkpointFile = cmd.getOptionValue("checkpoint");
+            GenerationCheckpoint checkpoint = checkpointFile == null ? null : GenerationCheckpoint.read(Path.of(checkpointFile));
+            // 获取随机种子和分片, 未指定种子时沿用检查点中的种子, 没有检查点时随机选取
+            GenerationSpec spec = GenerationSpec.of(numQuestions, range);
+            if (cmd.hasOption("s")) {
+                spec = new GenerationSpec(numQuestions, range, Long.parseLong(cmd.getOptionValue("s")), 0, 1);
+            } else if (checkpoint != null) {
+                spec = new GenerationSpec(numQuestions, range, checkpoint.spec().seed(), 0, 1);
+            }
+            if (cmd.hasOption("shard")) {
+                spec = spec.withShard(cmd.getOptionValue("shard"));
+            }
+            // 获取二进制题目集文件, 未指定时不写出
+            String binaryFile = cmd.getOptionValue("b");
+            if (cmd.hasOption("append")) {
+                // 追加模式: 先加载题库, 新题目接着题目文件的序号追加到文件末尾
+                if (checkpointFile != null) {
+                    throw new IllegalArgumentException("追加模式不支持断点续写");
+                }
+                List<String> exerciseFiles = Arrays.stream(cmd.getOptionValue("append").split(","))
+                        .map(String::trim).filter(file -> !file.isEmpty()).toList();
+                GenerationPipeline.append(spec, parallelism, dedupMode, exerciseFiles, "Exercises.txt", "Answers.txt", binaryFile);
+            } else {
+                GenerationPipeline.generate(spec, parallelism, dedupMode, "Exercises.txt", "Answers.txt", binaryFile, checkpointFile);
+            }
+            // 输出提示信息
+            System.out.println("答案文件和题目文件生成成功");
+            System.out.println("随机种子: " + spec.seed() + ", 分片: " + spec.shardIndex() + "/" + spec.shardCount());
+        } else if (cmd.hasOption("e") && cmd.hasOption("batch")) {
+            // 批量评分: 答案键只计算一次, 各答案文件并行评分
+            int parallelism = Integer.parseInt(cmd.getOptionValue("p", "1"));
+            BulkGrader.Report report = BulkGrader.grade(cmd.getOptionValue("e"), cmd.getOptionValue("batch"),
+                    parallelism, "Grades.csv", "Summary.txt");
+            System.out.println("批量评分完成: " + report.gradedCount() + "/" + report.submissions().size()
+                    + " 份, 逐份结果见 Grades.csv, 汇总见 Summary.txt");
+        } else if (cmd.hasOption("e") && cmd.hasOption("a")) {
+            // 如果指定了“e”和“a”选项，进行答案评分
+            // 获取题目文件名
+            String exerciseFile = cmd.getOptionValue("e");
+            // 获取答案文件名
+            String answerFile = cmd.getOptionValue("a");
+            // 流式评分, 评分结果直接写入文件
+            AnswerEvaluator.gradeAnswers(exerciseFile, answerFile, "Grade.txt");
+            System.out.println("评分完成");
+        } else {
+            // 如果命令行参数不正确，显示帮助信息
+            // 创建命令行帮助格式化器
+            HelpFormatter formatter = new HelpFormatter();
+            // 打印帮助信息
+            formatter.printHelp("数学生成器", options);
+        }
+    }
+
+    public static void main(String[] args) {
+        run(args);
+    }
+}
@@ -0,0 +1,54 @@
+package com.sz.arithmeticgenerator.config;
+
+import com.sz.arithmeticgenerator.util.Metrics;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.FunctionTimer;
+import io.micrometer.core.instrument.TimeGauge;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 以服务方式运行时把内置指标 (见 {@link Metrics}) 注册到 Micrometer
+ * 计数器注册为 FunctionCounter, 直方图注册为 FunctionTimer 和最大值 TimeGauge, 名称统一加上 "arithmetic." 前缀;
+ * Micrometer 只在抓取时读取当前值, 热路径上不经过 Micrometer
+ * @author zyh
+ * @version 1.0.0
+ * @date 2026/10/18
+ */
+@Configuration
+public class MetricsConfig {
+
+    /**
+     * 指标名称前缀
+     */
+    public static final String PREFIX = "arithmetic.";
+
+    @Bean
+    public MeterBinder arithmeticMetrics(@Value("${arithmetic.metrics.enabled:true}") boolean enabled) {
+        if (enabled) {
+            Metrics.enable();
+        }
+        return registry -> {
+            for (Metrics.Counter counter : Metrics.counters()) {
+                FunctionCounter.builder(PREFIX + counter.name(), counter, Metrics.Counter::count)
+                        .description(counter.description())
+                        .baseUnit(counter.unit())
+                        .register(registry);
+            }
+            for (Metrics.Histogram histogram : Metrics.histograms()) {
+                FunctionTimer.builder(PREFIX + histogram.name(), histogram,
+                                Metrics.Histogram::count, Metrics.Histogram::totalNanos, TimeUnit.NANOSECONDS)
+                        .description(histogram.description())
+                        .register(registry);
+                TimeGauge.builder(PREFIX + histogram.name() + ".max", histogram, TimeUnit.NANOSECONDS,
+                                Metrics.Histogram::maxNanos)
+                        .description(histogram.description() + " (最大值)")
+                        .register(registry);
+            }
+        };
+    }
+}
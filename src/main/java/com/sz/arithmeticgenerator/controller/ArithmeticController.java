@@ -0,0 +1,108 @@
+package com.sz.arithmeticgenerator.controller;
+
+import com.sz.arithmeticgenerator.dto.GenerateRequest;
+import com.sz.arithmeticgenerator.dto.GenerateResponse;
+import com.sz.arithmeticgenerator.dto.GradeRequest;
+import com.sz.arithmeticgenerator.dto.GradeResponse;
+import com.sz.arithmeticgenerator.service.ExpressionSpace;
+import com.sz.arithmeticgenerator.service.GenerationSpec;
+import com.sz.arithmeticgenerator.service.GradeResult;
+import com.sz.arithmeticgenerator.service.GradingBatcher;
+import com.sz.arithmeticgenerator.service.QuestionGenerator;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+
+/**
+ * 评分与生成接口 (-serve 模式)
+ * 请求在虚拟线程上处理, 阻塞等待合批求值不占用平台线程;
+ * 每个响应都带有服务端耗时, 同时写入 Server-Timing 响应头
+ * @author zyh
+ * @version 1.0.0
+ * @date 2026/10/18
+ */
+@RestController
+@RequestMapping("/api")
+public class ArithmeticController {
+
+    /**
+     * 单次请求最多生成的题目数, 更大的数量请使用命令行写文件
+     */
+    public static final int MAX_GENERATE_QUESTIONS = 100_000;
+
+    private final GradingBatcher batcher;
+
+    public ArithmeticController(GradingBatcher batcher) {
+        this.batcher = batcher;
+    }
+
+    /**
+     * 对一组题目和答案评分
+     * @param request 评分请求
+     * @return {@code ResponseEntity<GradeResponse>} 评分结果
+     * @author zyh
+     * @date 2026/10/18
+     */
+    @PostMapping("/grade")
+    public ResponseEntity<GradeResponse> grade(@RequestBody GradeRequest request) {
+        long start = System.nanoTime();
+        if (request.questions() == null || request.answers() == null) {
+            throw new IllegalArgumentException("题目和答案不能为空");
+        }
+        GradeResult result = join(batcher.grade(request.questions(), request.answers()));
+        long latencyMicros = (System.nanoTime() - start) / 1000;
+        return withTiming(GradeResponse.of(result, latencyMicros), latencyMicros);
+    }
+
+    /**
+     * 生成题目和答案
+     * @param request 生成请求
+     * @return {@code ResponseEntity<GenerateResponse>} 题目和答案
+     * @author zyh
+     * @date 2026/10/18
+     */
+    @PostMapping("/generate")
+    public ResponseEntity<GenerateResponse> generate(@RequestBody GenerateRequest request) {
+        long start = System.nanoTime();
+        GenerationSpec spec = request.seed() == null
+                ? GenerationSpec.of(request.n(), request.r())
+                : new GenerationSpec(request.n(), request.r(), request.seed(), 0, 1);
+        if (request.shard() != null) {
+            spec = spec.withShard(request.shard());
+        }
+        if (spec.size() > MAX_GENERATE_QUESTIONS) {
+            throw new IllegalArgumentException("单次请求最多生成 " + MAX_GENERATE_QUESTIONS + " 道题目");
+        }
+        ExpressionSpace.of(spec.range()).checkCapacity(spec.numQuestions());
+        List<String> questions = QuestionGenerator.generateQuestions(spec, 1);
+        List<String> answers = join(batcher.evaluate(questions));
+        long latencyMicros = (System.nanoTime() - start) / 1000;
+        return withTiming(new GenerateResponse(spec.seed(), spec.first() + 1, questions, answers, latencyMicros),
+                latencyMicros);
+    }
+
+    // 等待合批求值完成, 把包装的异常还原, 交给全局异常处理
+    private static <T> T join(CompletableFuture<T> future) {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+
+    private static <T> ResponseEntity<T> withTiming(T body, long latencyMicros) {
+        return ResponseEntity.ok()
+                .header("Server-Timing", String.format(Locale.ROOT, "total;dur=%.3f", latencyMicros / 1000.0))
+                .body(body);
+    }
+}
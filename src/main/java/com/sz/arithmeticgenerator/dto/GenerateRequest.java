@@ -0,0 +1,14 @@
+package com.sz.arithmeticgenerator.dto;
+
+/**
+ * 生成请求
+ * @param n     题目数量
+ * @param r     运算范围
+ * @param seed  随机种子, 为空时随机选取
+ * @param shard 分片参数 "序号/总数", 为空时不分片
+ * @author zyh
+ * @version 1.0.0
+ * @date 2026/10/18
+ */
+public record GenerateRequest(int n, int r, Long seed, String shard) {
+}
@@ -0,0 +1,18 @@
+package com.sz.arithmeticgenerator.dto;
+
+import java.util.List;
+
+/**
+ * 生成结果
+ * @param seed          使用的随机种子, 可用于复现
+ * @param firstNumber   第一道题的全局编号 (从 1 开始)
+ * @param questions     题目
+ * @param answers       答案, 与题目一一对应
+ * @param latencyMicros 本次请求的服务端耗时 (微秒)
+ * @author zyh
+ * @version 1.0.0
+ * @date 2026/10/18
+ */
+public record GenerateResponse(long seed, long firstNumber, List<String> questions, List<String> answers,
+                               long latencyMicros) {
+}
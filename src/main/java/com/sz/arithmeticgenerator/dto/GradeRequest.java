@@ -0,0 +1,14 @@
+package com.sz.arithmeticgenerator.dto;
+
+import java.util.List;
+
+/**
+ * 评分请求
+ * @param questions 题目, 可以带序号和等号
+ * @param answers   用户答案, 可以带序号, 与题目一一对应
+ * @author zyh
+ * @version 1.0.0
+ * @date 2026/10/18
+ */
+public record GradeRequest(List<String> questions, List<String> answers) {
+}
@@ -0,0 +1,38 @@
+package com.sz.arithmeticgenerator.dto;
+
+import com.sz.arithmeticgenerator.service.GradeResult;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 评分结果
+ * @param correctCount  正确题数
+ * @param wrongCount    错误题数
+ * @param correct       正确的题目编号 (从 1 开始)
+ * @param wrong         错误的题目编号 (从 1 开始)
+ * @param latencyMicros 本次请求的服务端耗时 (微秒)
+ * @author zyh
+ * @version 1.0.0
+ * @date 2026/10/18
+ */
+public record GradeResponse(int correctCount, int wrongCount, List<Integer> correct, List<Integer> wrong,
+                            long latencyMicros) {
+
+    /**
+     * 由评分结果构造响应
+     * @param result        评分结果
+     * @param latencyMicros 服务端耗时 (微秒)
+     * @return {@code GradeResponse} 响应
+     * @author zyh
+     * @date 2026/10/18
+     */
+    public static GradeResponse of(GradeResult result, long latencyMicros) {
+        List<Integer> correct = new ArrayList<>(result.getCorrectCount());
+        List<Integer> wrong = new ArrayList<>(result.getWrongCount());
+        for (int number = 1; number <= result.getTotal(); number++) {
+            (result.isCorrect(number) ? correct : wrong).add(number);
+        }
+        return new GradeResponse(correct.size(), wrong.size(), correct, wrong, latencyMicros);
+    }
+}
@@ -1,9 +1,13 @@
 package com.sz.arithmeticgenerator.exception;
 
 
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.RestControllerAdvice;
 
+import java.util.Map;
+
 /**
  * @author zyh
  * @version 1.0.0
@@ -12,15 +16,29 @@ import org.springframework.web.bind.annotation.RestControllerAdvice;
 @RestControllerAdvice
 public class GlobalExceptionHandler {
 
+    /**
+     * 请求参数不合法 (题目数量超出范围、分片参数错误等)
+     * @param exception 异常
+     * @return {@code ResponseEntity<Map<String, String>>} 400 与错误信息
+     * @author zyh
+     * @date 2026/10/18
+     */
+    @ExceptionHandler(value = IllegalArgumentException.class)
+    public ResponseEntity<Map<String, String>> illegalArgument(IllegalArgumentException exception) {
+        return ResponseEntity.badRequest().body(Map.of("error", String.valueOf(exception.getMessage())));
+    }
+
     /**
      * @param exception 异常
+     * @return {@code ResponseEntity<Map<String, String>>} 500 与错误信息
      * @author zyh
      * @date 2025/03/18
      */
     @ExceptionHandler(value = Exception.class)
-    public void allException(Exception exception) {
+    public ResponseEntity<Map<String, String>> allException(Exception exception) {
         // 返回错误结果
          System.out.println(exception.getMessage());
+        return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                .body(Map.of("error", String.valueOf(exception.getMessage())));
     }
 }
-
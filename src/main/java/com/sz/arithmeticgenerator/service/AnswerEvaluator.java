@@ -1,332 +1,357 @@
 package com.sz.arithmeticgenerator.service;
 
-import java.io.BufferedReader;
-import java.io.FileReader;
+import com.sz.arithmeticgenerator.util.LruCache;
+import com.sz.arithmeticgenerator.util.MappedLineReader;
+import com.sz.arithmeticgenerator.util.Metrics;
+
+import java.io.BufferedWriter;
+import java.io.FileWriter;
 import java.io.IOException;
-import java.lang.reflect.Method;
+import java.security.MessageDigest;
 import java.util.*;
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.IntStream;
 
 public class AnswerEvaluator {
 
-    // 计算一系列题目的答案
-    public static List<String> evaluateQuestions(List<String> questions) {
-        List<String> answers = new ArrayList<>();
-        for (String question : questions) {
-            // 预处理题目字符串
-            String processedQuestion = preprocessString(question);
-            // 计算表达式的值
-            Object result = evaluateExpression(processedQuestion);
-            if (result != null) {
-                // 如果结果是 Fraction 类型，转换为混合数字字符串
-                if (result instanceof Fraction) {
-                    answers.add(((Fraction) result).toMixedNumberString());
-                } else {
-                    // 否则，直接转换为字符串
-                    answers.add(result.toString());
-                }
-            } else {
-                // 如果计算出错，添加 "N/A"
-                answers.add("N/A");
-            }
-        }
-        return answers;
-    }
+    // 答案计算规则的版本: 对同样的题目得出不同答案的修改 (如 "÷ a/b" 的结合方式) 需要递增, 使缓存的旧答案键失效
+    public static final int EVALUATOR_VERSION = 1;
 
+    // 题目数量与答案数量不一致时的评分结果
+    private static final String COUNT_MISMATCH = "Error: The number of questions and answers do not match.";
 
-    // 计算单个表达式的值
-    public static Object evaluateExpression(String expression) {
-        try {
-            // 去除空格
-            expression = expression.replace(" ", "");
+    // 编译缓存的最大条目数
+    private static final int COMPILE_CACHE_CAPACITY = 1 << 18;
 
-            // 统一除号
-            expression = expression.replace("÷", "/");
+    // 编译缓存的分段数
+    private static final int COMPILE_CACHE_SEGMENTS = 64;
 
-            // 将表达式解析为 Token 列表
-            List<Token> tokens = tokenize(expression);
+    // 编译缓存: 以去除序号后的表达式为键, 同一份题目被多次评分时每道题只解析一次;
+    // 满了淘汰最久未用的条目, 不会被一次性的大量题目永久占满
+    private static final LruCache<String, CompiledExpression> COMPILE_CACHE =
+            new LruCache<>(COMPILE_CACHE_CAPACITY, COMPILE_CACHE_SEGMENTS);
 
-            // 使用递归下降解析器计算表达式的值
-            return parseExpression(tokens, 0).value; // 从索引 0 开始解析
-        } catch (Exception e) {
-            System.err.println("表达式计算错误: " + expression + " " + e.getMessage());
-            return null;
-        }
-    }
+    // 每个线程复用的求值栈
+    private static final ThreadLocal<long[]> STACK = ThreadLocal.withInitial(() -> new long[16]);
 
+    // 每个并行任务负责的最少题目数, 避免任务切分过细
+    private static final int MIN_CHUNK_SIZE = 1024;
 
-    // 预处理题目字符串 (去除序号和等号)
-    private static String preprocessString(String str) {
-        String trimmedStr = str.trim();
-        // 查找点号的位置
-        int dotIndex = trimmedStr.indexOf('.');
-        // 如果点号存在且之前的子字符串是数字，则去除序号
-        if (dotIndex > 0 && trimmedStr.substring(0, dotIndex).matches("\\d+")) {
-            trimmedStr = trimmedStr.substring(dotIndex + 1).trim();
-        }
-        // 如果字符串以等号结尾，则去除等号
-        if (trimmedStr.endsWith("=")) {
-            trimmedStr = trimmedStr.substring(0, trimmedStr.length() - 1).trim();
-        }
-        return trimmedStr;
+    // 计算一系列题目的答案
+    public static List<String> evaluateQuestions(List<String> questions) {
+        String[] answers = new String[questions.size()];
+        evaluateRange(questions, 0, questions.size(), answers);
+        return Arrays.asList(answers);
     }
 
-    // 对比题目答案并评分
-    public static String gradeAnswers(String exerciseFile, String answerFile) {
+    // 并行计算一系列题目的答案, 答案顺序与题目顺序一致
+    public static List<String> evaluateQuestions(List<String> questions, int parallelism) {
+        if (parallelism < 1) {
+            throw new IllegalArgumentException("parallelism must be positive");
+        }
+        if (parallelism == 1 || questions.size() <= MIN_CHUNK_SIZE) {
+            return evaluateQuestions(questions);
+        }
+        ForkJoinPool pool = new ForkJoinPool(parallelism);
         try {
-            // 读取题目文件
-            List<String> questions = readLines(exerciseFile);
-            // 计算正确答案
-            List<String> correctAnswers = evaluateQuestions(questions);
-            // 读取用户答案
-            List<String> userAnswers = readLines(answerFile);
-
-            // 检查答案数量是否一致
-            if (questions.size() != userAnswers.size()) {
-                return "Error: The number of questions and answers do not match.";
-            }
-
-
-            List<Integer> correctIndices = new ArrayList<>();
-            List<Integer> wrongIndices = new ArrayList<>();
-
-            for (int i = 0; i < questions.size(); i++) {
-                // 获取正确答案
-                String correctAnswer = correctAnswers.get(i);
-                // 获取用户答案
-                String userAnswer = userAnswers.get(i);
+            return evaluateQuestions(questions, pool);
+        } finally {
+            pool.shutdown();
+        }
+    }
 
-                // 比较答案 (去除序号和空格)
-                if (correctAnswer.replaceAll("\\s+", "").equals(userAnswer.replaceAll("\\s+", "").substring(userAnswer.indexOf('.') + 1).trim())) {
-                    // 如果答案正确，记录题目编号
-                    correctIndices.add(i + 1); // 题目编号从 1 开始
-                } else {
-                    // 如果答案错误，记录题目编号
-                    wrongIndices.add(i + 1);
-                }
-            }
+    // 在调用方提供的 (长期存在的) 线程池中并行计算一系列题目的答案, 答案顺序与题目顺序一致, 不关闭线程池
+    public static List<String> evaluateQuestions(List<String> questions, ForkJoinPool pool) {
+        int parallelism = pool.getParallelism();
+        if (parallelism == 1 || questions.size() <= MIN_CHUNK_SIZE) {
+            return evaluateQuestions(questions);
+        }
+        String[] answers = new String[questions.size()];
+        // 按区间切分, 每个任务把答案写回自己负责的下标, 因此无需排序即可保持顺序
+        int chunkSize = Math.max(MIN_CHUNK_SIZE, questions.size() / (parallelism * 4) + 1);
+        int chunks = (questions.size() + chunkSize - 1) / chunkSize;
+        pool.submit(() -> IntStream.range(0, chunks).parallel().forEach(chunk -> {
+            int from = chunk * chunkSize;
+            evaluateRange(questions, from, Math.min(from + chunkSize, questions.size()), answers);
+        })).join();
+        return Arrays.asList(answers);
+    }
 
-            // 构建输出字符串
+    // 计算 [from, to) 区间内题目的答案
+    private static void evaluateRange(List<String> questions, int from, int to, String[] answers) {
+        // 区间内所有题目共用一个求值栈
+        long[] stack = new long[16];
+        for (int i = from; i < to; i++) {
+            answers[i] = answerOf(questions.get(i), stack);
+        }
+    }
 
-            // 将结果写入 Grade.txt 文件 (此处省略了写入文件的操作，避免重复)
-            return "Correct: " + correctIndices.size() + " " + correctIndices + "\n" +
-                    "Wrong: " + wrongIndices.size() + " " + wrongIndices;
+    // 计算单道题目的答案 (混合数字字符串), 出错时返回 "N/A"; 可在多个线程中同时调用
+    public static String evaluateQuestion(String question) {
+        return answerOf(question, STACK.get(), true);
+    }
 
+    // 计算一道不会再次出现的题目 (如刚生成的题目) 的答案, 不经过编译缓存
+    static String evaluateUniqueQuestion(String question) {
+        return answerOf(question, STACK.get(), false);
+    }
 
-        } catch (IOException e) {
-            throw new RuntimeException("Error reading files: " + e.getMessage());
-        }
+    // 计算单道题目的答案 (混合数字字符串), 出错时返回 "N/A"
+    private static String answerOf(String question, long[] stack) {
+        return answerOf(question, stack, true);
     }
 
-    // 读取文件内容
-    private static List<String> readLines(String filePath) throws IOException {
-        List<String> lines = new ArrayList<>();
-        try (BufferedReader reader = new BufferedReader(new FileReader(filePath))) {
-            String line;
-            while ((line = reader.readLine()) != null) {
-                lines.add(line);
-            }
+    // 计算单道题目的答案, cached 为 false 时直接编译, 不读写编译缓存
+    private static String answerOf(String question, long[] stack, boolean cached) {
+        try {
+            // 编译题目 (命中缓存时不再解析)
+            long start = Metrics.start();
+            CompiledExpression compiled = cached ? compile(question) : compileUncached(question);
+            Metrics.PARSE_TIME.stop(start);
+            // 栈不够深时 (极少见) 临时分配
+            long[] evaluationStack = stack.length < compiled.maxStackDepth() ? new long[compiled.maxStackDepth()] : stack;
+            // 计算表达式的值并转换为混合数字字符串
+            start = Metrics.start();
+            String answer = evaluateToString(compiled, evaluationStack);
+            Metrics.EVALUATE_TIME.stop(start);
+            return answer;
+        } catch (Exception e) {
+            // 如果计算出错，返回 "N/A"
+            Metrics.EVALUATION_ERRORS.add(1);
+            System.err.println("表达式计算错误: " + question + " " + e.getMessage());
+            return "N/A";
         }
-        return lines;
     }
 
 
-    //region  以下是解析器相关代码
-    // 定义 Token 类型
-    static class Token {
-        enum Type {
-            NUMBER,  // 数字 (整数或分数)
-            OPERATOR, // 运算符 (+, -, *, /)
-            LPAREN,   // 左括号 (
-            RPAREN    // 右括号 )
+    // 计算单个表达式的值
+    public static Object evaluateExpression(String expression) {
+        try {
+            return compile(expression).evaluate();
+        } catch (Exception e) {
+            Metrics.EVALUATION_ERRORS.add(1);
+            System.err.println("表达式计算错误: " + expression + " " + e.getMessage());
+            return null;
         }
+    }
 
-        Type type;
-        // 对于数字，存储原始字符串; 对于分数, 存储 Fraction 对象
-        String value;
-
-        Token(Type type, String value) {
-            this.type = type;
-            this.value = value;
+    // 编译题目 (可带序号和等号), 结果会被缓存
+    public static CompiledExpression compile(String question) {
+        String expression = ExpressionCompiler.preprocessString(question);
+        CompiledExpression compiled = COMPILE_CACHE.get(expression);
+        if (compiled == null) {
+            compiled = CompiledExpression.compile(expression);
+            COMPILE_CACHE.put(expression, compiled);
         }
+        return compiled;
     }
 
-    // 将表达式字符串转换为 Token 列表
-    private static List<Token> tokenize(String expression) {
-        List<Token> tokens = new ArrayList<>();
-        // 匹配分数、整数、运算符和括号
-        Pattern pattern = Pattern.compile("(\\d+'?\\d*/\\d+)|(\\d+)|([+\\-*/()])");
-        Matcher matcher = pattern.matcher(expression);
-
-        while (matcher.find()) {
-            String tokenStr = matcher.group();
-            // 数字 (整数或分数)
-            if (tokenStr.matches("\\d+'?\\d*/\\d+|\\d+")) {
-                tokens.add(new Token(Token.Type.NUMBER, tokenStr));
-                // 运算符
-            } else if (tokenStr.matches("[+\\-*/]")) {
-                tokens.add(new Token(Token.Type.OPERATOR, tokenStr));
-                // 左括号
-            } else if (tokenStr.equals("(")) {
-                tokens.add(new Token(Token.Type.LPAREN, tokenStr));
-                // 右括号
-            } else if (tokenStr.equals(")")) {
-                tokens.add(new Token(Token.Type.RPAREN, tokenStr));
-            }
-        }
-        return tokens;
+    // 编译题目 (可带序号和等号), 不读写缓存
+    static CompiledExpression compileUncached(String question) {
+        return CompiledExpression.compile(ExpressionCompiler.preprocessString(question));
     }
 
+    // 计算已编译题目的答案, 转换为混合数字字符串; long 内核溢出时回退到 BigInteger
+    static String evaluateToString(CompiledExpression compiled, long[] stack) {
+        long result = compiled.evaluatePacked(stack);
+        if (FractionMath.isOverflow(result)) {
+            return compiled.evaluateBig().toMixedNumberString();
+        }
+        return FractionMath.toMixedNumberString(result);
+    }
 
-    // 解析表达式 (递归下降解析器的入口)
-    private static Result parseExpression(List<Token> tokens, int index) {
-        return parseAdditionSubtraction(tokens, index);
+    // 对比题目答案并评分
+    public static String gradeAnswers(String exerciseFile, String answerFile) {
+        GradeResult result = grade(exerciseFile, answerFile);
+        return result == null ? COUNT_MISMATCH : result.toString();
     }
 
-    // 解析加减法 (处理优先级)
-    private static Result parseAdditionSubtraction(List<Token> tokens, int index) {
-        Result result = parseMultiplicationDivision(tokens, index);
-        Object currentValue = result.value;
-        index = result.nextIndex;
-
-        while (index < tokens.size()) {
-            Token token = tokens.get(index);
-            // 如果是加号或减号
-            if (token.type == Token.Type.OPERATOR && (token.value.equals("+") || token.value.equals("-"))) {
-                // 解析乘除法
-                Result nextResult = parseMultiplicationDivision(tokens, index + 1);
-                Object nextValue = nextResult.value;
-                index = nextResult.nextIndex;
-
-                // 调用对应的方法进行计算
-                currentValue = invokeMethod(currentValue, nextValue, token.value);
+    // 对比题目答案并评分, 结果直接流式写入评分文件
+    public static void gradeAnswers(String exerciseFile, String answerFile, String gradeFile) {
+        GradeResult result = grade(exerciseFile, answerFile);
+        try (BufferedWriter writer = new BufferedWriter(new FileWriter(gradeFile))) {
+            if (result == null) {
+                writer.write(COUNT_MISMATCH);
             } else {
-                // 不是加减运算符，退出循环
-                break;
+                result.writeTo(writer);
             }
+        } catch (IOException e) {
+            throw new RuntimeException("文件写错误: " + gradeFile + ": " + e.getMessage());
         }
-        return new Result(currentValue, index);
     }
 
+    // 比较正确答案与用户答案: 去除序号和空白后按数值比较, 4/2 与 2、1'1/2 与 3/2 视为相同
+    public static boolean isCorrectAnswer(String correctAnswer, String userAnswer) {
+        AnswerParser parser = new AnswerParser();
+        boolean representable = parser.parse(correctAnswer, 0, correctAnswer.length()) == AnswerParser.VALUE;
+        return parser.matches(representable ? parser.numerator() : 0, representable ? parser.denominator() : 0,
+                correctAnswer, userAnswer, 0, userAnswer.length());
+    }
 
-    // 解析乘除法 (处理优先级)
-    private static Result parseMultiplicationDivision(List<Token> tokens, int index) {
-        // 解析基本单元 (数字、括号内的表达式)
-        Result result = parsePrimary(tokens, index);
-        Object currentValue = result.value;
-        index = result.nextIndex;
-
-        while (index < tokens.size()) {
-            Token token = tokens.get(index);
-            // 如果是乘号或除号
-            if (token.type == Token.Type.OPERATOR && (token.value.equals("*") || token.value.equals("/"))) {
-                // 解析基本单元
-                Result nextResult = parsePrimary(tokens, index + 1);
-                Object nextValue = nextResult.value;
-                index = nextResult.nextIndex;
-
-                // 调用对应的方法进行计算
-                currentValue = invokeMethod(currentValue, nextValue, token.value);
-            } else {
-                // 不是乘除运算符，退出循环
-                break;
+    // 以内存映射同步读取题目文件和答案文件逐题评分, 每题只占 1 位; 题目与答案数量不一致时返回 null
+    // 同一时刻只保存一道题的答案, 内存占用与题目数量无关; 同一份题目文件对多份答案评分时用 answerKey 取得 (缓存的) 答案键
+    public static GradeResult grade(String exerciseFile, String answerFile) {
+        try {
+            if (ExerciseSet.isExerciseSet(exerciseFile)) {
+                return gradeExerciseSet(exerciseFile, answerFile);
+            }
+            try (MappedLineReader questions = new MappedLineReader(exerciseFile);
+                 MappedLineReader userAnswers = new MappedLineReader(answerFile)) {
+                LineGrader grader = new LineGrader();
+                // 整个评分过程共用求值栈、题目视图和答案缓冲区
+                long[] stack = new long[16];
+                Utf8LineView question = new Utf8LineView();
+                while (questions.nextLine()) {
+                    question.reset(questions.buffer(), questions.lineStart(), questions.lineEnd());
+                    grader.current.clear();
+                    addAnswer(grader.current, question, stack, grader.answer, grader.parser);
+                    if (!grader.grade(userAnswers)) {
+                        return null;
+                    }
+                }
+                return grader.finish(userAnswers);
             }
+        } catch (IOException e) {
+            throw new RuntimeException("Error reading files: " + e.getMessage());
         }
-        return new Result(currentValue, index);
     }
 
-    // 解析基本单元 (数字、括号内的表达式)
-    private static Result parsePrimary(List<Token> tokens, int index) {
-        if (index >= tokens.size()) {
-            throw new IllegalArgumentException("Unexpected end of expression");
+    // 逐题读取二进制题目集中预先算好的答案评分
+    private static GradeResult gradeExerciseSet(String exerciseFile, String answerFile) throws IOException {
+        try (ExerciseSet exercises = ExerciseSet.open(exerciseFile);
+             MappedLineReader userAnswers = new MappedLineReader(answerFile)) {
+            LineGrader grader = new LineGrader();
+            for (long k = 0; k < exercises.size(); k++) {
+                long numerator = exercises.answerNumerator(k);
+                long denominator = exercises.answerDenominator(k);
+                grader.current.clear();
+                grader.current.add(numerator, denominator, grader.answer,
+                        FractionMath.writeMixedNumber(numerator, denominator, grader.answer));
+                if (!grader.grade(userAnswers)) {
+                    return null;
+                }
+            }
+            return grader.finish(userAnswers);
         }
+    }
 
-        Token token = tokens.get(index);
-        // 如果是数字
-        if (token.type == Token.Type.NUMBER) {
-            // 统一转换为 Fraction 对象
-            Object value = new Fraction(token.value);
-            return new Result(value, index + 1);
-
-            // 如果是左括号
-        } else if (token.type == Token.Type.LPAREN) {
-            // 遇到左括号，递归解析括号内的表达式
-
-            int closingParenIndex = findClosingParen(tokens, index);
-            //如果没找到
-            if(closingParenIndex == -1){
-                throw  new IllegalArgumentException("Mismatched parentheses");
+    /**
+     * 流式评分的状态: 只容纳当前一道题答案的答案键 (每题清空后重用) 与评分结果
+     */
+    private static final class LineGrader {
+
+        private final AnswerKey current = new AnswerKey();
+        private final byte[] answer = new byte[FractionMath.MAX_MIXED_NUMBER_BYTES];
+        private final AnswerParser parser = new AnswerParser();
+        private final Utf8LineView userAnswer = new Utf8LineView();
+        private final GradeResult result = new GradeResult();
+        private long graded;
+
+        // 读取下一行用户答案并与当前答案比较, 答案文件已读完时返回 false
+        boolean grade(MappedLineReader userAnswers) throws IOException {
+            if (!userAnswers.nextLine()) {
+                return false;
             }
-            // 递归调用, 注意这里要传入index + 1
-            Result result = parseExpression(tokens, index + 1);
-
-            // 跳过右括号
-            return new Result(result.value, closingParenIndex + 1);
+            userAnswer.reset(userAnswers.buffer(), userAnswers.lineStart(), userAnswers.lineEnd());
+            result.record(current.matches(0, userAnswer, parser));
+            graded++;
+            return true;
+        }
 
-        } else {
-            throw new IllegalArgumentException("Unexpected token: " + token.value);
+        // 题目读完后调用: 答案文件还有剩余行时返回 null
+        GradeResult finish(MappedLineReader userAnswers) throws IOException {
+            Metrics.ANSWERS_GRADED.add(graded);
+            return userAnswers.nextLine() ? null : result;
         }
     }
 
-    // 查找与给定左括号匹配的右括号的索引
-    private static int findClosingParen(List<Token> tokens, int openParenIndex) {
-        int parenCount = 1;
-        for (int i = openParenIndex + 1; i < tokens.size(); i++) {
-            Token token = tokens.get(i);
-            // 如果是左括号
-            if (token.type == Token.Type.LPAREN) {
-                parenCount++;
-                // 如果是右括号
-            } else if (token.type == Token.Type.RPAREN) {
-                parenCount--;
-                // 找到匹配的右括号
-                if (parenCount == 0) {
-                    return i;
+    // 获取题目文件的全部答案键, 用于同一份题目文件对多份答案文件评分 (见 BulkGrader):
+    // 二进制题目集直接取出预先算好的答案, 文本题目文件经缓存求值
+    public static AnswerKey answerKey(String exerciseFile) {
+        try {
+            if (!ExerciseSet.isExerciseSet(exerciseFile)) {
+                return AnswerKeyCache.shared().get(exerciseFile);
+            }
+            try (ExerciseSet exercises = ExerciseSet.open(exerciseFile)) {
+                AnswerKey answerKey = new AnswerKey();
+                byte[] answer = new byte[FractionMath.MAX_MIXED_NUMBER_BYTES];
+                for (long k = 0; k < exercises.size(); k++) {
+                    long numerator = exercises.answerNumerator(k);
+                    long denominator = exercises.answerDenominator(k);
+                    answerKey.add(numerator, denominator, answer, FractionMath.writeMixedNumber(numerator, denominator, answer));
                 }
+                return answerKey;
             }
+        } catch (IOException e) {
+            throw new RuntimeException("Error reading files: " + e.getMessage());
         }
-        // 没有找到匹配的右括号
-        return -1;
     }
 
+    // 以内存映射读取答案文件, 直接在映射的字节上解析用户答案并与答案键按数值比较
+    public static GradeResult grade(AnswerKey answerKey, String answerFile) throws IOException {
+        try (MappedLineReader userAnswers = new MappedLineReader(answerFile)) {
+            GradeResult result = new GradeResult();
+            Utf8LineView userAnswer = new Utf8LineView();
+            AnswerParser parser = new AnswerParser();
+            for (int i = 0; i < answerKey.size(); i++) {
+                // 读取对应的用户答案
+                if (!userAnswers.nextLine()) {
+                    return null;
+                }
+                userAnswer.reset(userAnswers.buffer(), userAnswers.lineStart(), userAnswers.lineEnd());
+                result.record(answerKey.matches(i, userAnswer, parser));
+            }
+            Metrics.ANSWERS_GRADED.add(answerKey.size());
+            // 答案文件还有剩余行
+            if (userAnswers.nextLine()) {
+                return null;
+            }
+            return result;
+        }
+    }
 
-    // 用于存储当前的计算结果, 和下一个token的index
-    private static class Result {
-        // 当前计算的值
-        Object value;
-        // 下一个Token的Index
-        int nextIndex;
+    // 以内存映射逐行读取题目文件, 计算答案键
+    // 题目直接在映射的字节上编译求值, 答案以字节写入, 正常情况下每行不产生字符串
+    static AnswerKey buildAnswerKey(String exerciseFile) throws IOException {
+        return buildAnswerKey(exerciseFile, null);
+    }
 
-        public Result(Object value, int nextIndex) {
-            this.value = value;
-            this.nextIndex = nextIndex;
+    // 计算答案键, 同时对读到的文件内容计算摘要 (为 null 时不计算), 摘要与答案键来自同一次读取
+    static AnswerKey buildAnswerKey(String exerciseFile, MessageDigest digest) throws IOException {
+        try (MappedLineReader questions = new MappedLineReader(exerciseFile, digest)) {
+            AnswerKey answerKey = new AnswerKey();
+            // 整个过程共用求值栈、题目视图和答案缓冲区
+            long[] stack = new long[16];
+            Utf8LineView question = new Utf8LineView();
+            byte[] answer = new byte[FractionMath.MAX_MIXED_NUMBER_BYTES];
+            AnswerParser parser = new AnswerParser();
+            while (questions.nextLine()) {
+                question.reset(questions.buffer(), questions.lineStart(), questions.lineEnd());
+                addAnswer(answerKey, question, stack, answer, parser);
+            }
+            return answerKey;
         }
     }
 
-
-    // 使用反射调用 Fraction 类中对应的方法
-    private static Object invokeMethod(Object obj1, Object obj2, String operator) {
+    // 计算一道题的答案: long 内核求值后以字节写入; 溢出或题目有误时解码为字符串, 走与逐题求值相同的路径
+    private static void addAnswer(AnswerKey answerKey, Utf8LineView question, long[] stack, byte[] answer, AnswerParser parser) {
+        long result = FractionMath.OVERFLOW;
         try {
-            String methodName = switch (operator) {
-                case "+" -> "add";
-                case "-" -> "subtract";
-                case "*" -> "multiply";
-                case "/" -> "divide";
-                default -> throw new IllegalArgumentException("Invalid operator: " + operator);
-            };
-            // 根据运算符确定要调用的方法名
-
-            // 获取 Fraction 类的方法
-            Method method = Fraction.class.getMethod(methodName, Object.class);
-
-            // 调用方法 (所有操作数都是 Fraction)
-            return method.invoke(obj1, obj2);
-
-        } catch (Exception e) {
-            throw new RuntimeException("Error invoking method: " + e.getMessage(), e);
+            long start = Metrics.start();
+            CompiledExpression compiled = CompiledExpression.compile(question);
+            Metrics.PARSE_TIME.stop(start);
+            long[] evaluationStack = stack.length < compiled.maxStackDepth() ? new long[compiled.maxStackDepth()] : stack;
+            start = Metrics.start();
+            result = compiled.evaluatePacked(evaluationStack);
+            Metrics.EVALUATE_TIME.stop(start);
+        } catch (RuntimeException e) {
+            // 交给下面的字符串路径输出错误并得到 "N/A"
+        }
+        if (FractionMath.isOverflow(result)) {
+            answerKey.add(answerOf(question.toString(), stack), parser);
+        } else {
+            answerKey.add(FractionMath.numerator(result), FractionMath.denominator(result), answer,
+                    FractionMath.writeMixedNumber(result, answer));
         }
     }
-
-    //endregion
-}
\ No newline at end of file
+}
@@ -0,0 +1,206 @@
+package com.sz.arithmeticgenerator.service;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * 一份题目文件的标准答案 (答案键)
+ * 每个答案保存为最简分数的 long 分子、分母 (评分时按数值比较), 同时保留答案文本:
+ * 所有文本连续存放在一个数组中, 另用偏移数组定位第 i 个答案
+ * @author zyh
+ * @version 1.0.0
+ * @date 2026/10/18
+ */
+public final class AnswerKey {
+
+    /**
+     * 序列化格式的魔数 "AKEY"
+     */
+    private static final int MAGIC = 0x414B4559;
+
+    static final int VERSION = 2;
+
+    private byte[] data;
+    /**
+     * 第 i 个答案的文本为 data 中的 [offsets[i], offsets[i + 1])
+     */
+    private int[] offsets;
+    private long[] numerators;
+    /**
+     * 答案不能以 long 分子、分母表示 (超出范围或不是数字, 如 "N/A") 时为 0
+     */
+    private long[] denominators;
+    private int size;
+
+    AnswerKey() {
+        this(new byte[1 << 12], new int[1 << 10], new long[1 << 10], new long[1 << 10], 0);
+    }
+
+    private AnswerKey(byte[] data, int[] offsets, long[] numerators, long[] denominators, int size) {
+        this.data = data;
+        this.offsets = offsets;
+        this.numerators = numerators;
+        this.denominators = denominators;
+        this.size = size;
+    }
+
+    /**
+     * 追加一个可以用 long 表示的答案
+     * @param numerator   最简分数的分子
+     * @param denominator 最简分数的分母
+     * @param text        答案文本
+     * @param length      文本长度
+     * @author zyh
+     * @date 2026/10/18
+     */
+    void add(long numerator, long denominator, byte[] text, int length) {
+        int end = offsets[size];
+        if (end + length > data.length) {
+            data = Arrays.copyOf(data, Math.max(data.length * 2, end + length));
+        }
+        if (size + 2 > offsets.length) {
+            offsets = Arrays.copyOf(offsets, offsets.length * 2);
+            numerators = Arrays.copyOf(numerators, offsets.length);
+            denominators = Arrays.copyOf(denominators, offsets.length);
+        }
+        System.arraycopy(text, 0, data, end, length);
+        numerators[size] = numerator;
+        denominators[size] = denominator;
+        offsets[++size] = end + length;
+    }
+
+    /**
+     * 追加一个答案, 由文本解析出数值
+     * @param answer 答案字符串
+     * @param parser 解析器
+     * @author zyh
+     * @date 2026/10/18
+     */
+    void add(String answer, AnswerParser parser) {
+        byte[] bytes = answer.getBytes(StandardCharsets.UTF_8);
+        if (parser.parse(answer, 0, answer.length()) == AnswerParser.VALUE) {
+            add(parser.numerator(), parser.denominator(), bytes, bytes.length);
+        } else {
+            add(0, 0, bytes, bytes.length);
+        }
+    }
+
+    /**
+     * 清空全部答案, 保留已分配的数组以便重用
+     * @author zyh
+     * @date 2026/10/18
+     */
+    void clear() {
+        size = 0;
+    }
+
+    /**
+     * 答案数量
+     * @return int 答案数量
+     * @author zyh
+     * @date 2026/10/18
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * 第 index 个答案 (从 0 开始)
+     * @param index 下标
+     * @return {@code String} 答案
+     * @author zyh
+     * @date 2026/10/18
+     */
+    public String answer(int index) {
+        return new String(data, offsets[index], offsets[index + 1] - offsets[index], StandardCharsets.UTF_8);
+    }
+
+    /**
+     * 用户答案是否与第 index 个答案数值相等 (规则见 {@link AnswerParser})
+     * @param index      下标
+     * @param userAnswer 用户答案
+     * @param parser     解析器
+     * @return boolean 是否正确
+     * @author zyh
+     * @date 2026/10/18
+     */
+    boolean matches(int index, CharSequence userAnswer, AnswerParser parser) {
+        int status = parser.parse(userAnswer, 0, userAnswer.length());
+        if (status == AnswerParser.VALUE && denominators[index] != 0) {
+            return parser.numerator() == numerators[index] && parser.denominator() == denominators[index];
+        }
+        return parser.matchesSlowly(status, denominators[index], answer(index), userAnswer, 0, userAnswer.length());
+    }
+
+    /**
+     * 大致的内存占用 (字节)
+     * @return long 字节数
+     * @author zyh
+     * @date 2026/10/18
+     */
+    long memorySize() {
+        return (long) offsets[size] + (long) (size + 1) * (Integer.BYTES + 2 * Long.BYTES);
+    }
+
+    /**
+     * 写出为二进制格式
+     * @param out 输出
+     * @throws IOException 写出失败
+     * @author zyh
+     * @date 2026/10/18
+     */
+    void writeTo(OutputStream out) throws IOException {
+        DataOutputStream data = new DataOutputStream(out);
+        data.writeInt(MAGIC);
+        data.writeInt(VERSION);
+        data.writeInt(size);
+        for (int i = 0; i < size; i++) {
+            data.writeInt(offsets[i + 1]);
+            data.writeLong(numerators[i]);
+            data.writeLong(denominators[i]);
+        }
+        data.write(this.data, 0, offsets[size]);
+        data.flush();
+    }
+
+    /**
+     * 读取 {@link #writeTo} 写出的答案键, 版本不同的旧格式视为错误
+     * @param in 输入
+     * @return {@code AnswerKey} 答案键
+     * @throws IOException 读取失败或格式错误
+     * @author zyh
+     * @date 2026/10/18
+     */
+    static AnswerKey readFrom(InputStream in) throws IOException {
+        DataInputStream input = new DataInputStream(in);
+        if (input.readInt() != MAGIC || input.readInt() != VERSION) {
+            throw new IOException("答案键格式错误");
+        }
+        int size = input.readInt();
+        if (size < 0) {
+            throw new IOException("答案键格式错误");
+        }
+        int[] offsets = new int[size + 1];
+        long[] numerators = new long[size + 1];
+        long[] denominators = new long[size + 1];
+        for (int i = 0; i < size; i++) {
+            offsets[i + 1] = input.readInt();
+            numerators[i] = input.readLong();
+            denominators[i] = input.readLong();
+            if (offsets[i + 1] < offsets[i] || denominators[i] < 0) {
+                throw new IOException("答案键格式错误");
+            }
+        }
+        byte[] data = new byte[offsets[size]];
+        input.readFully(data);
+        if (input.read() >= 0) {
+            throw new IOException("答案键格式错误");
+        }
+        return new AnswerKey(data, offsets, numerators, denominators, size);
+    }
+}
@@ -0,0 +1,332 @@
+package com.sz.arithmeticgenerator.service;
+
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.nio.file.attribute.FileTime;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HexFormat;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 答案键缓存: 以题目文件内容的 SHA-256 加上求值规则版本和答案键格式版本为键, 内存中按 LRU 淘汰, 并持久化到本地磁盘
+ * 同一份题目文件对多份答案文件评分时只求值一次; 文件内容或求值规则一旦改变, 键随之改变, 旧的答案键不会再被命中;
+ * 未命中时在计算答案键的同一次读取中计算哈希, 写入的键与答案键对应同一份内容;
+ * 磁盘上的答案键先写临时文件再原子地改名, 读取时格式不对或数量不符即视为未命中并重新计算;
+ * 磁盘缓存的总大小有上限, 超出时按最后使用时间删除最旧的文件
+ * @author zyh
+ * @version 1.0.0
+ * @date 2026/10/18
+ */
+public class AnswerKeyCache {
+
+    /**
+     * 缓存目录的系统属性, 设为 none 时不使用磁盘缓存
+     */
+    public static final String DIRECTORY_PROPERTY = "arithmetic.answer-key-cache";
+
+    /**
+     * 内存中缓存的答案键的总字节数上限
+     */
+    public static final long DEFAULT_MEMORY_BYTES = 64L << 20;
+
+    /**
+     * 磁盘缓存总字节数上限的系统属性
+     */
+    public static final String DISK_BYTES_PROPERTY = "arithmetic.answer-key-cache.max-bytes";
+
+    /**
+     * 磁盘缓存的总字节数默认上限
+     */
+    public static final long DEFAULT_DISK_BYTES = 256L << 20;
+
+    private static final String SUFFIX = ".akey";
+
+    private static final String TEMP_SUFFIX = ".tmp";
+
+    /**
+     * 超过这个时间仍未改名的临时文件视为写入进程已退出留下的残留
+     */
+    private static final long STALE_TEMP_MILLIS = 60 * 60 * 1000L;
+
+    private static final int READ_BUFFER_SIZE = 1 << 20;
+
+    private static volatile AnswerKeyCache shared;
+
+    /**
+     * 磁盘缓存目录, 为 null 时只使用内存缓存
+     */
+    private final Path directory;
+    private final long memoryBytes;
+    private final long diskBytes;
+    private final LinkedHashMap<String, AnswerKey> memory = new LinkedHashMap<>(16, 0.75f, true);
+    private long usedBytes;
+    private long hits;
+    private long misses;
+
+    /**
+     * @param directory   磁盘缓存目录, 为 null 时只使用内存缓存
+     * @param memoryBytes 内存缓存的字节数上限
+     */
+    public AnswerKeyCache(Path directory, long memoryBytes) {
+        this(directory, memoryBytes, DEFAULT_DISK_BYTES);
+    }
+
+    /**
+     * @param directory   磁盘缓存目录, 为 null 时只使用内存缓存
+     * @param memoryBytes 内存缓存的字节数上限
+     * @param diskBytes   磁盘缓存的字节数上限
+     */
+    public AnswerKeyCache(Path directory, long memoryBytes, long diskBytes) {
+        this.directory = directory;
+        this.memoryBytes = memoryBytes;
+        this.diskBytes = diskBytes;
+    }
+
+    /**
+     * 进程内共享的缓存, 磁盘目录由系统属性 {@value #DIRECTORY_PROPERTY} 指定, 默认为临时目录下的 arithmetic-answer-keys;
+     * 磁盘缓存上限由系统属性 {@value #DISK_BYTES_PROPERTY} 指定
+     * @return {@code AnswerKeyCache} 共享缓存
+     * @author zyh
+     * @date 2026/10/18
+     */
+    public static AnswerKeyCache shared() {
+        AnswerKeyCache cache = shared;
+        if (cache == null) {
+            synchronized (AnswerKeyCache.class) {
+                cache = shared;
+                if (cache == null) {
+                    String property = System.getProperty(DIRECTORY_PROPERTY,
+                            Path.of(System.getProperty("java.io.tmpdir"), "arithmetic-answer-keys").toString());
+                    long diskBytes = Long.getLong(DISK_BYTES_PROPERTY, DEFAULT_DISK_BYTES);
+                    shared = cache = new AnswerKeyCache("none".equals(property) ? null : Path.of(property),
+                            DEFAULT_MEMORY_BYTES, diskBytes);
+                }
+            }
+        }
+        return cache;
+    }
+
+    /**
+     * 获取题目文件的答案键: 依次查找内存、磁盘, 都未命中时求值并写入缓存
+     * @param exerciseFile 题目文件
+     * @return {@code AnswerKey} 答案键
+     * @throws IOException 读取题目文件失败
+     * @author zyh
+     * @date 2026/10/18
+     */
+    public AnswerKey get(String exerciseFile) throws IOException {
+        String name = entryName(contentHash(exerciseFile));
+        AnswerKey key;
+        synchronized (this) {
+            key = memory.get(name);
+            if (key != null) {
+                hits++;
+                return key;
+            }
+            misses++;
+        }
+        key = load(name);
+        if (key == null) {
+            // 哈希与答案键来自同一次读取; 查找之后文件被修改时, 按实际读到的内容存放
+            MessageDigest digest = sha256();
+            key = AnswerEvaluator.buildAnswerKey(exerciseFile, digest);
+            name = entryName(HexFormat.of().formatHex(digest.digest()));
+            store(name, key);
+        }
+        remember(name, key);
+        return key;
+    }
+
+    /**
+     * 题目文件在缓存中的条目名 (磁盘上的文件名去掉后缀): 内容哈希-求值规则版本-答案键格式版本
+     * @param exerciseFile 题目文件
+     * @return {@code String} 条目名
+     * @throws IOException 读取失败
+     * @author zyh
+     * @date 2026/10/18
+     */
+    public static String cacheKey(String exerciseFile) throws IOException {
+        return entryName(contentHash(exerciseFile));
+    }
+
+    private static String entryName(String hash) {
+        return hash + "-" + AnswerEvaluator.EVALUATOR_VERSION + "-" + AnswerKey.VERSION;
+    }
+
+    static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * 计算文件内容的 SHA-256
+     * @param filename 文件名
+     * @return {@code String} 十六进制哈希
+     * @throws IOException 读取失败
+     * @author zyh
+     * @date 2026/10/18
+     */
+    public static String contentHash(String filename) throws IOException {
+        MessageDigest digest = sha256();
+        // 经由 FileInputStream 打开, 文件不存在时的异常信息与 FileReader 相同
+        try (FileInputStream input = new FileInputStream(filename);
+             FileChannel channel = input.getChannel()) {
+            ByteBuffer buffer = ByteBuffer.allocateDirect(READ_BUFFER_SIZE);
+            while (channel.read(buffer) >= 0) {
+                buffer.flip();
+                digest.update(buffer);
+                buffer.clear();
+            }
+        }
+        return HexFormat.of().formatHex(digest.digest());
+    }
+
+    // 从磁盘读取答案键, 不存在或损坏时返回 null
+    private AnswerKey load(String name) {
+        if (directory == null) {
+            return null;
+        }
+        Path file = directory.resolve(name + SUFFIX);
+        if (!Files.isRegularFile(file)) {
+            return null;
+        }
+        try (InputStream in = Files.newInputStream(file)) {
+            AnswerKey key = AnswerKey.readFrom(in);
+            // 更新修改时间, 淘汰时按最后使用时间排序
+            Files.setLastModifiedTime(file, FileTime.fromMillis(System.currentTimeMillis()));
+            return key;
+        } catch (IOException e) {
+            // 损坏的缓存文件直接丢弃
+            try {
+                Files.deleteIfExists(file);
+            } catch (IOException ignored) {
+                // 下次命中时再尝试删除
+            }
+            return null;
+        }
+    }
+
+    // 写入磁盘: 先写临时文件再原子改名, 其它进程不会读到写了一半的文件; 写入失败不影响评分
+    private void store(String name, AnswerKey key) {
+        if (directory == null) {
+            return;
+        }
+        Path temp = null;
+        try {
+            Files.createDirectories(directory);
+            temp = Files.createTempFile(directory, name, TEMP_SUFFIX);
+            try (OutputStream out = Files.newOutputStream(temp)) {
+                key.writeTo(out);
+            }
+            Path file = directory.resolve(name + SUFFIX);
+            Files.move(temp, file, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+            evict(file);
+        } catch (IOException e) {
+            System.err.println("答案键缓存写入失败: " + e.getMessage());
+            if (temp != null) {
+                try {
+                    Files.deleteIfExists(temp);
+                } catch (IOException ignored) {
+                    // 临时文件留给系统清理
+                }
+            }
+        }
+    }
+
+    // 磁盘缓存超出上限时按最后使用时间从旧到新删除答案键文件, 并清理残留的临时文件
+    // 刚写入的文件最后删除 (修改时间精度较粗时可能与旧文件相同); 多个进程共用目录时可能同时删除同一个文件, 删除失败的文件直接跳过
+    private void evict(Path written) throws IOException {
+        List<Path> entries = new ArrayList<>();
+        Map<Path, FileTime> modified = new HashMap<>();
+        long total = 0;
+        long staleBefore = System.currentTimeMillis() - STALE_TEMP_MILLIS;
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(directory)) {
+            for (Path file : files) {
+                String fileName = file.getFileName().toString();
+                try {
+                    BasicFileAttributes attributes = Files.readAttributes(file, BasicFileAttributes.class);
+                    if (fileName.endsWith(SUFFIX)) {
+                        entries.add(file);
+                        modified.put(file, attributes.lastModifiedTime());
+                        total += attributes.size();
+                    } else if (fileName.endsWith(TEMP_SUFFIX) && attributes.lastModifiedTime().toMillis() < staleBefore) {
+                        Files.deleteIfExists(file);
+                    }
+                } catch (IOException ignored) {
+                    // 文件已被其它进程删除
+                }
+            }
+        }
+        if (total <= diskBytes) {
+            return;
+        }
+        entries.sort(Comparator.comparing((Path file) -> file.equals(written)).thenComparing(modified::get));
+        for (Path file : entries) {
+            if (total <= diskBytes) {
+                break;
+            }
+            try {
+                long size = Files.size(file);
+                if (Files.deleteIfExists(file)) {
+                    total -= size;
+                }
+            } catch (IOException ignored) {
+                // 文件已被其它进程删除
+            }
+        }
+    }
+
+    // 放入内存缓存, 超出上限时淘汰最久未使用的答案键
+    private synchronized void remember(String name, AnswerKey key) {
+        if (key.memorySize() > memoryBytes) {
+            return;
+        }
+        AnswerKey previous = memory.put(name, key);
+        if (previous != null) {
+            usedBytes -= previous.memorySize();
+        }
+        usedBytes += key.memorySize();
+        Iterator<Map.Entry<String, AnswerKey>> eldest = memory.entrySet().iterator();
+        while (usedBytes > memoryBytes && eldest.hasNext()) {
+            usedBytes -= eldest.next().getValue().memorySize();
+            eldest.remove();
+        }
+    }
+
+    /**
+     * 清空内存缓存 (磁盘缓存保留)
+     * @author zyh
+     * @date 2026/10/18
+     */
+    public synchronized void clearMemory() {
+        memory.clear();
+        usedBytes = 0;
+    }
+
+    public synchronized long getHits() {
+        return hits;
+    }
+
+    public synchronized long getMisses() {
+        return misses;
+    }
+}
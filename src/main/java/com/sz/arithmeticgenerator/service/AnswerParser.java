@@ -0,0 +1,214 @@
+package com.sz.arithmeticgenerator.service;
+
+/**
+ * 答案解析器: 把答案文本直接解析为最简分数 (long 分子、分母), 按数值比较
+ * 跳过第一个点号及其之前的序号, 忽略所有空白, 接受整数、分数 (可不是最简) 和带分数, 如 2、4/2、1'1/2、3/2、-1'1/2;
+ * 解析过程不创建字符串, 可复用, 但不是线程安全的
+ * @author zyh
+ * @version 1.0.0
+ * @date 2026/10/18
+ */
+final class AnswerParser {
+
+    /**
+     * 不是数字 (如 "N/A" 或格式错误)
+     */
+    static final int INVALID = 0;
+
+    /**
+     * 已解析为 long 分子、分母
+     */
+    static final int VALUE = 1;
+
+    /**
+     * 格式正确但超出 long 范围
+     */
+    static final int BIG = 2;
+
+    private long numerator;
+    private long denominator;
+
+    // 扫描状态
+    private CharSequence text;
+    private int position;
+    private int end;
+
+    /**
+     * 解析 text 中 [start, end) 的答案
+     * @param text  文本
+     * @param start 起始位置
+     * @param end   结束位置
+     * @return int {@link #INVALID}、{@link #VALUE} 或 {@link #BIG}
+     * @author zyh
+     * @date 2026/10/18
+     */
+    int parse(CharSequence text, int start, int end) {
+        this.text = text;
+        this.end = end;
+        this.position = skipNumbering(text, start, end);
+        try {
+            boolean negative = peek() == '-';
+            if (negative) {
+                position++;
+            }
+            long first = digits();
+            if (first < 0) {
+                return first == -2 ? BIG : INVALID;
+            }
+            long whole = 0;
+            long numerator = first;
+            long denominator = 1;
+            if (peek() == '\'') {
+                // 带分数 w'n/d
+                position++;
+                whole = first;
+                numerator = digits();
+                if (numerator < 0 || peek() != '/') {
+                    return numerator == -2 ? BIG : INVALID;
+                }
+            }
+            if (peek() == '/') {
+                position++;
+                denominator = digits();
+                if (denominator < 0) {
+                    return denominator == -2 ? BIG : INVALID;
+                }
+                if (denominator == 0) {
+                    return INVALID;
+                }
+            }
+            if (peek() != -1) {
+                return INVALID;
+            }
+            numerator = Math.addExact(Math.multiplyExact(whole, denominator), numerator);
+            long gcd = FractionMath.gcd(numerator, denominator);
+            this.numerator = negative ? -numerator / gcd : numerator / gcd;
+            this.denominator = denominator / gcd;
+            return VALUE;
+        } catch (ArithmeticException e) {
+            return BIG;
+        } finally {
+            this.text = null;
+        }
+    }
+
+    long numerator() {
+        return numerator;
+    }
+
+    long denominator() {
+        return denominator;
+    }
+
+    // 下一个非空白字符, 没有时返回 -1
+    private int peek() {
+        while (position < end && isWhitespace(text.charAt(position))) {
+            position++;
+        }
+        return position < end ? text.charAt(position) : -1;
+    }
+
+    // 读取一串数字 (中间可以有空白), 没有数字时返回 -1, 超出 long 时返回 -2
+    private long digits() {
+        long value = 0;
+        boolean any = false;
+        boolean overflow = false;
+        int c;
+        while ((c = peek()) >= '0' && c <= '9') {
+            position++;
+            any = true;
+            if (value > (Long.MAX_VALUE - (c - '0')) / 10) {
+                overflow = true;
+            } else {
+                value = value * 10 + (c - '0');
+            }
+        }
+        return !any ? -1 : overflow ? -2 : value;
+    }
+
+    /**
+     * 比较标准答案与用户答案
+     * @param correctNumerator   标准答案的分子
+     * @param correctDenominator 标准答案的分母, 标准答案不能以 long 表示 (超出范围或不是数字) 时为 0
+     * @param correctText        标准答案的文本, 只在慢速路径中使用
+     * @param userAnswer         用户答案
+     * @param start              用户答案的起始位置
+     * @param end                用户答案的结束位置
+     * @return boolean 是否正确
+     * @author zyh
+     * @date 2026/10/18
+     */
+    boolean matches(long correctNumerator, long correctDenominator, CharSequence correctText,
+                    CharSequence userAnswer, int start, int end) {
+        int status = parse(userAnswer, start, end);
+        // 快速路径: 两边都是 long 表示的最简分数
+        if (status == VALUE && correctDenominator != 0) {
+            return numerator == correctNumerator && denominator == correctDenominator;
+        }
+        return matchesSlowly(status, correctDenominator, correctText, userAnswer, start, end);
+    }
+
+    /**
+     * 快速路径不适用时的比较: 超出 long 时按 BigInteger 比较, 都不是数字时按去除空白后的文本比较
+     * @param status             用户答案的解析结果
+     * @param correctDenominator 标准答案的分母, 不能以 long 表示时为 0
+     * @param correctText        标准答案的文本
+     * @param userAnswer         用户答案
+     * @param start              用户答案的起始位置
+     * @param end                用户答案的结束位置
+     * @return boolean 是否正确
+     * @author zyh
+     * @date 2026/10/18
+     */
+    boolean matchesSlowly(int status, long correctDenominator, CharSequence correctText,
+                          CharSequence userAnswer, int start, int end) {
+        if (status == INVALID) {
+            // 标准答案也不是数字 (如 "N/A") 时按文本比较
+            return correctDenominator == 0 && parse(correctText, 0, correctText.length()) == INVALID
+                    && stripped(userAnswer, start, end).equals(stripped(correctText, 0, correctText.length()));
+        }
+        Fraction correct = parseBig(correctText, 0, correctText.length());
+        Fraction user = parseBig(userAnswer, start, end);
+        return correct != null && user != null && correct.compareTo(user) == 0;
+    }
+
+    // 以 BigInteger 解析答案, 不是数字时返回 null
+    private static Fraction parseBig(CharSequence text, int start, int end) {
+        String value = stripped(text, start, end);
+        boolean negative = value.startsWith("-");
+        if (negative) {
+            value = value.substring(1);
+        }
+        if (value.isEmpty() || !value.matches("\\d+('\\d+/\\d+|/\\d+)?") || value.matches(".*/0+")) {
+            return null;
+        }
+        Fraction fraction = new Fraction(value);
+        return negative ? new Fraction(fraction.bigNumerator().negate(), fraction.bigDenominator()) : fraction;
+    }
+
+    // 去除序号和空白后的文本
+    private static String stripped(CharSequence text, int start, int end) {
+        StringBuilder builder = new StringBuilder(end - start);
+        for (int i = skipNumbering(text, start, end); i < end; i++) {
+            char c = text.charAt(i);
+            if (!isWhitespace(c)) {
+                builder.append(c);
+            }
+        }
+        return builder.toString();
+    }
+
+    // 跳过第一个点号及其之前的序号
+    private static int skipNumbering(CharSequence text, int start, int end) {
+        for (int i = start; i < end; i++) {
+            if (text.charAt(i) == '.') {
+                return i + 1;
+            }
+        }
+        return start;
+    }
+
+    private static boolean isWhitespace(char c) {
+        return c == ' ' || c == '\t' || c == '\r' || c == '\n' || c == 0x0B || c == '\f';
+    }
+}
@@ -0,0 +1,46 @@
+package com.sz.arithmeticgenerator.service;
+
+import com.sz.arithmeticgenerator.util.BloomFilter;
+
+/**
+ * 带布隆过滤器前置的去重索引
+ * 布隆过滤器判断 "一定不存在" 时直接跳过对底层索引的查找
+ * @author zyh
+ * @version 1.0.0
+ * @date 2026/10/18
+ */
+public class BloomDedupIndex implements DedupIndex {
+
+    /**
+     * 布隆过滤器的误判率
+     */
+    private static final double FALSE_POSITIVE_RATE = 0.01;
+
+    private final DedupIndex index;
+    private final BloomFilter filter;
+
+    public BloomDedupIndex(DedupIndex index, int expectedSize) {
+        this.index = index;
+        this.filter = new BloomFilter(expectedSize, FALSE_POSITIVE_RATE);
+    }
+
+    @Override
+    public boolean add(byte[] key, long hash) {
+        if (!filter.put(hash)) {
+            // 过滤器中没有时一定是新键, 底层索引可以跳过比较直接插入
+            index.addAbsent(key, hash);
+            return true;
+        }
+        return index.add(key, hash);
+    }
+
+    @Override
+    public boolean contains(byte[] key, long hash) {
+        return filter.mightContain(hash) && index.contains(key, hash);
+    }
+
+    @Override
+    public int size() {
+        return index.size();
+    }
+}
@@ -0,0 +1,278 @@
+package com.sz.arithmeticgenerator.service;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.PathMatcher;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+/**
+ * 批量评分: 一份题目文件对多份答案文件
+ * 答案键只计算一次, 各答案文件在线程池中并行评分, 结果按答案文件的顺序输出为逐份报告和汇总
+ * @author zyh
+ * @version 1.0.0
+ * @date 2026/10/18
+ */
+public class BulkGrader {
+
+    /**
+     * 汇总中列出的最难题目数
+     */
+    private static final int HARDEST_QUESTIONS = 10;
+
+    /**
+     * 一份答案文件的评分结果
+     * @param answerFile 答案文件
+     * @param result     评分结果, 出错时为 null
+     * @param error      出错原因, 成功时为 null
+     */
+    public record Submission(Path answerFile, GradeResult result, String error) {
+    }
+
+    /**
+     * 全部答案文件的评分结果
+     * @param questionCount 题目数量
+     * @param submissions   各答案文件的评分结果, 顺序与输入一致
+     */
+    public record Report(int questionCount, List<Submission> submissions) {
+
+        /**
+         * 评分成功的答案文件数
+         * @return long 数量
+         * @author zyh
+         * @date 2026/10/18
+         */
+        public long gradedCount() {
+            return submissions.stream().filter(submission -> submission.result() != null).count();
+        }
+
+        /**
+         * 每道题答对的人数, 下标 i 对应第 i + 1 题
+         * @return int[] 答对人数
+         * @author zyh
+         * @date 2026/10/18
+         */
+        public int[] correctCounts() {
+            int[] counts = new int[questionCount];
+            for (Submission submission : submissions) {
+                if (submission.result() != null) {
+                    for (int i = 0; i < questionCount; i++) {
+                        if (submission.result().isCorrect(i + 1)) {
+                            counts[i]++;
+                        }
+                    }
+                }
+            }
+            return counts;
+        }
+
+        /**
+         * 写出逐份报告 (CSV): 答案文件, 正确数, 错误数, 错题编号 (空格分隔), 错误信息
+         * @param out 输出
+         * @throws IOException 写出失败
+         * @author zyh
+         * @date 2026/10/18
+         */
+        public void writeSubmissions(Appendable out) throws IOException {
+            out.append("submission,correct,wrong,wrong_questions,error\n");
+            for (Submission submission : submissions) {
+                out.append(csv(submission.answerFile().toString())).append(',');
+                GradeResult result = submission.result();
+                if (result == null) {
+                    out.append(",,,").append(csv(submission.error())).append('\n');
+                    continue;
+                }
+                out.append(String.valueOf(result.getCorrectCount())).append(',')
+                        .append(String.valueOf(result.getWrongCount())).append(',');
+                boolean first = true;
+                for (int number = 1; number <= result.getTotal(); number++) {
+                    if (!result.isCorrect(number)) {
+                        out.append(first ? "" : " ").append(String.valueOf(number));
+                        first = false;
+                    }
+                }
+                out.append(",\n");
+            }
+        }
+
+        /**
+         * 写出汇总: 份数、平均分、满分人数和正确率最低的题目
+         * @param out 输出
+         * @throws IOException 写出失败
+         * @author zyh
+         * @date 2026/10/18
+         */
+        public void writeSummary(Appendable out) throws IOException {
+            long graded = gradedCount();
+            long correct = 0;
+            long fullMarks = 0;
+            for (Submission submission : submissions) {
+                if (submission.result() != null) {
+                    correct += submission.result().getCorrectCount();
+                    fullMarks += submission.result().getWrongCount() == 0 ? 1 : 0;
+                }
+            }
+            out.append("Submissions: ").append(String.valueOf(submissions.size())).append('\n');
+            out.append("Graded: ").append(String.valueOf(graded)).append('\n');
+            out.append("Failed: ").append(String.valueOf(submissions.size() - graded)).append('\n');
+            out.append("Questions: ").append(String.valueOf(questionCount)).append('\n');
+            if (graded == 0 || questionCount == 0) {
+                return;
+            }
+            double average = (double) correct / graded;
+            out.append(String.format(Locale.ROOT, "Average: %.2f / %d (%.1f%%)%n", average, questionCount, 100 * average / questionCount));
+            out.append("Full marks: ").append(String.valueOf(fullMarks)).append('\n');
+            int[] counts = correctCounts();
+            out.append("Hardest:");
+            IntStream.range(0, questionCount).boxed()
+                    .sorted(Comparator.<Integer>comparingInt(i -> counts[i]).thenComparingInt(i -> i))
+                    .limit(HARDEST_QUESTIONS)
+                    .forEach(i -> appendQuietly(out, String.format(Locale.ROOT, " %d (%.1f%%)", i + 1, 100.0 * counts[i] / graded)));
+            out.append('\n');
+        }
+
+        private static void appendQuietly(Appendable out, String text) {
+            try {
+                out.append(text);
+            } catch (IOException e) {
+                throw new IllegalStateException(e);
+            }
+        }
+
+        // 按 CSV 规则转义字段
+        private static String csv(String field) {
+            if (field.indexOf(',') < 0 && field.indexOf('"') < 0 && field.indexOf('\n') < 0) {
+                return field;
+            }
+            return '"' + field.replace("\"", "\"\"") + '"';
+        }
+    }
+
+    /**
+     * 解析答案文件的位置: 目录 (其中全部普通文件) 或通配符 (如 answers/*.txt), 按路径排序
+     * @param location 目录或通配符
+     * @return {@code List<Path>} 答案文件
+     * @throws IOException 读取目录失败
+     * @author zyh
+     * @date 2026/10/18
+     */
+    public static List<Path> resolveSubmissions(String location) throws IOException {
+        Path path = Path.of(location);
+        if (Files.isDirectory(path)) {
+            try (Stream<Path> files = Files.list(path)) {
+                return files.filter(Files::isRegularFile).sorted().toList();
+            }
+        }
+        // 通配符: 从第一个含通配符的部分之前的目录开始查找
+        int wildcard = 0;
+        while (wildcard < path.getNameCount() && !hasWildcard(path.getName(wildcard).toString())) {
+            wildcard++;
+        }
+        if (wildcard == path.getNameCount()) {
+            // 不含通配符的单个文件
+            return Files.isRegularFile(path) ? List.of(path) : List.of();
+        }
+        boolean relative = !path.isAbsolute() && wildcard == 0;
+        Path root = relative ? Path.of(".")
+                : wildcard == 0 ? path.getRoot() : path.getRoot() == null ? path.subpath(0, wildcard) : path.getRoot().resolve(path.subpath(0, wildcard));
+        PathMatcher matcher = FileSystems.getDefault().getPathMatcher("glob:" + path.subpath(wildcard, path.getNameCount()));
+        int depth = path.getNameCount() - wildcard;
+        try (Stream<Path> files = Files.walk(root, location.contains("**") ? Integer.MAX_VALUE : depth)) {
+            return files.filter(Files::isRegularFile)
+                    .filter(file -> matcher.matches(root.relativize(file)))
+                    .map(file -> relative ? root.relativize(file) : file)
+                    .sorted()
+                    .toList();
+        }
+    }
+
+    private static boolean hasWildcard(String name) {
+        return name.indexOf('*') >= 0 || name.indexOf('?') >= 0 || name.indexOf('[') >= 0 || name.indexOf('{') >= 0;
+    }
+
+    /**
+     * 用同一份题目文件对多份答案文件并行评分
+     * @param exerciseFile 题目文件 (文本或二进制题目集)
+     * @param answerFiles  答案文件
+     * @param parallelism  并行线程数
+     * @return {@code Report} 评分结果
+     * @author zyh
+     * @date 2026/10/18
+     */
+    public static Report grade(String exerciseFile, List<Path> answerFiles, int parallelism) {
+        if (parallelism < 1) {
+            throw new IllegalArgumentException("parallelism must be positive");
+        }
+        AnswerKey answerKey = AnswerEvaluator.answerKey(exerciseFile);
+        Submission[] submissions = new Submission[answerFiles.size()];
+        ForkJoinPool pool = new ForkJoinPool(parallelism);
+        try {
+            // 每份答案文件写回自己的下标, 结果顺序与输入一致
+            pool.submit(() -> IntStream.range(0, submissions.length).parallel()
+                    .forEach(i -> submissions[i] = gradeOne(answerKey, answerFiles.get(i)))).join();
+        } finally {
+            pool.shutdown();
+        }
+        return new Report(answerKey.size(), Arrays.asList(submissions));
+    }
+
+    private static Submission gradeOne(AnswerKey answerKey, Path answerFile) {
+        try {
+            GradeResult result = AnswerEvaluator.grade(answerKey, answerFile.toString());
+            return result == null
+                    ? new Submission(answerFile, null, "Error: The number of questions and answers do not match.")
+                    : new Submission(answerFile, result, null);
+        } catch (IOException | RuntimeException e) {
+            return new Submission(answerFile, null, "Error reading files: " + e.getMessage());
+        }
+    }
+
+    /**
+     * 批量评分并写出逐份报告和汇总
+     * @param exerciseFile    题目文件
+     * @param answerLocation  答案文件所在目录或通配符
+     * @param parallelism     并行线程数
+     * @param submissionsFile 逐份报告 (CSV)
+     * @param summaryFile     汇总
+     * @return {@code Report} 评分结果
+     * @author zyh
+     * @date 2026/10/18
+     */
+    public static Report grade(String exerciseFile, String answerLocation, int parallelism,
+                               String submissionsFile, String summaryFile) {
+        List<Path> answerFiles;
+        try {
+            answerFiles = resolveSubmissions(answerLocation);
+        } catch (IOException e) {
+            throw new RuntimeException("Error reading files: " + e.getMessage());
+        }
+        if (answerFiles.isEmpty()) {
+            throw new IllegalArgumentException("没有找到答案文件: " + answerLocation);
+        }
+        Report report = grade(exerciseFile, answerFiles, parallelism);
+        write(submissionsFile, report::writeSubmissions);
+        write(summaryFile, report::writeSummary);
+        return report;
+    }
+
+    private interface ReportWriter {
+        void writeTo(Appendable out) throws IOException;
+    }
+
+    private static void write(String filename, ReportWriter writer) {
+        try (BufferedWriter out = Files.newBufferedWriter(Path.of(filename))) {
+            writer.writeTo(out);
+        } catch (IOException e) {
+            throw new RuntimeException("文件写错误: " + filename + ": " + e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,145 @@
+package com.sz.arithmeticgenerator.service;
+
+/**
+ * 编译后的表达式 (不可变的后缀程序)
+ * 表达式只需解析一次, 之后可以反复求值, 也可以缓存起来在多次评分之间共享
+ * @author zyh
+ * @version 1.0.0
+ * @date 2026/10/18
+ */
+public final class CompiledExpression {
+
+    /**
+     * 压入常量的指令, 其余指令为 {@link Operator#ordinal()}
+     */
+    static final byte PUSH = -1;
+
+    private static final Operator[] OPERATORS = Operator.values();
+
+    /**
+     * 指令序列
+     */
+    private final byte[] code;
+
+    /**
+     * 每条 PUSH 指令对应的常量 (打包的分数, 见 FractionMath); 运算符指令处不使用
+     */
+    private final long[] literals;
+
+    /**
+     * 超出 long 内核范围的常量, 没有时为 null
+     */
+    private final Fraction[] bigLiterals;
+
+    /**
+     * 求值所需的最大栈深度
+     */
+    private final int maxStackDepth;
+
+    CompiledExpression(byte[] code, long[] literals, Fraction[] bigLiterals, int maxStackDepth) {
+        this.code = code;
+        this.literals = literals;
+        this.bigLiterals = bigLiterals;
+        this.maxStackDepth = maxStackDepth;
+    }
+
+    /**
+     * 编译题目或表达式 (可带 "N." 序号和结尾的 "=")
+     * @param expression 表达式字符串 (原始题目行即可, 无需预处理)
+     * @return {@code CompiledExpression} 编译结果
+     * @author zyh
+     * @date 2026/10/18
+     */
+    public static CompiledExpression compile(CharSequence expression) {
+        return ExpressionCompiler.compile(expression);
+    }
+
+    /**
+     * 规范化的二进制键: 交换 "+" / "*" 两侧子表达式得到的题目与原题目的键相同
+     * @return byte[] 键
+     * @author zyh
+     * @date 2026/10/18
+     */
+    public byte[] canonicalKey() {
+        return ExpressionCanonicalizer.canonicalKey(code, literals, bigLiterals);
+    }
+
+    // 指令序列 (只读, 供序列化使用)
+    byte[] code() {
+        return code;
+    }
+
+    // 常量 (只读, 供序列化使用)
+    long[] literals() {
+        return literals;
+    }
+
+    // 是否含有超出 long 内核范围的常量
+    boolean hasBigLiterals() {
+        return bigLiterals != null;
+    }
+
+    /**
+     * 求值所需的最大栈深度
+     * @return int 栈深度
+     * @author zyh
+     * @date 2026/10/18
+     */
+    public int maxStackDepth() {
+        return maxStackDepth;
+    }
+
+    /**
+     * 在调用方提供的栈上以 long 内核求值, 不分配对象
+     * @param stack 长度不小于 {@link #maxStackDepth()} 的栈
+     * @return long 打包的结果, 任一步溢出时为 {@link FractionMath#OVERFLOW}
+     * @author zyh
+     * @date 2026/10/18
+     */
+    public long evaluatePacked(long[] stack) {
+        int top = 0;
+        for (int pc = 0; pc < code.length; pc++) {
+            byte instruction = code[pc];
+            if (instruction == PUSH) {
+                stack[top++] = literals[pc];
+            } else {
+                // 溢出标记会沿运算传播, 最后统一判断
+                long right = stack[--top];
+                stack[top - 1] = OPERATORS[instruction].apply(stack[top - 1], right);
+            }
+        }
+        return stack[0];
+    }
+
+    /**
+     * 求值: 优先使用 long 内核, 溢出时按 BigInteger 重新计算
+     * @return {@code Fraction} 计算结果
+     * @author zyh
+     * @date 2026/10/18
+     */
+    public Fraction evaluate() {
+        long result = evaluatePacked(new long[maxStackDepth]);
+        return FractionMath.isOverflow(result) ? evaluateBig() : Fraction.fromPacked(result);
+    }
+
+    /**
+     * 以 Fraction (支持 BigInteger) 求值, 用于 long 内核溢出的情况
+     * @return {@code Fraction} 计算结果
+     * @author zyh
+     * @date 2026/10/18
+     */
+    public Fraction evaluateBig() {
+        Fraction[] stack = new Fraction[maxStackDepth];
+        int top = 0;
+        for (int pc = 0; pc < code.length; pc++) {
+            byte instruction = code[pc];
+            if (instruction == PUSH) {
+                stack[top++] = bigLiterals != null && bigLiterals[pc] != null ? bigLiterals[pc] : Fraction.fromPacked(literals[pc]);
+            } else {
+                Fraction right = stack[--top];
+                stack[top - 1] = OPERATORS[instruction].apply(stack[top - 1], right);
+            }
+        }
+        return stack[0];
+    }
+}
@@ -0,0 +1,92 @@
+package com.sz.arithmeticgenerator.service;
+
+import com.sz.arithmeticgenerator.util.HashUtil;
+
+/**
+ * 题目去重索引
+ * 以题目规范化形式的字节序列为键; 不同实现在内存占用与精确度之间取舍
+ * @author zyh
+ * @version 1.0.0
+ * @date 2026/10/18
+ */
+public interface DedupIndex {
+
+    /**
+     * 加入一个键
+     * @param key  规范化形式的字节序列
+     * @param hash 键的 64 位哈希 (见 {@link HashUtil#hash64(byte[])})
+     * @return boolean 此前不存在时返回 true
+     * @author zyh
+     * @date 2026/10/18
+     */
+    boolean add(byte[] key, long hash);
+
+    /**
+     * 是否已包含某个键
+     * @param key  规范化形式的字节序列
+     * @param hash 键的 64 位哈希
+     * @return boolean 是否包含
+     * @author zyh
+     * @date 2026/10/18
+     */
+    boolean contains(byte[] key, long hash);
+
+    /**
+     * 已加入的键的数量
+     * @return int 数量
+     * @author zyh
+     * @date 2026/10/18
+     */
+    int size();
+
+    /**
+     * 加入一个调用方确定不存在的键, 实现可以跳过查找比较
+     * @param key  规范化形式的字节序列
+     * @param hash 键的 64 位哈希
+     * @author zyh
+     * @date 2026/10/18
+     */
+    default void addAbsent(byte[] key, long hash) {
+        add(key, hash);
+    }
+
+    default boolean add(byte[] key) {
+        return add(key, HashUtil.hash64(key));
+    }
+
+    default boolean contains(byte[] key) {
+        return contains(key, HashUtil.hash64(key));
+    }
+
+    /**
+     * 按名称创建去重索引
+     * hash: 只保存 64 位哈希 (默认, 内存最小; 哈希碰撞只会多拒绝一道新题, 不会放过重复题)
+     * exact: 保存哈希并用原始键精确校验
+     * bloom / bloom-exact: 在 hash / exact 索引前加一层布隆过滤器
+     * @param mode         索引类型, 为 null 时使用 hash, 不区分大小写
+     * @param expectedSize 预计键的数量
+     * @return {@code DedupIndex} 去重索引
+     * @author zyh
+     * @date 2026/10/18
+     */
+    static DedupIndex create(String mode, int expectedSize) {
+        String name = mode == null ? "hash" : mode.toLowerCase();
+        return switch (name) {
+            case "hash" -> new HashDedupIndex(expectedSize);
+            case "exact" -> new ExactDedupIndex(expectedSize);
+            case "bloom" -> new BloomDedupIndex(new HashDedupIndex(expectedSize), expectedSize);
+            case "bloom-exact" -> new BloomDedupIndex(new ExactDedupIndex(expectedSize), expectedSize);
+            default -> throw new IllegalArgumentException("不支持的去重索引类型: " + mode);
+        };
+    }
+
+    /**
+     * 不保存任何键的去重索引 (见 {@link NoDedupIndex}), 只能用于本身不会产生重复的构造式抽样
+     * @return {@code DedupIndex} 去重索引
+     * @author zyh
+     * @date 2026/10/18
+     */
+    static DedupIndex none() {
+        return NoDedupIndex.INSTANCE;
+    }
+}
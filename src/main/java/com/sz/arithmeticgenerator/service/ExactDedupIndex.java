@@ -0,0 +1,116 @@
+package com.sz.arithmeticgenerator.service;
+
+import java.util.Arrays;
+
+/**
+ * 精确校验的去重索引
+ * 哈希表中保存 64 位哈希和键在字节池中的位置, 哈希相同时再比较原始字节, 不会误判;
+ * 键连续存放在一个字节池里, 没有每个键一个对象的开销
+ * @author zyh
+ * @version 1.0.0
+ * @date 2026/10/18
+ */
+public class ExactDedupIndex implements DedupIndex {
+
+    private static final double LOAD_FACTOR = 0.6;
+
+    // 槽位: 哈希值与键在字节池中的位置 (+1, 0 表示空槽)
+    private long[] hashes;
+    private int[] offsets;
+    private int mask;
+    private int size;
+
+    // 字节池: 每个键存为 [长度 (2 字节)][内容]
+    private byte[] pool;
+    private int poolSize;
+
+    public ExactDedupIndex(int expectedSize) {
+        long needed = Math.max(16, (long) (expectedSize / LOAD_FACTOR) + 1);
+        allocate((int) Math.min(1 << 30, Long.highestOneBit(needed - 1) << 1));
+        pool = new byte[Math.max(256, Math.min(expectedSize, 1 << 16) * 16)];
+    }
+
+    @Override
+    public boolean add(byte[] key, long hash) {
+        int index = (int) hash & mask;
+        while (offsets[index] != 0) {
+            if (hashes[index] == hash && keyEquals(offsets[index] - 1, key)) {
+                return false;
+            }
+            index = (index + 1) & mask;
+        }
+        insert(index, key, hash);
+        return true;
+    }
+
+    @Override
+    public void addAbsent(byte[] key, long hash) {
+        int index = (int) hash & mask;
+        while (offsets[index] != 0) {
+            index = (index + 1) & mask;
+        }
+        insert(index, key, hash);
+    }
+
+    @Override
+    public boolean contains(byte[] key, long hash) {
+        int index = (int) hash & mask;
+        while (offsets[index] != 0) {
+            if (hashes[index] == hash && keyEquals(offsets[index] - 1, key)) {
+                return true;
+            }
+            index = (index + 1) & mask;
+        }
+        return false;
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    private void insert(int index, byte[] key, long hash) {
+        if (key.length > 0xFFFF) {
+            throw new IllegalArgumentException("去重键过长: " + key.length);
+        }
+        if (poolSize + key.length + 2 > pool.length) {
+            pool = Arrays.copyOf(pool, (int) Math.min(Integer.MAX_VALUE - 8, Math.max(pool.length * 2L, poolSize + key.length + 2L)));
+        }
+        hashes[index] = hash;
+        offsets[index] = poolSize + 1;
+        pool[poolSize++] = (byte) (key.length >>> 8);
+        pool[poolSize++] = (byte) key.length;
+        System.arraycopy(key, 0, pool, poolSize, key.length);
+        poolSize += key.length;
+        if (++size > (int) (hashes.length * LOAD_FACTOR)) {
+            resize();
+        }
+    }
+
+    private boolean keyEquals(int offset, byte[] key) {
+        int length = (pool[offset] & 0xFF) << 8 | (pool[offset + 1] & 0xFF);
+        return length == key.length && Arrays.equals(pool, offset + 2, offset + 2 + length, key, 0, length);
+    }
+
+    private void allocate(int capacity) {
+        hashes = new long[capacity];
+        offsets = new int[capacity];
+        mask = capacity - 1;
+    }
+
+    private void resize() {
+        long[] oldHashes = hashes;
+        int[] oldOffsets = offsets;
+        allocate(oldHashes.length * 2);
+        for (int i = 0; i < oldHashes.length; i++) {
+            if (oldOffsets[i] != 0) {
+                int index = (int) oldHashes[i] & mask;
+                while (offsets[index] != 0) {
+                    index = (index + 1) & mask;
+                }
+                hashes[index] = oldHashes[i];
+                offsets[index] = oldOffsets[i];
+            }
+        }
+    }
+}
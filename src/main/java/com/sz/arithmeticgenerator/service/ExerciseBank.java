@@ -0,0 +1,203 @@
+package com.sz.arithmeticgenerator.service;
+
+import com.sz.arithmeticgenerator.util.HashUtil;
+import com.sz.arithmeticgenerator.util.MappedLineReader;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.IntFunction;
+import java.util.stream.IntStream;
+
+/**
+ * 已有题库: 把一个或多个题目文件 (文本或二进制题目集) 中的题目批量加入去重索引,
+ * 之后用这个索引生成的题目不会与题库中的任何一道重复
+ * 文本文件按行映射读取, 每批题目直接在映射的字节上并行编译并计算规范化键和哈希, 再在调用线程中按文件顺序加入索引,
+ * 因此加载结果与线程数无关
+ * @author zyh
+ * @version 1.0.0
+ * @date 2026/10/18
+ */
+public class ExerciseBank {
+
+    /**
+     * 每批并行计算规范化键的题目数
+     */
+    private static final int BATCH_SIZE = 1 << 14;
+
+    private final DedupIndex index;
+    private final long size;
+
+    private ExerciseBank(DedupIndex index, long size) {
+        this.index = index;
+        this.size = size;
+    }
+
+    /**
+     * 加载题库
+     * @param exerciseFiles 已有的题目文件
+     * @param dedupMode     去重索引类型 (见 {@link DedupIndex#create(String, int)})
+     * @param extraCapacity 之后还要加入索引的题目数
+     * @param threads       计算规范化键的线程数
+     * @return {@code ExerciseBank} 题库
+     * @author zyh
+     * @date 2026/10/18
+     */
+    public static ExerciseBank load(List<String> exerciseFiles, String dedupMode, int extraCapacity, int threads) {
+        if (threads < 1) {
+            throw new IllegalArgumentException("parallelism must be positive");
+        }
+        try {
+            // 先数出题目总数, 按题库和新题目的总数创建索引, 加载过程中不再扩容
+            long total = 0;
+            for (String file : exerciseFiles) {
+                total += countQuestions(file);
+            }
+            DedupIndex index = DedupIndex.create(dedupMode, (int) Math.min(Integer.MAX_VALUE, total + extraCapacity));
+            ForkJoinPool pool = threads == 1 ? null : new ForkJoinPool(threads);
+            try {
+                Batch batch = new Batch();
+                for (String file : exerciseFiles) {
+                    if (ExerciseSet.isExerciseSet(file)) {
+                        loadExerciseSet(file, index, pool, batch);
+                    } else {
+                        loadText(file, index, pool, batch);
+                    }
+                }
+            } finally {
+                if (pool != null) {
+                    pool.shutdown();
+                }
+            }
+            return new ExerciseBank(index, total);
+        } catch (IOException e) {
+            throw new RuntimeException("Error reading files: " + e.getMessage());
+        }
+    }
+
+    /**
+     * 包含题库全部题目的去重索引
+     * @return {@code DedupIndex} 去重索引
+     * @author zyh
+     * @date 2026/10/18
+     */
+    public DedupIndex index() {
+        return index;
+    }
+
+    /**
+     * 题库中的题目数 (非空行数, 含重复)
+     * @return long 题目数
+     * @author zyh
+     * @date 2026/10/18
+     */
+    public long size() {
+        return size;
+    }
+
+    // 文本文件数非空行, 二进制题目集直接读取文件头中的题目数
+    private static long countQuestions(String file) throws IOException {
+        if (ExerciseSet.isExerciseSet(file)) {
+            try (ExerciseSet exercises = ExerciseSet.open(file)) {
+                return exercises.size();
+            }
+        }
+        long count = 0;
+        try (MappedLineReader lines = new MappedLineReader(file)) {
+            while (lines.nextLine()) {
+                if (lines.lineEnd() > lines.lineStart()) {
+                    count++;
+                }
+            }
+        }
+        return count;
+    }
+
+    private static void loadText(String file, DedupIndex index, ForkJoinPool pool, Batch batch) throws IOException {
+        try (MappedLineReader lines = new MappedLineReader(file)) {
+            while (lines.nextLine()) {
+                if (lines.lineEnd() > lines.lineStart()) {
+                    // 记下所在窗口, 重新映射后之前的行仍指向旧窗口
+                    batch.addLine(lines.buffer(), lines.lineStart(), lines.lineEnd());
+                    if (batch.size == BATCH_SIZE) {
+                        batch.flush(index, pool);
+                    }
+                }
+            }
+            batch.flush(index, pool);
+        }
+    }
+
+    private static void loadExerciseSet(String file, DedupIndex index, ForkJoinPool pool, Batch batch) throws IOException {
+        try (ExerciseSet exercises = ExerciseSet.open(file)) {
+            for (long k = 0; k < exercises.size(); k += BATCH_SIZE) {
+                long first = k;
+                int count = (int) Math.min(BATCH_SIZE, exercises.size() - k);
+                batch.size = count;
+                batch.computeKeys(pool, i -> exercises.expression(first + i));
+                batch.addTo(index);
+            }
+        }
+    }
+
+    /**
+     * 一批待加入索引的题目: 行所在的字节区间及算出的键和哈希, 数组在各批之间复用
+     */
+    private static final class Batch {
+
+        private final ByteBuffer[] buffers = new ByteBuffer[BATCH_SIZE];
+        private final int[] starts = new int[BATCH_SIZE];
+        private final int[] ends = new int[BATCH_SIZE];
+        private final byte[][] keys = new byte[BATCH_SIZE][];
+        private final long[] hashes = new long[BATCH_SIZE];
+        private int size;
+
+        void addLine(ByteBuffer buffer, int start, int end) {
+            buffers[size] = buffer;
+            starts[size] = start;
+            ends[size] = end;
+            size++;
+        }
+
+        // 编译本批的文本题目并加入索引
+        void flush(DedupIndex index, ForkJoinPool pool) {
+            if (size == 0) {
+                return;
+            }
+            ThreadLocal<Utf8LineView> views = ThreadLocal.withInitial(Utf8LineView::new);
+            computeKeys(pool, i -> CompiledExpression.compile(views.get().reset(buffers[i], starts[i], ends[i])));
+            addTo(index);
+        }
+
+        // 并行计算本批各题的规范化键; 无法编译的行不可能与生成的题目重复, 直接跳过
+        void computeKeys(ForkJoinPool pool, IntFunction<CompiledExpression> expressions) {
+            IntStream range = IntStream.range(0, size);
+            Runnable task = () -> (pool == null ? range : range.parallel()).forEach(i -> {
+                try {
+                    keys[i] = expressions.apply(i).canonicalKey();
+                    hashes[i] = HashUtil.hash64(keys[i]);
+                } catch (RuntimeException e) {
+                    keys[i] = null;
+                }
+            });
+            if (pool == null) {
+                task.run();
+            } else {
+                pool.submit(task).join();
+            }
+        }
+
+        // 按原有顺序加入索引, 然后清空本批
+        void addTo(DedupIndex index) {
+            for (int i = 0; i < size; i++) {
+                if (keys[i] != null) {
+                    index.add(keys[i], hashes[i]);
+                }
+                keys[i] = null;
+                buffers[i] = null;
+            }
+            size = 0;
+        }
+    }
+}
@@ -0,0 +1,225 @@
+package com.sz.arithmeticgenerator.service;
+
+import java.io.Closeable;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.math.BigInteger;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.LongBuffer;
+import java.nio.channels.FileChannel;
+
+/**
+ * 二进制题目集 (内存映射, 只读)
+ * 每道题保存为后缀程序 (指令与常量) 及预先算好的答案, 可以在 O(1) 时间内定位第 k 题, 评分时无需解析和求值;
+ * 文件格式 (小端序):
+ * <pre>
+ * 文件头 (32 字节): int 魔数 "QSET", int 版本, long 题目数, long 第一题的序号, long 索引区的位置
+ * 题目区: 每题为 byte 指令数 n, n 个指令 (PUSH = -1, 其余为运算符序号), 每个 PUSH 对应一个常量:
+ *         分子 (zigzag) 和分母, 均为每字节 7 位的变长编码
+ * 索引区: long[题目数] 每题在文件中的位置, long[题目数] 答案分子, long[题目数] 答案分母
+ * </pre>
+ * @author zyh
+ * @version 1.0.0
+ * @date 2026/10/18
+ */
+public final class ExerciseSet implements Closeable {
+
+    /**
+     * 魔数 "QSET"
+     */
+    public static final int MAGIC = 0x54455351;
+
+    public static final int VERSION = 1;
+
+    /**
+     * 文件头长度
+     */
+    static final int HEADER_SIZE = 32;
+
+    private final FileInputStream input;
+    private final long count;
+    private final long firstNumber;
+    private final ByteBuffer records;
+    private final LongBuffer offsets;
+    private final LongBuffer numerators;
+    private final LongBuffer denominators;
+
+    private ExerciseSet(String filename) throws IOException {
+        this.input = new FileInputStream(filename);
+        try {
+            FileChannel channel = input.getChannel();
+            ByteBuffer header = channel.map(FileChannel.MapMode.READ_ONLY, 0, HEADER_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+            if (header.getInt(0) != MAGIC || header.getInt(4) != VERSION) {
+                throw new IOException("不是二进制题目集: " + filename);
+            }
+            this.count = header.getLong(8);
+            this.firstNumber = header.getLong(16);
+            long indexPosition = header.getLong(24);
+            // 单个映射区不能超过 2GB
+            if (indexPosition > Integer.MAX_VALUE || count > Integer.MAX_VALUE / 8) {
+                throw new IOException("二进制题目集过大: " + filename);
+            }
+            this.records = channel.map(FileChannel.MapMode.READ_ONLY, 0, indexPosition).order(ByteOrder.LITTLE_ENDIAN);
+            this.offsets = mapColumn(channel, indexPosition, 0);
+            this.numerators = mapColumn(channel, indexPosition, 1);
+            this.denominators = mapColumn(channel, indexPosition, 2);
+        } catch (IOException | RuntimeException e) {
+            input.close();
+            throw e;
+        }
+    }
+
+    private LongBuffer mapColumn(FileChannel channel, long indexPosition, int column) throws IOException {
+        long size = count * Long.BYTES;
+        return channel.map(FileChannel.MapMode.READ_ONLY, indexPosition + column * size, size)
+                .order(ByteOrder.LITTLE_ENDIAN).asLongBuffer();
+    }
+
+    /**
+     * 打开二进制题目集
+     * @param filename 文件名
+     * @return {@code ExerciseSet} 题目集
+     * @throws IOException 文件不存在或格式错误
+     * @author zyh
+     * @date 2026/10/18
+     */
+    public static ExerciseSet open(String filename) throws IOException {
+        return new ExerciseSet(filename);
+    }
+
+    /**
+     * 文件是否为二进制题目集 (按魔数判断), 文件不存在或无法读取时返回 false
+     * @param filename 文件名
+     * @return boolean 是否为二进制题目集
+     * @author zyh
+     * @date 2026/10/18
+     */
+    public static boolean isExerciseSet(String filename) {
+        try (InputStream in = new FileInputStream(filename)) {
+            byte[] magic = in.readNBytes(4);
+            return magic.length == 4 && ByteBuffer.wrap(magic).order(ByteOrder.LITTLE_ENDIAN).getInt() == MAGIC;
+        } catch (IOException e) {
+            return false;
+        }
+    }
+
+    /**
+     * 题目数量
+     * @return long 题目数量
+     * @author zyh
+     * @date 2026/10/18
+     */
+    public long size() {
+        return count;
+    }
+
+    /**
+     * 第一题的序号
+     * @return long 序号
+     * @author zyh
+     * @date 2026/10/18
+     */
+    public long firstNumber() {
+        return firstNumber;
+    }
+
+    /**
+     * 第 k 题 (从 0 开始) 的后缀程序
+     * @param k 题目下标
+     * @return {@code CompiledExpression} 编译后的题目, 可直接求值
+     * @author zyh
+     * @date 2026/10/18
+     */
+    public CompiledExpression expression(long k) {
+        int position = (int) offsets.get(index(k));
+        int length = records.get(position++);
+        byte[] code = new byte[length];
+        long[] literals = new long[length];
+        records.get(position, code);
+        // 常量紧跟在指令之后
+        int[] cursor = {position + length};
+        int depth = 0;
+        int maxDepth = 0;
+        for (int pc = 0; pc < length; pc++) {
+            if (code[pc] == CompiledExpression.PUSH) {
+                int zigzag = readVarInt(cursor);
+                literals[pc] = FractionMath.pack(zigzag >>> 1 ^ -(zigzag & 1), readVarInt(cursor));
+                maxDepth = Math.max(maxDepth, ++depth);
+            } else {
+                depth--;
+            }
+        }
+        return new CompiledExpression(code, literals, null, maxDepth);
+    }
+
+    /**
+     * 第 k 题的题目文本 (不含序号和等号), 只在必要处加括号
+     * @param k 题目下标
+     * @return {@code String} 题目
+     * @author zyh
+     * @date 2026/10/18
+     */
+    public String question(long k) {
+        CompiledExpression expression = expression(k);
+        return ExpressionSpace.format(expression.code(), expression.literals());
+    }
+
+    /**
+     * 第 k 题答案的分子 (最简分数)
+     * @param k 题目下标
+     * @return long 分子
+     * @author zyh
+     * @date 2026/10/18
+     */
+    public long answerNumerator(long k) {
+        return numerators.get(index(k));
+    }
+
+    /**
+     * 第 k 题答案的分母 (正数)
+     * @param k 题目下标
+     * @return long 分母
+     * @author zyh
+     * @date 2026/10/18
+     */
+    public long answerDenominator(long k) {
+        return denominators.get(index(k));
+    }
+
+    /**
+     * 第 k 题的答案
+     * @param k 题目下标
+     * @return {@code Fraction} 答案
+     * @author zyh
+     * @date 2026/10/18
+     */
+    public Fraction answer(long k) {
+        return new Fraction(BigInteger.valueOf(answerNumerator(k)), BigInteger.valueOf(answerDenominator(k)));
+    }
+
+    // 读取变长编码的整数, cursor[0] 为读取位置, 读取后前移
+    private int readVarInt(int[] cursor) {
+        int value = 0;
+        for (int shift = 0; ; shift += 7) {
+            byte b = records.get(cursor[0]++);
+            value |= (b & 0x7F) << shift;
+            if (b >= 0) {
+                return value;
+            }
+        }
+    }
+
+    private int index(long k) {
+        if (k < 0 || k >= count) {
+            throw new IndexOutOfBoundsException("题目下标超出范围: " + k);
+        }
+        return (int) k;
+    }
+
+    @Override
+    public void close() throws IOException {
+        input.close();
+    }
+}
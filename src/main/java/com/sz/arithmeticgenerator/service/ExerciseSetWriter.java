@@ -0,0 +1,182 @@
+package com.sz.arithmeticgenerator.service;
+
+import java.io.Closeable;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.math.BigInteger;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.util.Arrays;
+
+/**
+ * 二进制题目集的顺序写入器 (格式见 {@link ExerciseSet})
+ * 题目区边写边输出, 索引区 (每题 24 字节) 暂存在内存中, 关闭时写在文件末尾并回填文件头
+ * @author zyh
+ * @version 1.0.0
+ * @date 2026/10/18
+ */
+public class ExerciseSetWriter implements Closeable {
+
+    private static final int BUFFER_SIZE = 1 << 20;
+
+    /**
+     * 一道题最多的指令数 (指令数以一个字节保存)
+     */
+    private static final int MAX_INSTRUCTIONS = Byte.MAX_VALUE;
+
+    /**
+     * 变长编码的 int 最多占用的字节数
+     */
+    private static final int MAX_VARINT_BYTES = 5;
+
+    private static final BigInteger LONG_MIN = BigInteger.valueOf(Long.MIN_VALUE);
+    private static final BigInteger LONG_MAX = BigInteger.valueOf(Long.MAX_VALUE);
+
+    private final String filename;
+    private final FileOutputStream file;
+    private final FileChannel channel;
+    private final ByteBuffer buffer = ByteBuffer.allocate(BUFFER_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+    private final long firstNumber;
+    /**
+     * 已写出到文件的字节数 (不含缓冲区)
+     */
+    private long flushed = ExerciseSet.HEADER_SIZE;
+    private long[] offsets = new long[1024];
+    private long[] numerators = new long[1024];
+    private long[] denominators = new long[1024];
+    private int count;
+
+    public ExerciseSetWriter(String filename) {
+        this(filename, 1);
+    }
+
+    /**
+     * @param filename    文件名
+     * @param firstNumber 第一题的序号
+     */
+    public ExerciseSetWriter(String filename, long firstNumber) {
+        this.filename = filename;
+        this.firstNumber = firstNumber;
+        try {
+            this.file = new FileOutputStream(filename);
+            this.channel = file.getChannel();
+            // 文件头在关闭时回填
+            channel.position(ExerciseSet.HEADER_SIZE);
+        } catch (IOException e) {
+            throw new RuntimeException("文件写错误: " + filename + ": " + e.getMessage());
+        }
+    }
+
+    /**
+     * 编译、求值并写入一道题目
+     * @param question 题目 (可带序号和等号)
+     * @author zyh
+     * @date 2026/10/18
+     */
+    public void write(String question) {
+        // 写入的题目通常互不重复, 不经过编译缓存
+        CompiledExpression compiled = AnswerEvaluator.compileUncached(question);
+        write(compiled, compiled.evaluate());
+    }
+
+    /**
+     * 写入一道已编译的题目及其答案
+     * @param expression 编译后的题目
+     * @param answer     答案
+     * @author zyh
+     * @date 2026/10/18
+     */
+    public void write(CompiledExpression expression, Fraction answer) {
+        byte[] code = expression.code();
+        long[] literals = expression.literals();
+        if (expression.hasBigLiterals() || code.length > MAX_INSTRUCTIONS) {
+            throw new IllegalArgumentException("题目超出二进制题目集的表示范围: " + ExpressionSpace.format(code, literals));
+        }
+        BigInteger numerator = answer.bigNumerator();
+        BigInteger denominator = answer.bigDenominator();
+        if (numerator.compareTo(LONG_MIN) <= 0 || numerator.compareTo(LONG_MAX) > 0 || denominator.compareTo(LONG_MAX) > 0) {
+            throw new IllegalArgumentException("答案超出二进制题目集的表示范围: " + answer.toMixedNumberString());
+        }
+        if (buffer.remaining() < 1 + code.length * (1 + 2 * MAX_VARINT_BYTES)) {
+            flushBuffer();
+        }
+        if (count == offsets.length) {
+            offsets = Arrays.copyOf(offsets, count * 2);
+            numerators = Arrays.copyOf(numerators, count * 2);
+            denominators = Arrays.copyOf(denominators, count * 2);
+        }
+        offsets[count] = flushed + buffer.position();
+        numerators[count] = numerator.longValue();
+        denominators[count++] = denominator.longValue();
+        buffer.put((byte) code.length);
+        buffer.put(code);
+        for (int pc = 0; pc < code.length; pc++) {
+            if (code[pc] == CompiledExpression.PUSH) {
+                int literal = FractionMath.numerator(literals[pc]);
+                putVarInt(literal << 1 ^ literal >> 31);
+                putVarInt(FractionMath.denominator(literals[pc]));
+            }
+        }
+    }
+
+    // 变长编码无符号整数, 每字节 7 位
+    private void putVarInt(int value) {
+        while ((value & ~0x7F) != 0) {
+            buffer.put((byte) (value & 0x7F | 0x80));
+            value >>>= 7;
+        }
+        buffer.put((byte) value);
+    }
+
+    /**
+     * 已写入的题目数
+     * @return int 题目数
+     * @author zyh
+     * @date 2026/10/18
+     */
+    public int getCount() {
+        return count;
+    }
+
+    private void flushBuffer() {
+        try {
+            buffer.flip();
+            while (buffer.hasRemaining()) {
+                flushed += channel.write(buffer);
+            }
+            buffer.clear();
+        } catch (IOException e) {
+            throw new RuntimeException("文件写错误: " + filename + ": " + e.getMessage());
+        }
+    }
+
+    // 按列写出索引区
+    private void writeColumn(long[] column) {
+        for (int i = 0; i < count; i++) {
+            if (buffer.remaining() < Long.BYTES) {
+                flushBuffer();
+            }
+            buffer.putLong(column[i]);
+        }
+    }
+
+    @Override
+    public void close() {
+        try (file) {
+            long indexPosition = flushed + buffer.position();
+            writeColumn(offsets);
+            writeColumn(numerators);
+            writeColumn(denominators);
+            flushBuffer();
+            ByteBuffer header = ByteBuffer.allocate(ExerciseSet.HEADER_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+            header.putInt(ExerciseSet.MAGIC).putInt(ExerciseSet.VERSION)
+                    .putLong(count).putLong(firstNumber).putLong(indexPosition).flip();
+            while (header.hasRemaining()) {
+                channel.write(header, header.position());
+            }
+        } catch (IOException e) {
+            throw new RuntimeException("文件写错误: " + filename + ": " + e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,195 @@
+package com.sz.arithmeticgenerator.service;
+
+import java.math.BigInteger;
+import java.util.Arrays;
+
+/**
+ * 表达式规范化: 在 {@link CompiledExpression} 的后缀程序上直接构造表达式树,
+ * 对每个 "+" / "*" 结点按精确的有理数值 (值相同再按结构) 排列左右子树, 输出紧凑的二进制键
+ * 两道题目可以经过有限次交换 "+" / "*" 左右两侧的子表达式变成同一道题, 当且仅当它们的键相同
+ * @author zyh
+ * @version 1.0.0
+ * @date 2026/10/18
+ */
+final class ExpressionCanonicalizer {
+
+    // 键中的标记: 常量 (long 内核可表示 / 超出范围) 与运算符 (加上 ordinal)
+    private static final byte TAG_LITERAL = 0x00;
+    private static final byte TAG_BIG_LITERAL = 0x01;
+    private static final byte TAG_OPERATOR = 0x10;
+
+    private static final Operator[] OPERATORS = Operator.values();
+
+    private final byte[] code;
+    private final long[] literals;
+    private final Fraction[] bigLiterals;
+
+    // 每个结点 (以后缀程序中的位置编号) 的左子结点位置, 右子结点总是 pc - 1
+    private final int[] left;
+    // 每个结点的值 (打包的分数); 溢出时为 OVERFLOW, 按需计算 bigValues
+    private final long[] values;
+    private Fraction[] bigValues;
+    // "+" / "*" 结点是否需要交换左右子树
+    private final boolean[] swapped;
+
+    // 输出缓冲区
+    private byte[] buffer = new byte[32];
+    private int length;
+
+    private ExpressionCanonicalizer(byte[] code, long[] literals, Fraction[] bigLiterals) {
+        this.code = code;
+        this.literals = literals;
+        this.bigLiterals = bigLiterals;
+        this.left = new int[code.length];
+        this.values = new long[code.length];
+        this.swapped = new boolean[code.length];
+    }
+
+    // 计算规范化的二进制键
+    static byte[] canonicalKey(byte[] code, long[] literals, Fraction[] bigLiterals) {
+        ExpressionCanonicalizer canonicalizer = new ExpressionCanonicalizer(code, literals, bigLiterals);
+        canonicalizer.buildTree();
+        canonicalizer.emit(code.length - 1);
+        return Arrays.copyOf(canonicalizer.buffer, canonicalizer.length);
+    }
+
+    // 表达式是否已经是规范形式, 即没有需要交换左右子树的 "+" / "*" 结点
+    static boolean isCanonical(byte[] code, long[] literals) {
+        ExpressionCanonicalizer canonicalizer = new ExpressionCanonicalizer(code, literals, null);
+        canonicalizer.buildTree();
+        for (boolean swap : canonicalizer.swapped) {
+            if (swap) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    // 按后缀程序还原树结构, 自底向上计算每个结点的值并确定子树顺序
+    private void buildTree() {
+        int[] stack = new int[code.length];
+        int top = 0;
+        for (int pc = 0; pc < code.length; pc++) {
+            if (code[pc] == CompiledExpression.PUSH) {
+                values[pc] = isBigLiteral(pc) ? FractionMath.OVERFLOW : literals[pc];
+            } else {
+                top--;
+                left[pc] = stack[--top];
+                values[pc] = OPERATORS[code[pc]].apply(values[left[pc]], values[pc - 1]);
+                // 子结点的顺序已经确定, 只有加法和乘法满足交换律, 较小的子树放在前面
+                swapped[pc] = isCommutative(code[pc]) && compareSubtree(left[pc], pc - 1) > 0;
+            }
+            stack[top++] = pc;
+        }
+    }
+
+    // 按规范顺序输出以 pc 为根的子树 (前序)
+    private void emit(int pc) {
+        byte instruction = code[pc];
+        if (instruction == CompiledExpression.PUSH) {
+            emitLiteral(pc);
+            return;
+        }
+        writeByte(TAG_OPERATOR + instruction);
+        emit(first(pc));
+        emit(second(pc));
+    }
+
+    // 子树的全序: 先比较精确值, 值相同再比较规范化后的结构
+    private int compareSubtree(int a, int b) {
+        int result = compareValue(a, b);
+        if (result != 0) {
+            return result;
+        }
+        boolean leafA = code[a] == CompiledExpression.PUSH;
+        boolean leafB = code[b] == CompiledExpression.PUSH;
+        if (leafA || leafB) {
+            // 值相同的两个常量相等; 常量排在运算结点之前
+            return Boolean.compare(leafB, leafA);
+        }
+        if (code[a] != code[b]) {
+            return Integer.compare(code[a], code[b]);
+        }
+        // 同一运算符: 依次比较规范顺序下的子结点
+        result = compareSubtree(first(a), first(b));
+        return result != 0 ? result : compareSubtree(second(a), second(b));
+    }
+
+    // 规范顺序下的第一个子结点
+    private int first(int pc) {
+        return swapped[pc] ? pc - 1 : left[pc];
+    }
+
+    // 规范顺序下的第二个子结点
+    private int second(int pc) {
+        return swapped[pc] ? left[pc] : pc - 1;
+    }
+
+    private int compareValue(int a, int b) {
+        if (!FractionMath.isOverflow(values[a]) && !FractionMath.isOverflow(values[b])) {
+            return FractionMath.compare(values[a], values[b]);
+        }
+        return bigValue(a).compareTo(bigValue(b));
+    }
+
+    // long 内核溢出时以 Fraction 计算子树的值
+    private Fraction bigValue(int pc) {
+        if (!FractionMath.isOverflow(values[pc])) {
+            return Fraction.fromPacked(values[pc]);
+        }
+        if (bigValues == null) {
+            bigValues = new Fraction[code.length];
+        }
+        if (bigValues[pc] == null) {
+            bigValues[pc] = code[pc] == CompiledExpression.PUSH
+                    ? bigLiterals[pc]
+                    : OPERATORS[code[pc]].apply(bigValue(left[pc]), bigValue(pc - 1));
+        }
+        return bigValues[pc];
+    }
+
+    private boolean isBigLiteral(int pc) {
+        return bigLiterals != null && bigLiterals[pc] != null;
+    }
+
+    private static boolean isCommutative(byte instruction) {
+        return instruction == Operator.ADD.ordinal() || instruction == Operator.MULTIPLY.ordinal();
+    }
+
+    // 常量: 分子按 zigzag 变长编码, 分母按变长编码; 超出范围的常量写入 BigInteger 的字节
+    private void emitLiteral(int pc) {
+        if (!isBigLiteral(pc)) {
+            writeByte(TAG_LITERAL);
+            int numerator = FractionMath.numerator(literals[pc]);
+            writeVarLong(((numerator << 1) ^ (numerator >> 31)) & 0xFFFFFFFFL);
+            writeVarLong(FractionMath.denominator(literals[pc]));
+            return;
+        }
+        writeByte(TAG_BIG_LITERAL);
+        writeBigInteger(bigLiterals[pc].bigNumerator());
+        writeBigInteger(bigLiterals[pc].bigDenominator());
+    }
+
+    private void writeBigInteger(BigInteger value) {
+        byte[] bytes = value.toByteArray();
+        writeVarLong(bytes.length);
+        for (byte b : bytes) {
+            writeByte(b);
+        }
+    }
+
+    private void writeVarLong(long value) {
+        while ((value & ~0x7FL) != 0) {
+            writeByte((int) (value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        writeByte((int) value);
+    }
+
+    private void writeByte(int b) {
+        if (length == buffer.length) {
+            buffer = Arrays.copyOf(buffer, length * 2);
+        }
+        buffer[length++] = (byte) b;
+    }
+}
@@ -0,0 +1,153 @@
+package com.sz.arithmeticgenerator.service;
+
+import com.sz.arithmeticgenerator.service.ExpressionLexer.TokenType;
+
+import java.util.Arrays;
+
+/**
+ * 表达式编译器: 把表达式字符串一次性解析为 {@link CompiledExpression} 后缀程序
+ * @author zyh
+ * @version 1.0.0
+ * @date 2026/10/18
+ */
+final class ExpressionCompiler {
+
+    // 词法分析器, 直接在原始题目行上扫描
+    private final ExpressionLexer lexer;
+
+    // 正在生成的指令
+    private byte[] code = new byte[16];
+    private long[] literals = new long[16];
+    private Fraction[] bigLiterals;
+    private int size;
+    // 当前栈深度与最大栈深度
+    private int depth;
+    private int maxDepth;
+
+    private ExpressionCompiler(ExpressionLexer lexer) {
+        this.lexer = lexer;
+    }
+
+    // 编译表达式 (可带序号和等号), 无需预先去除空格或替换除号
+    static CompiledExpression compile(CharSequence expression) {
+        ExpressionCompiler compiler = new ExpressionCompiler(new ExpressionLexer(expression));
+        compiler.lexer.next();
+        compiler.parseExpression();
+        // 表达式之后不应该还有多余的 Token
+        if (compiler.lexer.type() != TokenType.END) {
+            throw compiler.unexpectedToken();
+        }
+        return compiler.build();
+    }
+
+    // 预处理题目字符串 (去除序号和等号), 只做一次截取
+    static String preprocessString(String str) {
+        int start = ExpressionLexer.skipNumbering(str, 0, str.length());
+        int end = str.length();
+        // 去除结尾空白
+        while (end > start && Character.isWhitespace(str.charAt(end - 1))) {
+            end--;
+        }
+        // 如果字符串以等号结尾，则去除等号及其前面的空白
+        if (end > start && str.charAt(end - 1) == '=') {
+            end--;
+            while (end > start && Character.isWhitespace(str.charAt(end - 1))) {
+                end--;
+            }
+        }
+        // 去除开头空白
+        while (start < end && Character.isWhitespace(str.charAt(start))) {
+            start++;
+        }
+        return start == 0 && end == str.length() ? str : str.substring(start, end);
+    }
+
+    // 解析加减法 (处理优先级)
+    private void parseExpression() {
+        parseMultiplicationDivision();
+        // 如果是加号或减号
+        while (lexer.type() == TokenType.OPERATOR
+                && (lexer.operator() == Operator.ADD || lexer.operator() == Operator.SUBTRACT)) {
+            Operator operator = lexer.operator();
+            lexer.next();
+            parseMultiplicationDivision();
+            emitOperator(operator);
+        }
+    }
+
+    // 解析乘除法 (处理优先级)
+    private void parseMultiplicationDivision() {
+        parsePrimary();
+        // 如果是乘号或除号
+        while (lexer.type() == TokenType.OPERATOR
+                && (lexer.operator() == Operator.MULTIPLY || lexer.operator() == Operator.DIVIDE)) {
+            Operator operator = lexer.operator();
+            lexer.next();
+            parsePrimary();
+            emitOperator(operator);
+        }
+    }
+
+    // 解析基本单元 (数字、括号内的表达式)
+    private void parsePrimary() {
+        switch (lexer.type()) {
+            case NUMBER -> {
+                emitLiteral();
+                lexer.next();
+            }
+            case LPAREN -> {
+                // 递归解析括号内的表达式, 随后必须是匹配的右括号 (单次扫描, 无需预先查找)
+                lexer.next();
+                parseExpression();
+                if (lexer.type() != TokenType.RPAREN) {
+                    throw new IllegalArgumentException("Mismatched parentheses");
+                }
+                lexer.next();
+            }
+            case END -> throw new IllegalArgumentException("Unexpected end of expression");
+            default -> throw unexpectedToken();
+        }
+    }
+
+    private IllegalArgumentException unexpectedToken() {
+        return new IllegalArgumentException("Unexpected token at " + lexer.tokenStart() + ": " + lexer.type());
+    }
+
+    // 生成压入常量的指令
+    private void emitLiteral() {
+        ensureCapacity();
+        long value = lexer.number();
+        if (FractionMath.isOverflow(value)) {
+            // 超出 long 内核范围的常量, 求值时走 BigInteger
+            if (bigLiterals == null) {
+                bigLiterals = new Fraction[code.length];
+            }
+            bigLiterals[size] = lexer.bigNumber();
+        }
+        code[size] = CompiledExpression.PUSH;
+        literals[size++] = value;
+        maxDepth = Math.max(maxDepth, ++depth);
+    }
+
+    // 生成运算指令
+    private void emitOperator(Operator operator) {
+        ensureCapacity();
+        code[size++] = (byte) operator.ordinal();
+        depth--;
+    }
+
+    private void ensureCapacity() {
+        if (size == code.length) {
+            code = Arrays.copyOf(code, size * 2);
+            literals = Arrays.copyOf(literals, size * 2);
+            if (bigLiterals != null) {
+                bigLiterals = Arrays.copyOf(bigLiterals, size * 2);
+            }
+        }
+    }
+
+    private CompiledExpression build() {
+        return new CompiledExpression(Arrays.copyOf(code, size), Arrays.copyOf(literals, size),
+                bigLiterals == null ? null : Arrays.copyOf(bigLiterals, size), maxDepth);
+    }
+}
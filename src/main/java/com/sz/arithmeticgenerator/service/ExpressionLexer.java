@@ -0,0 +1,213 @@
+package com.sz.arithmeticgenerator.service;
+
+/**
+ * 单遍手写词法分析器
+ * 直接在原始题目行上逐字符扫描, 一次完成序号 "N."、空白、"÷"、带分数 (如 2'3/8) 和结尾 "=" 的处理,
+ * 每个 Token 不产生任何中间字符串
+ * @author zyh
+ * @version 1.0.0
+ * @date 2026/10/18
+ */
+public final class ExpressionLexer {
+
+    /**
+     * Token 类型
+     */
+    public enum TokenType {
+        NUMBER,   // 数字 (整数、分数或带分数)
+        OPERATOR, // 运算符 (+, -, *, ÷, /)
+        LPAREN,   // 左括号 (
+        RPAREN,   // 右括号 )
+        END       // 表达式结束 (行尾或等号)
+    }
+
+    // long 中最多安全累加的十进制位数
+    private static final int MAX_SAFE_DIGITS = 18;
+
+    private final CharSequence input;
+    private final int end;
+    // 下一个待扫描字符的位置
+    private int position;
+
+    // 当前 Token
+    private TokenType type;
+    private int tokenStart;
+    private long number;
+    private Operator operator;
+
+    public ExpressionLexer(CharSequence input) {
+        this(input, 0, input.length());
+    }
+
+    public ExpressionLexer(CharSequence input, int start, int end) {
+        this.input = input;
+        this.end = end;
+        this.position = skipNumbering(input, start, end);
+    }
+
+    /**
+     * 跳过行首空白和 "N." 形式的序号
+     * @param input 输入
+     * @param start 起始位置
+     * @param end   结束位置
+     * @return int 表达式正文的起始位置
+     * @author zyh
+     * @date 2026/10/18
+     */
+    public static int skipNumbering(CharSequence input, int start, int end) {
+        int i = skipWhitespace(input, start, end);
+        int digits = i;
+        while (digits < end && isDigit(input.charAt(digits))) {
+            digits++;
+        }
+        // 数字之后紧跟点号才是序号, 否则是表达式的第一个数
+        if (digits > i && digits < end && input.charAt(digits) == '.') {
+            return digits + 1;
+        }
+        return i;
+    }
+
+    /**
+     * 扫描下一个 Token
+     * @return {@code TokenType} Token 类型
+     * @author zyh
+     * @date 2026/10/18
+     */
+    public TokenType next() {
+        position = skipWhitespace(input, position, end);
+        tokenStart = position;
+        if (position >= end) {
+            return type = TokenType.END;
+        }
+        char c = input.charAt(position);
+        if (isDigit(c)) {
+            return type = scanNumber();
+        }
+        position++;
+        switch (c) {
+            case '+' -> operator = Operator.ADD;
+            case '-' -> operator = Operator.SUBTRACT;
+            case '*', '×' -> operator = Operator.MULTIPLY;
+            case '/', '÷' -> operator = Operator.DIVIDE;
+            case '(' -> {
+                return type = TokenType.LPAREN;
+            }
+            case ')' -> {
+                return type = TokenType.RPAREN;
+            }
+            case '=' -> {
+                // 等号之后的内容 (答案位置) 不属于表达式
+                position = end;
+                return type = TokenType.END;
+            }
+            default -> throw new IllegalArgumentException("Unexpected character: " + c);
+        }
+        return type = TokenType.OPERATOR;
+    }
+
+    // 扫描数字: 整数、a/b 或 w'a/b
+    private TokenType scanNumber() {
+        long first = 0;
+        int firstDigits = 0;
+        while (position < end && isDigit(input.charAt(position))) {
+            first = first * 10 + (input.charAt(position++) - '0');
+            firstDigits++;
+        }
+        long whole = 0;
+        long numerator = first;
+        int wholeDigits = 0;
+        int numeratorDigits = firstDigits;
+        // 带分数: 撇号后面必须是 数字/数字
+        if (position < end && input.charAt(position) == '\'' && isFractionAhead(position + 1)) {
+            whole = first;
+            wholeDigits = firstDigits;
+            numerator = 0;
+            numeratorDigits = 0;
+            position++;
+            while (isDigit(input.charAt(position))) {
+                numerator = numerator * 10 + (input.charAt(position++) - '0');
+                numeratorDigits++;
+            }
+        }
+        long denominator = 1;
+        int denominatorDigits = 0;
+        // 分数线: 斜杠后紧跟数字才属于该数字, 否则是除号
+        if (position + 1 < end && input.charAt(position) == '/' && isDigit(input.charAt(position + 1))) {
+            denominator = 0;
+            position++;
+            while (position < end && isDigit(input.charAt(position))) {
+                denominator = denominator * 10 + (input.charAt(position++) - '0');
+                denominatorDigits++;
+            }
+        }
+        if (wholeDigits > MAX_SAFE_DIGITS || numeratorDigits > MAX_SAFE_DIGITS || denominatorDigits > MAX_SAFE_DIGITS) {
+            // 位数过多, 交给 BigInteger 处理
+            number = FractionMath.OVERFLOW;
+        } else if (wholeDigits > 0) {
+            number = mixedNumber(whole, numerator, denominator);
+        } else {
+            number = FractionMath.of(numerator, denominator);
+        }
+        return TokenType.NUMBER;
+    }
+
+    // 带分数转换为假分数, 乘法溢出时返回溢出标记
+    private static long mixedNumber(long whole, long numerator, long denominator) {
+        long high = Math.multiplyHigh(whole, denominator);
+        long product = whole * denominator;
+        if (high != 0 || product < 0 || product + numerator < 0) {
+            return FractionMath.OVERFLOW;
+        }
+        return FractionMath.of(product + numerator, denominator);
+    }
+
+    // 从 from 开始是否为 "数字/数字"
+    private boolean isFractionAhead(int from) {
+        int i = from;
+        while (i < end && isDigit(input.charAt(i))) {
+            i++;
+        }
+        return i > from && i + 1 < end && input.charAt(i) == '/' && isDigit(input.charAt(i + 1));
+    }
+
+    private static int skipWhitespace(CharSequence input, int from, int end) {
+        while (from < end && Character.isWhitespace(input.charAt(from))) {
+            from++;
+        }
+        return from;
+    }
+
+    private static boolean isDigit(char c) {
+        return c >= '0' && c <= '9';
+    }
+
+    // 当前 Token 类型
+    public TokenType type() {
+        return type;
+    }
+
+    // 当前数字 (打包的分数, 见 FractionMath), 超出范围时为 FractionMath.OVERFLOW
+    public long number() {
+        return number;
+    }
+
+    // 当前数字超出 long 内核范围时, 以 BigInteger 形式解析 (只在溢出时产生字符串)
+    public Fraction bigNumber() {
+        return new Fraction(input.subSequence(tokenStart, position).toString());
+    }
+
+    // 当前运算符
+    public Operator operator() {
+        return operator;
+    }
+
+    // 当前 Token 的起始位置
+    public int tokenStart() {
+        return tokenStart;
+    }
+
+    // 当前 Token 之后的位置
+    public int position() {
+        return position;
+    }
+}
@@ -0,0 +1,699 @@
+package com.sz.arithmeticgenerator.service;
+
+import com.sz.arithmeticgenerator.util.FeistelPermutation;
+import com.sz.arithmeticgenerator.util.HashUtil;
+import com.sz.arithmeticgenerator.util.LongCountMap;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+import java.util.stream.IntStream;
+
+/**
+ * 给定运算范围内全部题目组成的空间
+ * 把 (树形, 运算符, 操作数) 元组按混合进制编号, 每种运算符个数的元组各用一个伪随机排列不放回地遍历编号,
+ * 只输出合法且已是规范形式 (交换 "+" / "*" 两侧后的代表) 的表达式, 因此不会产生重复, 也不需要去重集合;
+ * 每道题先等概率地选择运算符个数, 题目中运算符个数的分布与随机生成相同, 不会被元组更多的长表达式占满
+ * @author zyh
+ * @version 1.0.0
+ * @date 2026/10/18
+ */
+public final class ExpressionSpace {
+
+    /**
+     * 每道题目的默认最大运算符个数
+     */
+    public static final int MAX_OPERATORS = 2;
+
+    /**
+     * 支持的最大运算符个数 (题目要求运算符不超过 3 个)
+     */
+    public static final int OPERATOR_LIMIT = 3;
+
+    /**
+     * 题目总数未知 (空间太大, 无法在限定的计算量内精确计数)
+     */
+    public static final long UNKNOWN = -1;
+
+    /**
+     * 真分数操作数的最大分母
+     */
+    private static final int MAX_DENOMINATOR = 10;
+
+    /**
+     * 精确计数允许的最大计算量 (子表达式值两两组合的次数)
+     */
+    private static final long COUNT_BUDGET = 1L << 23;
+
+    /**
+     * 每个抽样块包含的编号数
+     */
+    private static final int CHUNK_SIZE = 4096;
+
+    /**
+     * 由题目序号派生选择运算符个数的随机数时的步长
+     */
+    private static final long SLOT_STEP = 0xbf58476d1ce4e5b9L;
+
+    /**
+     * 运算符在题目中的符号, 按 {@link Operator#ordinal()} 排列
+     */
+    private static final String[] SYMBOLS = {"+", "-", "*", "÷"};
+
+    private static final Operator[] OPERATORS = Operator.values();
+
+    private static final Map<Long, ExpressionSpace> CACHE = new ConcurrentHashMap<>();
+
+    private final int range;
+
+    /**
+     * 每道题目的最大运算符个数
+     */
+    private final int maxOperators;
+
+    /**
+     * 全部操作数 (打包的分数): 最简真分数和 1 ~ range 的整数
+     */
+    private final long[] operands;
+
+    /**
+     * 各种树形的后缀模板: PUSH 表示操作数, 其余位置放运算符
+     */
+    private final byte[][] shapes;
+
+    /**
+     * 每种树形在编号空间中的起始编号, 最后一项为空间大小
+     */
+    private final long[] offsets;
+
+    /**
+     * 运算符个数为 k + 1 的元组的起始编号 (树形按运算符个数排列), 最后一项为空间大小
+     */
+    private final long[] groupOffsets;
+
+    /**
+     * 元组空间大小, 超出 {@link FeistelPermutation#MAX_SIZE} 时为 UNKNOWN
+     */
+    private final long size;
+
+    /**
+     * 合法且规范的题目总数, 尚未计算时为 null
+     */
+    private volatile Long count;
+
+    private ExpressionSpace(int range, int maxOperators) {
+        this.range = range;
+        this.maxOperators = maxOperators;
+        this.operands = buildOperands(range);
+        List<byte[]> shapeList = new ArrayList<>();
+        for (int k = 1; k <= maxOperators; k++) {
+            buildShapes(new byte[2 * k + 1], 0, 0, 0, k, shapeList);
+        }
+        this.shapes = shapeList.toArray(new byte[0][]);
+        this.offsets = new long[shapes.length + 1];
+        long total = 0;
+        try {
+            for (int i = 0; i < shapes.length; i++) {
+                offsets[i] = total;
+                int k = shapes[i].length / 2;
+                long block = 1;
+                for (int j = 0; j < k; j++) {
+                    block = Math.multiplyExact(block, OPERATORS.length);
+                }
+                for (int j = 0; j <= k; j++) {
+                    block = Math.multiplyExact(block, operands.length);
+                }
+                total = Math.addExact(total, block);
+            }
+        } catch (ArithmeticException e) {
+            total = UNKNOWN;
+        }
+        this.size = total > FeistelPermutation.MAX_SIZE ? UNKNOWN : total;
+        offsets[shapes.length] = size;
+        this.groupOffsets = new long[maxOperators + 1];
+        for (int i = shapes.length - 1; i >= 0; i--) {
+            groupOffsets[shapes[i].length / 2 - 1] = offsets[i];
+        }
+        groupOffsets[maxOperators] = size;
+    }
+
+    /**
+     * 获取指定范围的题目空间
+     * @param range 运算范围
+     * @return {@code ExpressionSpace} 题目空间
+     * @author zyh
+     * @date 2026/10/18
+     */
+    public static ExpressionSpace of(int range) {
+        return of(range, MAX_OPERATORS);
+    }
+
+    /**
+     * 获取指定范围和最大运算符个数的题目空间
+     * @param range        运算范围
+     * @param maxOperators 每道题目的最大运算符个数, 取值 1 ~ {@link #OPERATOR_LIMIT}
+     * @return {@code ExpressionSpace} 题目空间
+     * @author zyh
+     * @date 2026/10/18
+     */
+    public static ExpressionSpace of(int range, int maxOperators) {
+        if (range <= 0) {
+            throw new IllegalArgumentException("bound must be positive");
+        }
+        if (maxOperators < 1 || maxOperators > OPERATOR_LIMIT) {
+            throw new IllegalArgumentException("运算符个数应为 1 ~ " + OPERATOR_LIMIT + ": " + maxOperators);
+        }
+        return CACHE.computeIfAbsent((long) range << 8 | maxOperators, key -> new ExpressionSpace(range, maxOperators));
+    }
+
+    public int getRange() {
+        return range;
+    }
+
+    public int getMaxOperators() {
+        return maxOperators;
+    }
+
+    /**
+     * 能否按编号遍历 (元组空间不超过 2^62)
+     * @return boolean 能否遍历
+     * @author zyh
+     * @date 2026/10/18
+     */
+    public boolean isEnumerable() {
+        return size != UNKNOWN;
+    }
+
+    /**
+     * 元组空间大小, 是题目总数的上界
+     * @return long 元组数, 无法遍历时为 UNKNOWN
+     * @author zyh
+     * @date 2026/10/18
+     */
+    public long size() {
+        return size;
+    }
+
+    /**
+     * 合法且规范 (互不重复) 的题目总数
+     * @return long 题目总数, 空间太大无法精确计数时为 UNKNOWN
+     * @author zyh
+     * @date 2026/10/18
+     */
+    public long count() {
+        Long result = count;
+        if (result == null) {
+            result = isEnumerable() ? countCanonical() : UNKNOWN;
+            count = result;
+        }
+        return result;
+    }
+
+    /**
+     * 在生成之前检查题目数量是否超过空间中不重复题目的总数
+     * @param numQuestions 题目数量
+     * @author zyh
+     * @date 2026/10/18
+     */
+    public void checkCapacity(long numQuestions) {
+        if (!isEnumerable()) {
+            return;
+        }
+        // 仅 "a + b" (a 不大于 b) 形式的题目就有 m(m+1)/2 道, 数量不超过它时无需精确计数
+        if (numQuestions <= (long) operands.length * (operands.length + 1) / 2) {
+            return;
+        }
+        long total = count();
+        if (numQuestions > (total == UNKNOWN ? size : total)) {
+            throw new IllegalArgumentException("题目数量超过范围 " + range + " 内不重复题目的总数: "
+                    + (total == UNKNOWN ? "不超过 " + size : total));
+        }
+    }
+
+    /**
+     * 不放回地随机抽取题目
+     * @param numQuestions 题目数量
+     * @param seed         种子, 决定遍历顺序
+     * @param consumer     题目 (不含 " =") 的接收方
+     * @author zyh
+     * @date 2026/10/18
+     */
+    public void sample(int numQuestions, long seed, Consumer<String> consumer) {
+        sample(numQuestions, seed, 1, consumer);
+    }
+
+    /**
+     * 多线程不放回地随机抽取题目
+     * @param numQuestions 题目数量
+     * @param seed         种子, 决定遍历顺序
+     * @param threads      线程数
+     * @param consumer     题目 (不含 " =") 的接收方, 在调用线程中按顺序调用
+     * @author zyh
+     * @date 2026/10/18
+     */
+    public void sample(int numQuestions, long seed, int threads, Consumer<String> consumer) {
+        sample(numQuestions, seed, 0, threads, consumer);
+    }
+
+    /**
+     * 多线程不放回地随机抽取题目, 跳过抽样顺序上的前 skip 道题目
+     * 每道题先由种子和题目序号等概率地选出运算符个数 (与随机生成时 1 ~ 2 个运算符各占一半一致), 再取该运算符个数的排列上的下一道题;
+     * 某个运算符个数的题目取完后只在其余的个数中选择。各排列上的编号按块分给各线程, 各块互不相交, 因此无需去重;
+     * 按块的顺序输出, 结果与线程数无关, 同一种子下 sample(a + b, seed, 0, ...) 的输出等于
+     * sample(a, seed, 0, ...) 与 sample(b, seed, a, ...) 的拼接
+     * @param numQuestions 题目数量
+     * @param seed         种子, 决定遍历顺序
+     * @param skip         跳过的题目数量 (只判断合法性, 不生成字符串)
+     * @param threads      线程数
+     * @param consumer     题目 (不含 " =") 的接收方, 在调用线程中按顺序调用
+     * @author zyh
+     * @date 2026/10/18
+     */
+    public void sample(int numQuestions, long seed, long skip, int threads, Consumer<String> consumer) {
+        checkCapacity(skip + numQuestions);
+        if (numQuestions <= 0) {
+            return;
+        }
+        long[] generated = {0};
+        sampleWhile(seed, skip, threads, question -> {
+            consumer.accept(question);
+            return ++generated[0] < numQuestions;
+        });
+        if (generated[0] < numQuestions) {
+            throw new IllegalArgumentException("题目数量超过范围 " + range + " 内不重复题目的总数: " + count());
+        }
+    }
+
+    /**
+     * 流式不放回地随机抽取题目: 跳过抽样顺序上的前 skip 道题目后依次交给接收方, 直到接收方返回 false 或取完全部题目
+     * 顺序与 {@link #sample(int, long, long, int, Consumer)} 相同; 事先不知道需要多少道题时 (如跳过题库中已有的题目)
+     * 只需一次调用, 不必每次从头跳过
+     * @param seed     种子, 决定遍历顺序
+     * @param skip     跳过的题目数量 (只判断合法性, 不生成字符串)
+     * @param threads  线程数
+     * @param consumer 题目 (不含 " =") 的接收方, 在调用线程中按顺序调用, 返回是否继续
+     * @return long 交给接收方的题目数量
+     * @author zyh
+     * @date 2026/10/18
+     */
+    public long sampleWhile(long seed, long skip, int threads, Predicate<String> consumer) {
+        if (threads < 1) {
+            throw new IllegalArgumentException("parallelism must be positive");
+        }
+        if (!isEnumerable()) {
+            throw new IllegalArgumentException("范围 " + range + " 的题目空间过大, 无法按编号抽样");
+        }
+        // 每一轮处理 chunks 个块, 输出后再开始下一轮, 内存占用不随题目数量增长
+        int chunks = threads == 1 ? 1 : threads * 4;
+        ForkJoinPool pool = threads == 1 ? null : new ForkJoinPool(threads);
+        Group[] groups = new Group[maxOperators];
+        for (int k = 0; k < maxOperators; k++) {
+            groups[k] = new Group(k, seed, pool, chunks);
+        }
+        // 还有题目的运算符个数 (下标), 前 active 项有效
+        int[] remaining = IntStream.range(0, maxOperators).toArray();
+        int active = maxOperators;
+        long slot = 0;
+        long generated = 0;
+        try {
+            // 跳过阶段: 只计数, 不生成字符串
+            while (slot < skip && active > 0) {
+                int choice = choose(seed, slot, active);
+                if (groups[remaining[choice]].skipOne()) {
+                    slot++;
+                } else {
+                    remaining[choice] = remaining[--active];
+                    Arrays.sort(remaining, 0, active);
+                }
+            }
+            // 输出阶段
+            while (active > 0) {
+                int choice = choose(seed, slot, active);
+                String question = groups[remaining[choice]].next();
+                if (question != null) {
+                    slot++;
+                    generated++;
+                    if (!consumer.test(question)) {
+                        break;
+                    }
+                } else {
+                    remaining[choice] = remaining[--active];
+                    Arrays.sort(remaining, 0, active);
+                }
+            }
+        } finally {
+            if (pool != null) {
+                pool.shutdown();
+            }
+        }
+        if (active == 0) {
+            // 无法精确计数时, 只有遍历完整个空间才知道题目总数
+            count = slot;
+        }
+        return generated;
+    }
+
+    // 第 slot 道题在 active 个还有题目的运算符个数中的选择, 只由种子和序号决定
+    private static int choose(long seed, long slot, int active) {
+        return active == 1 ? 0 : (int) Long.remainderUnsigned(HashUtil.mix64(seed + slot * SLOT_STEP), active);
+    }
+
+    /**
+     * 一个块的抽样结果
+     * @param accepted  块内合法且规范的题目数量
+     * @param questions 这些题目 (只计数时为空)
+     */
+    private record Chunk(int accepted, List<String> questions) {
+    }
+
+    /**
+     * 运算符个数相同的全部元组: 在编号区间 [base, base + size) 上独立做伪随机排列, 按块扫描并依次取出其中的题目
+     */
+    private final class Group {
+
+        private final long base;
+        private final long size;
+        private final FeistelPermutation permutation;
+        private final ForkJoinPool pool;
+        private final int chunks;
+
+        // 当前一轮的扫描结果, 从 roundStart 开始; formatted 表示是否已生成字符串
+        private List<Chunk> round = List.of();
+        private long roundStart;
+        private boolean formatted;
+        // 当前块及块内已取出的题目数
+        private int chunkIndex;
+        private int offset;
+
+        private Group(int index, long seed, ForkJoinPool pool, int chunks) {
+            this.base = groupOffsets[index];
+            this.size = groupOffsets[index + 1] - base;
+            this.permutation = new FeistelPermutation(size, HashUtil.mix64(seed + index));
+            this.pool = pool;
+            this.chunks = chunks;
+        }
+
+        // 跳过一道题, 没有剩余题目时返回 false
+        boolean skipOne() {
+            if (!advance(false)) {
+                return false;
+            }
+            offset++;
+            return true;
+        }
+
+        // 取出下一道题, 没有剩余题目时返回 null
+        String next() {
+            if (!advance(true)) {
+                return null;
+            }
+            return round.get(chunkIndex).questions().get(offset++);
+        }
+
+        // 定位到下一道题所在的块, 需要字符串而当前一轮只计数时从该块起重新扫描
+        private boolean advance(boolean format) {
+            while (true) {
+                if (chunkIndex < round.size()) {
+                    if (offset < round.get(chunkIndex).accepted()) {
+                        if (format && !formatted) {
+                            scan(roundStart + (long) chunkIndex * CHUNK_SIZE, true);
+                        }
+                        return true;
+                    }
+                    chunkIndex++;
+                    offset = 0;
+                    continue;
+                }
+                long next = roundStart + (long) round.size() * CHUNK_SIZE;
+                if (next >= size) {
+                    return false;
+                }
+                scan(next, format);
+                offset = 0;
+            }
+        }
+
+        // 并行扫描从 from 开始的 chunks 个块, 结果按块的顺序排列
+        private void scan(long from, boolean format) {
+            round = pool == null
+                    ? List.of(scanRange(from, format))
+                    : pool.submit(() -> IntStream.range(0, chunks).parallel()
+                            .mapToObj(chunk -> scanRange(from + (long) chunk * CHUNK_SIZE, format))
+                            .toList()).join();
+            roundStart = from;
+            formatted = format;
+            chunkIndex = 0;
+        }
+
+        // 检查排列上 [from, from + CHUNK_SIZE) 位置的元组, 统计 (并在 format 为 true 时输出) 其中合法且规范的题目
+        private Chunk scanRange(long from, boolean format) {
+            List<String> questions = format ? new ArrayList<>() : List.of();
+            Candidate candidate = new Candidate();
+            int accepted = 0;
+            long to = Math.min(size, from + CHUNK_SIZE);
+            for (long i = from; i < to; i++) {
+                if (candidate.accept(base + permutation.permute(i))) {
+                    accepted++;
+                    if (format) {
+                        questions.add(candidate.format());
+                    }
+                }
+            }
+            return new Chunk(accepted, questions);
+        }
+    }
+
+    /**
+     * 编号对应的题目
+     * @param rank 编号, 取值 [0, size)
+     * @return {@code String} 题目 (不含 " ="), 元组不合法或不是规范形式时为 null
+     * @author zyh
+     * @date 2026/10/18
+     */
+    public String expressionAt(long rank) {
+        return new Candidate().expressionAt(rank);
+    }
+
+    /**
+     * 解码编号的工作区, 每种树形复用一组数组, 只有被接受的题目才分配字符串
+     */
+    private final class Candidate {
+        private final byte[][] codes = new byte[shapes.length][];
+        private final long[][] literals = new long[shapes.length][];
+        private final long[] stack = new long[maxOperators + 1];
+
+        private Candidate() {
+            for (int i = 0; i < shapes.length; i++) {
+                codes[i] = shapes[i].clone();
+                literals[i] = new long[shapes[i].length];
+            }
+        }
+
+        // 最近一次解码的树形
+        private int shape;
+
+        private String expressionAt(long rank) {
+            return accept(rank) ? format() : null;
+        }
+
+        // 解码编号, 返回元组是否合法且是规范形式
+        private boolean accept(long rank) {
+            shape = shapes.length - 1;
+            while (offsets[shape] > rank) {
+                shape--;
+            }
+            byte[] code = codes[shape];
+            long[] literal = literals[shape];
+            // 混合进制解码: 先取运算符, 再取操作数
+            long local = rank - offsets[shape];
+            for (int pc = 0; pc < code.length; pc++) {
+                if (shapes[shape][pc] != CompiledExpression.PUSH) {
+                    code[pc] = (byte) (local % OPERATORS.length);
+                    local /= OPERATORS.length;
+                }
+            }
+            for (int pc = 0; pc < code.length; pc++) {
+                if (code[pc] == CompiledExpression.PUSH) {
+                    literal[pc] = operands[(int) (local % operands.length)];
+                    local /= operands.length;
+                }
+            }
+            return isValid(code, literal, stack) && ExpressionCanonicalizer.isCanonical(code, literal);
+        }
+
+        // 输出最近一次解码的题目
+        private String format() {
+            return ExpressionSpace.format(codes[shape], literals[shape]);
+        }
+    }
+
+    // 题目是否合法: 计算过程不出现负数, 除法的结果是真分数, 中间结果不超出 long 内核范围
+    private static boolean isValid(byte[] code, long[] literals, long[] stack) {
+        int top = 0;
+        for (int pc = 0; pc < code.length; pc++) {
+            if (code[pc] == CompiledExpression.PUSH) {
+                stack[top++] = literals[pc];
+                continue;
+            }
+            long right = stack[--top];
+            long left = stack[top - 1];
+            long result = combine(OPERATORS[code[pc]], left, right);
+            if (FractionMath.isOverflow(result)) {
+                return false;
+            }
+            stack[top - 1] = result;
+        }
+        return true;
+    }
+
+    // 计算一个运算结点的值, 不合法或溢出时为 OVERFLOW
+    private static long combine(Operator operator, long left, long right) {
+        switch (operator) {
+            case SUBTRACT:
+                if (FractionMath.compare(left, right) < 0) {
+                    return FractionMath.OVERFLOW;
+                }
+                break;
+            case DIVIDE:
+                if (FractionMath.numerator(left) == 0 || FractionMath.compare(left, right) >= 0) {
+                    return FractionMath.OVERFLOW;
+                }
+                break;
+            default:
+                break;
+        }
+        return operator.apply(left, right);
+    }
+
+    // 按后缀程序输出题目, 只在必要处加括号, 保证重新解析后得到同一棵树
+    static String format(byte[] code, long[] literals) {
+        String[] text = new String[code.length];
+        int[] precedence = new int[code.length];
+        int top = 0;
+        for (int pc = 0; pc < code.length; pc++) {
+            if (code[pc] == CompiledExpression.PUSH) {
+                text[top] = FractionMath.toMixedNumberString(literals[pc]);
+                precedence[top++] = Integer.MAX_VALUE;
+                continue;
+            }
+            int p = code[pc] >= Operator.MULTIPLY.ordinal() ? 2 : 1;
+            String right = precedence[top - 1] <= p ? "(" + text[top - 1] + ")" : text[top - 1];
+            top--;
+            String left = precedence[top - 1] < p ? "(" + text[top - 1] + ")" : text[top - 1];
+            text[top - 1] = left + " " + SYMBOLS[code[pc]] + " " + right;
+            precedence[top - 1] = p;
+        }
+        return text[0];
+    }
+
+    // 操作数: 分母 2 ~ MAX_DENOMINATOR 的最简真分数, 以及 1 ~ range 的整数
+    private static long[] buildOperands(int range) {
+        List<Long> values = new ArrayList<>();
+        for (int denominator = 2; denominator <= MAX_DENOMINATOR; denominator++) {
+            for (int numerator = 1; numerator < denominator; numerator++) {
+                if (FractionMath.gcd(numerator, denominator) == 1) {
+                    values.add(FractionMath.pack(numerator, denominator));
+                }
+            }
+        }
+        long[] result = new long[values.size() + range];
+        for (int i = 0; i < values.size(); i++) {
+            result[i] = values.get(i);
+        }
+        for (int i = 1; i <= range; i++) {
+            result[values.size() + i - 1] = FractionMath.pack(i, 1);
+        }
+        return result;
+    }
+
+    // 枚举 ops 个运算符的全部树形 (后缀序列: 操作数入栈, 运算符弹出两个压入一个)
+    private static void buildShapes(byte[] shape, int position, int depth, int ops, int maxOps, List<byte[]> result) {
+        if (position == shape.length) {
+            if (depth == 1) {
+                result.add(shape.clone());
+            }
+            return;
+        }
+        int leaves = position - ops;
+        if (leaves <= maxOps) {
+            shape[position] = CompiledExpression.PUSH;
+            buildShapes(shape, position + 1, depth + 1, ops, maxOps, result);
+        }
+        if (depth >= 2) {
+            shape[position] = 0;
+            buildShapes(shape, position + 1, depth - 1, ops + 1, maxOps, result);
+        }
+    }
+
+    // 按子表达式的值分组计数 (动态规划), 与 sample 使用完全相同的合法性和规范性规则:
+    // 对 "+" / "*" 只计左子树不大于右子树 (先比较值, 值相同再比较结构) 的组合
+    private long countCanonical() {
+        List<LongCountMap> byOperators = new ArrayList<>();
+        LongCountMap leaves = new LongCountMap(operands.length);
+        for (long operand : operands) {
+            leaves.add(operand, 1);
+        }
+        byOperators.add(leaves);
+        long total = 0;
+        long work = 0;
+        for (int k = 1; k <= maxOperators; k++) {
+            for (int a = 0; a < k; a++) {
+                work += (long) byOperators.get(a).size() * byOperators.get(k - 1 - a).size();
+            }
+            if (work > COUNT_BUDGET) {
+                return UNKNOWN;
+            }
+            LongCountMap current = new LongCountMap(1024);
+            // 左右子树值相同时的有序组合数, 用于计算交换律下的无序组合数
+            LongCountMap sameValue = new LongCountMap(1024);
+            for (int a = 0; a < k; a++) {
+                long[] leftValues = byOperators.get(a).keyArray();
+                long[] leftCounts = byOperators.get(a).countArray();
+                long[] rightValues = byOperators.get(k - 1 - a).keyArray();
+                long[] rightCounts = byOperators.get(k - 1 - a).countArray();
+                for (int i = 0; i < leftValues.length; i++) {
+                    long l = leftValues[i];
+                    for (int j = 0; j < rightValues.length; j++) {
+                        long r = rightValues[j];
+                        long pairs = leftCounts[i] * rightCounts[j];
+                        int cmp = FractionMath.compare(l, r);
+                        if (cmp < 0) {
+                            add(current, FractionMath.add(l, r), pairs);
+                            add(current, FractionMath.multiply(l, r), pairs);
+                        } else if (cmp == 0) {
+                            sameValue.add(l, pairs);
+                        }
+                        add(current, combine(Operator.SUBTRACT, l, r), pairs);
+                        add(current, combine(Operator.DIVIDE, l, r), pairs);
+                    }
+                }
+            }
+            // 值相同的两棵子树: 不相同的有序对两两对应同一个无序对, 相同的子树只算一次
+            LongCountMap half = (k - 1) % 2 == 0 ? byOperators.get((k - 1) / 2) : null;
+            long[] sameValues = sameValue.keyArray();
+            long[] sameCounts = sameValue.countArray();
+            for (int i = 0; i < sameValues.length; i++) {
+                long value = sameValues[i];
+                long pairs = (sameCounts[i] + (half == null ? 0 : half.get(value))) / 2;
+                add(current, FractionMath.add(value, value), pairs);
+                add(current, FractionMath.multiply(value, value), pairs);
+            }
+            for (long c : current.countArray()) {
+                total += c;
+            }
+            byOperators.add(current);
+        }
+        return total;
+    }
+
+    private static void add(LongCountMap counts, long value, long count) {
+        if (!FractionMath.isOverflow(value)) {
+            counts.add(value, count);
+        }
+    }
+}
@@ -1,55 +1,88 @@
 package com.sz.arithmeticgenerator.service;
 
+import java.math.BigInteger;
 import java.util.Objects;
 
 //Fraction 类
+// 常见的小数值用 int 分子分母表示, 运算走 FractionMath 的 long 内核;
+// 只有结果真正超出 int 范围时才回退到 BigInteger
 @SuppressWarnings("unused")
 public class Fraction implements Comparable<Fraction> {
     // 分子
     private int numerator;
     // 分母
     private int denominator;
+    // 超出 int 范围时的分子, 未溢出时为 null
+    private BigInteger bigNumerator;
+    // 超出 int 范围时的分母, 未溢出时为 null
+    private BigInteger bigDenominator;
 
 
+    private Fraction() {
+    }
+
     public Fraction(Integer numerator, Integer denominator) {
         if (denominator == 0) {
             throw new IllegalArgumentException("Denominator cannot be zero.");
         }
-        this.numerator = numerator;
-        this.denominator = denominator;
-        simplify(); // 创建分数时立即化简
+        // 创建分数时立即化简
+        assign(FractionMath.of(numerator, denominator), numerator, denominator);
+    }
+
+    public Fraction(BigInteger numerator, BigInteger denominator) {
+        if (denominator.signum() == 0) {
+            throw new IllegalArgumentException("Denominator cannot be zero.");
+        }
+        setBig(numerator, denominator);
     }
 
     //from String, 形如1/2, 1, 2'2/3
     public Fraction(String fractionStr) {
+        long packed = FractionMath.parse(fractionStr);
+        if (!FractionMath.isOverflow(packed)) {
+            setPacked(packed);
+            return;
+        }
+        // 超出 int 范围, 按 BigInteger 重新解析
         if (fractionStr.contains("'")) {
             String[] parts = fractionStr.split("'");
-            int whole = Integer.parseInt(parts[0]);
+            BigInteger whole = new BigInteger(parts[0]);
             String[] fracParts = parts[1].split("/");
-            int num = Integer.parseInt(fracParts[0]);
-            int den = Integer.parseInt(fracParts[1]);
-
-            this.numerator = whole * den + num;
-            this.denominator = den;
-
-        }else if (fractionStr.contains("/")) {
+            BigInteger num = new BigInteger(fracParts[0]);
+            BigInteger den = new BigInteger(fracParts[1]);
+            setBig(whole.multiply(den).add(num), den);
+        } else if (fractionStr.contains("/")) {
             String[] parts = fractionStr.split("/");
-            this.numerator = Integer.parseInt(parts[0]);
-            this.denominator = Integer.parseInt(parts[1]);
-
+            setBig(new BigInteger(parts[0]), new BigInteger(parts[1]));
         } else {
-            this.numerator = Integer.parseInt(fractionStr);
-            this.denominator = 1;
+            setBig(new BigInteger(fractionStr), BigInteger.ONE);
         }
+    }
 
-        simplify();
+    // 由打包的分数创建 (见 FractionMath)
+    public static Fraction fromPacked(long packed) {
+        if (FractionMath.isOverflow(packed)) {
+            throw new IllegalArgumentException("Packed fraction overflowed.");
+        }
+        Fraction fraction = new Fraction();
+        fraction.setPacked(packed);
+        return fraction;
+    }
+
+    // 转为打包的分数, 超出 int 范围时返回 FractionMath.OVERFLOW
+    public long toPacked() {
+        return bigNumerator == null ? FractionMath.pack(numerator, denominator) : FractionMath.OVERFLOW;
     }
 
     // 加法
     public Fraction add(Object other) {
         if (other instanceof Fraction otherFrac) {
-            int newNumerator = this.numerator * otherFrac.denominator + otherFrac.numerator * this.denominator;
-            int newDenominator = this.denominator * otherFrac.denominator;
+            long result = FractionMath.add(toPacked(), otherFrac.toPacked());
+            if (!FractionMath.isOverflow(result)) {
+                return fromPacked(result);
+            }
+            BigInteger newNumerator = bigNumerator().multiply(otherFrac.bigDenominator()).add(otherFrac.bigNumerator().multiply(bigDenominator()));
+            BigInteger newDenominator = bigDenominator().multiply(otherFrac.bigDenominator());
             return new Fraction(newNumerator, newDenominator);
         } else if (other instanceof Integer) {
             // 将整数视为分母为 1 的分数
@@ -62,8 +95,12 @@ public class Fraction implements Comparable<Fraction> {
     // 减法
     public Fraction subtract(Object other) {
         if (other instanceof Fraction otherFrac) {
-            int newNumerator = this.numerator * otherFrac.denominator - otherFrac.numerator * this.denominator;
-            int newDenominator = this.denominator * otherFrac.denominator;
+            long result = FractionMath.subtract(toPacked(), otherFrac.toPacked());
+            if (!FractionMath.isOverflow(result)) {
+                return fromPacked(result);
+            }
+            BigInteger newNumerator = bigNumerator().multiply(otherFrac.bigDenominator()).subtract(otherFrac.bigNumerator().multiply(bigDenominator()));
+            BigInteger newDenominator = bigDenominator().multiply(otherFrac.bigDenominator());
             return new Fraction(newNumerator, newDenominator);
         } else if (other instanceof Integer) {
             return this.subtract(new Fraction((Integer) other, 1));
@@ -75,8 +112,12 @@ public class Fraction implements Comparable<Fraction> {
     // 乘法
     public Fraction multiply(Object other) {
         if (other instanceof Fraction otherFrac) {
-            int newNumerator = this.numerator * otherFrac.numerator;
-            int newDenominator = this.denominator * otherFrac.denominator;
+            long result = FractionMath.multiply(toPacked(), otherFrac.toPacked());
+            if (!FractionMath.isOverflow(result)) {
+                return fromPacked(result);
+            }
+            BigInteger newNumerator = bigNumerator().multiply(otherFrac.bigNumerator());
+            BigInteger newDenominator = bigDenominator().multiply(otherFrac.bigDenominator());
             return new Fraction(newNumerator, newDenominator);
         } else if (other instanceof Integer) {
             return this.multiply(new Fraction((Integer) other, 1));
@@ -87,11 +128,15 @@ public class Fraction implements Comparable<Fraction> {
     // 除法
     public Fraction divide(Object other) {
         if (other instanceof Fraction otherFrac) {
-            if (otherFrac.numerator == 0) {
+            if (otherFrac.isZero()) {
                 throw new ArithmeticException("Division by zero.");
             }
-            int newNumerator = this.numerator * otherFrac.denominator;
-            int newDenominator = this.denominator * otherFrac.numerator;
+            long result = FractionMath.divide(toPacked(), otherFrac.toPacked());
+            if (!FractionMath.isOverflow(result)) {
+                return fromPacked(result);
+            }
+            BigInteger newNumerator = bigNumerator().multiply(otherFrac.bigDenominator());
+            BigInteger newDenominator = bigDenominator().multiply(otherFrac.bigNumerator());
             return new Fraction(newNumerator, newDenominator);
         } else if (other instanceof Integer) {
             return this.divide(new Fraction((Integer) other, 1));
@@ -100,23 +145,55 @@ public class Fraction implements Comparable<Fraction> {
         }
     }
 
-    // 化简分数 (求最大公约数，并进行约分)
-    private void simplify() {
-        // 使用绝对值，避免负号问题
-        int gcd = gcd(Math.abs(numerator), denominator);
-        numerator /= gcd;
-        denominator /= gcd;
-        if (denominator < 0) {
+    // 按打包结果赋值, 打包溢出时 (如分子为 Integer.MIN_VALUE) 使用 BigInteger
+    private void assign(long packed, long numerator, long denominator) {
+        if (FractionMath.isOverflow(packed)) {
+            setBig(BigInteger.valueOf(numerator), BigInteger.valueOf(denominator));
+        } else {
+            setPacked(packed);
+        }
+    }
+
+    private void setPacked(long packed) {
+        this.numerator = FractionMath.numerator(packed);
+        this.denominator = FractionMath.denominator(packed);
+        this.bigNumerator = null;
+        this.bigDenominator = null;
+    }
+
+    // 化简分数 (求最大公约数，并进行约分), 能放入 int 时回到 int 表示
+    private void setBig(BigInteger numerator, BigInteger denominator) {
+        if (denominator.signum() == 0) {
+            throw new ArithmeticException("Denominator cannot be zero.");
+        }
+        BigInteger gcd = numerator.gcd(denominator);
+        if (gcd.signum() != 0) {
+            numerator = numerator.divide(gcd);
+            denominator = denominator.divide(gcd);
+        }
+        if (denominator.signum() < 0) {
             // 将负号移到分子上
-            numerator = -numerator;
-            denominator = -denominator;
+            numerator = numerator.negate();
+            denominator = denominator.negate();
+        }
+        if (numerator.bitLength() < 32 && denominator.bitLength() < 32 && numerator.intValue() != Integer.MIN_VALUE) {
+            setPacked(FractionMath.pack(numerator.intValue(), denominator.intValue()));
+        } else {
+            this.bigNumerator = numerator;
+            this.bigDenominator = denominator;
         }
     }
 
-    // 求最大公约数 (Greatest Common Divisor, GCD) - 欧几里得算法
-    private int gcd(int a, int b) {
-        return b == 0 ? a : gcd(b, a % b);
+    // 以 BigInteger 表示的分子
+    public BigInteger bigNumerator() {
+        return bigNumerator != null ? bigNumerator : BigInteger.valueOf(numerator);
     }
+
+    // 以 BigInteger 表示的分母
+    public BigInteger bigDenominator() {
+        return bigDenominator != null ? bigDenominator : BigInteger.valueOf(denominator);
+    }
+
     //转为String
     @Override
     public String toString() {
@@ -125,27 +202,37 @@ public class Fraction implements Comparable<Fraction> {
 
     // 转换为真分数形式的字符串 (如 2'3/8)
     public String toMixedNumberString() {
-        int whole = numerator / denominator;  // 整数部分
-        int newNumerator = numerator % denominator; // 余数 (新的分子)
+        if (bigNumerator == null) {
+            return FractionMath.toMixedNumberString(toPacked());
+        }
+        BigInteger[] parts = bigNumerator.divideAndRemainder(bigDenominator);
+        BigInteger whole = parts[0];  // 整数部分
+        BigInteger newNumerator = parts[1]; // 余数 (新的分子)
 
-        if (newNumerator == 0) {
-            return String.valueOf(whole); // 如果余数为0，只返回整数部分
-        } else if (whole == 0) {
-            return newNumerator + "/" + denominator; // 如果整数部分为0，返回假分数形式
+        if (newNumerator.signum() == 0) {
+            return whole.toString(); // 如果余数为0，只返回整数部分
+        } else if (whole.signum() == 0) {
+            return newNumerator + "/" + bigDenominator; // 如果整数部分为0，返回假分数形式
         } else {
-            return whole + "'" + Math.abs(newNumerator) + "/" + denominator; // 真分数形式
+            return whole + "'" + newNumerator.abs() + "/" + bigDenominator; // 真分数形式
         }
     }
     //是否为0
     public boolean isZero() {
-        return numerator == 0;
+        return bigNumerator == null && numerator == 0;
     }
     //获取分子
     public int getNumerator(){
+        if (bigNumerator != null) {
+            throw new ArithmeticException("Numerator exceeds int range: " + bigNumerator);
+        }
         return  numerator;
     }
     //获取分母
     public int getDenominator(){
+        if (bigDenominator != null) {
+            throw new ArithmeticException("Denominator exceeds int range: " + bigDenominator);
+        }
         return denominator;
     }
 
@@ -158,24 +245,26 @@ public class Fraction implements Comparable<Fraction> {
             return false;
         }
         Fraction other = (Fraction) obj;
-        return this.numerator == other.numerator && this.denominator == other.denominator;
+        // 化简后的表示唯一, 直接比较各字段
+        return this.numerator == other.numerator && this.denominator == other.denominator
+                && Objects.equals(this.bigNumerator, other.bigNumerator)
+                && Objects.equals(this.bigDenominator, other.bigDenominator);
     }
 
     @Override
     public int hashCode() {
+        if (bigNumerator != null) {
+            return Objects.hash(bigNumerator, bigDenominator);
+        }
         return Objects.hash(numerator, denominator);
     }
 
     @Override
     public int compareTo(Fraction other) {
-        //  先通分，再比较分子
-        long diff = (long) this.numerator * other.denominator - (long) other.numerator * this.denominator;
-        if (diff > 0) {
-            return 1;
-        } else if (diff < 0) {
-            return -1;
-        } else {
-            return 0;
+        if (bigNumerator == null && other.bigNumerator == null) {
+            return Integer.signum(FractionMath.compare(toPacked(), other.toPacked()));
         }
+        //  先通分，再比较分子
+        return bigNumerator().multiply(other.bigDenominator()).compareTo(other.bigNumerator().multiply(bigDenominator()));
     }
 }
@@ -0,0 +1,311 @@
+package com.sz.arithmeticgenerator.service;
+
+/**
+ * 基于 long 的分数运算内核
+ * 一个分数打包进一个 long: 高 32 位为分子, 低 32 位为分母 (恒为正, 已约分)
+ * 所有运算只使用基本类型, 不分配对象; 结果超出 int 范围时返回 {@link #OVERFLOW},
+ * 由调用方回退到 {@link Fraction} 的 BigInteger 实现
+ * @author zyh
+ * @version 1.0.0
+ * @date 2026/10/18
+ */
+public final class FractionMath {
+
+    /**
+     * 溢出标记 (分母为 0, 不可能是合法的分数)
+     */
+    public static final long OVERFLOW = 0L;
+
+    /**
+     * 分数 0
+     */
+    public static final long ZERO = pack(0, 1);
+
+    /**
+     * 分数 1
+     */
+    public static final long ONE = pack(1, 1);
+
+    /**
+     * {@link #writeMixedNumber(long, long, byte[])} 最多写入的字节数
+     */
+    public static final int MAX_MIXED_NUMBER_BYTES = 64;
+
+    private FractionMath() {
+    }
+
+    /**
+     * 打包分子分母 (调用方保证已约分且分母为正)
+     * @param numerator   分子
+     * @param denominator 分母
+     * @return {@code long} 打包后的分数
+     * @author zyh
+     * @date 2026/10/18
+     */
+    public static long pack(int numerator, int denominator) {
+        return ((long) numerator << 32) | (denominator & 0xFFFFFFFFL);
+    }
+
+    // 获取分子
+    public static int numerator(long fraction) {
+        return (int) (fraction >> 32);
+    }
+
+    // 获取分母
+    public static int denominator(long fraction) {
+        return (int) fraction;
+    }
+
+    // 是否溢出
+    public static boolean isOverflow(long fraction) {
+        return (int) fraction == 0;
+    }
+
+    /**
+     * 由任意 long 分子分母构造分数: 化简、把负号移到分子上, 超出 int 范围时返回溢出标记
+     * @param numerator   分子
+     * @param denominator 分母
+     * @return {@code long} 打包后的分数或 {@link #OVERFLOW}
+     * @author zyh
+     * @date 2026/10/18
+     */
+    public static long of(long numerator, long denominator) {
+        if (denominator == 0) {
+            throw new ArithmeticException("Denominator cannot be zero.");
+        }
+        if (numerator == 0) {
+            return ZERO;
+        }
+        // Long.MIN_VALUE 取反仍为负数, 直接视为溢出
+        if (numerator == Long.MIN_VALUE || denominator == Long.MIN_VALUE) {
+            return OVERFLOW;
+        }
+        if (denominator < 0) {
+            numerator = -numerator;
+            denominator = -denominator;
+        }
+        long gcd = gcd(Math.abs(numerator), denominator);
+        numerator /= gcd;
+        denominator /= gcd;
+        // 分子不使用 Integer.MIN_VALUE, 保证交叉相乘的和不会超出 long
+        if (numerator > Integer.MAX_VALUE || numerator < -Integer.MAX_VALUE || denominator > Integer.MAX_VALUE) {
+            return OVERFLOW;
+        }
+        return pack((int) numerator, (int) denominator);
+    }
+
+    // 加法
+    public static long add(long a, long b) {
+        if (isOverflow(a) || isOverflow(b)) {
+            return OVERFLOW;
+        }
+        long d1 = denominator(a), d2 = denominator(b);
+        // 分母相同 (包括整数相加) 时无需交叉相乘
+        if (d1 == d2) {
+            return of((long) numerator(a) + numerator(b), d1);
+        }
+        // |分子|、分母均小于 2^31, 两个乘积之和不会超出 long
+        return of(numerator(a) * d2 + numerator(b) * d1, d1 * d2);
+    }
+
+    // 减法
+    public static long subtract(long a, long b) {
+        if (isOverflow(b)) {
+            return OVERFLOW;
+        }
+        return add(a, pack(-numerator(b), denominator(b)));
+    }
+
+    // 乘法
+    public static long multiply(long a, long b) {
+        if (isOverflow(a) || isOverflow(b)) {
+            return OVERFLOW;
+        }
+        return of((long) numerator(a) * numerator(b), (long) denominator(a) * denominator(b));
+    }
+
+    // 除法
+    public static long divide(long a, long b) {
+        if (isOverflow(a) || isOverflow(b)) {
+            return OVERFLOW;
+        }
+        if (numerator(b) == 0) {
+            throw new ArithmeticException("Division by zero.");
+        }
+        return of((long) numerator(a) * denominator(b), (long) denominator(a) * numerator(b));
+    }
+
+    /**
+     * 精确比较两个分数的大小 (交叉相乘, 不经过浮点数)
+     * @param a 分数1
+     * @param b 分数2
+     * @return int 负数表示 a 小于 b, 0 表示相等, 正数表示 a 大于 b
+     * @author zyh
+     * @date 2026/10/18
+     */
+    public static int compare(long a, long b) {
+        return Long.compare((long) numerator(a) * denominator(b), (long) numerator(b) * denominator(a));
+    }
+
+    /**
+     * 精确比较两个以 long 分子分母表示的分数 (不要求约分), 交叉相乘按 128 位计算, 不会溢出
+     * @param numerator1   分数1的分子
+     * @param denominator1 分数1的分母 (正数)
+     * @param numerator2   分数2的分子
+     * @param denominator2 分数2的分母 (正数)
+     * @return int 负数表示分数1小于分数2, 0 表示相等, 正数表示分数1大于分数2
+     * @author zyh
+     * @date 2026/10/18
+     */
+    public static int compare(long numerator1, long denominator1, long numerator2, long denominator2) {
+        long leftHigh = Math.multiplyHigh(numerator1, denominator2);
+        long rightHigh = Math.multiplyHigh(numerator2, denominator1);
+        if (leftHigh != rightHigh) {
+            return Long.compare(leftHigh, rightHigh);
+        }
+        return Long.compareUnsigned(numerator1 * denominator2, numerator2 * denominator1);
+    }
+
+    /**
+     * 解析形如 3、1/2、2'3/8 的分数字符串
+     * @param text 分数字符串
+     * @return {@code long} 打包后的分数, 超出范围时返回 {@link #OVERFLOW}
+     * @author zyh
+     * @date 2026/10/18
+     */
+    public static long parse(String text) {
+        int quote = text.indexOf('\'');
+        int slash = text.indexOf('/');
+        long numerator;
+        long denominator;
+        try {
+            if (slash < 0) {
+                numerator = Long.parseLong(text);
+                denominator = 1;
+            } else {
+                numerator = Long.parseLong(text, quote + 1, slash, 10);
+                denominator = Long.parseLong(text, slash + 1, text.length(), 10);
+                if (quote >= 0) {
+                    long whole = Long.parseLong(text, 0, quote, 10);
+                    numerator = Math.addExact(Math.multiplyExact(whole, denominator), numerator);
+                }
+            }
+        } catch (ArithmeticException e) {
+            return OVERFLOW;
+        } catch (NumberFormatException e) {
+            // 数字位数超出 long 时视为溢出, 其他格式错误继续抛出
+            if (hasLongDigitRun(text)) {
+                return OVERFLOW;
+            }
+            throw e;
+        }
+        return of(numerator, denominator);
+    }
+
+    // 是否包含超过 18 位的连续数字 (可能超出 long 范围)
+    private static boolean hasLongDigitRun(String text) {
+        int run = 0;
+        for (int i = 0; i < text.length(); i++) {
+            run = Character.isDigit(text.charAt(i)) ? run + 1 : 0;
+            if (run > 18) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * 转换为真分数形式的字符串 (如 2'3/8)
+     * @param fraction 分数
+     * @return {@code String} 真分数字符串
+     * @author zyh
+     * @date 2026/10/18
+     */
+    public static String toMixedNumberString(long fraction) {
+        int numerator = numerator(fraction);
+        int denominator = denominator(fraction);
+        int whole = numerator / denominator;  // 整数部分
+        int newNumerator = numerator % denominator; // 余数 (新的分子)
+
+        if (newNumerator == 0) {
+            return String.valueOf(whole); // 如果余数为0，只返回整数部分
+        } else if (whole == 0) {
+            return newNumerator + "/" + denominator; // 如果整数部分为0，返回假分数形式
+        } else {
+            return whole + "'" + Math.abs(newNumerator) + "/" + denominator; // 真分数形式
+        }
+    }
+
+    /**
+     * 把真分数形式 (与 {@link #toMixedNumberString(long)} 相同) 的 ASCII 字节写入 out, 不创建字符串
+     * @param fraction 分数
+     * @param out      输出, 长度不小于 {@link #MAX_MIXED_NUMBER_BYTES}
+     * @return int 写入的字节数
+     * @author zyh
+     * @date 2026/10/18
+     */
+    public static int writeMixedNumber(long fraction, byte[] out) {
+        return writeMixedNumber(numerator(fraction), denominator(fraction), out);
+    }
+
+    /**
+     * 把以 long 分子、分母表示的最简分数按真分数形式写入 out
+     * @param numerator   分子
+     * @param denominator 分母 (正数)
+     * @param out         输出, 长度不小于 {@link #MAX_MIXED_NUMBER_BYTES}
+     * @return int 写入的字节数
+     * @author zyh
+     * @date 2026/10/18
+     */
+    public static int writeMixedNumber(long numerator, long denominator, byte[] out) {
+        long whole = numerator / denominator;
+        long newNumerator = numerator % denominator;
+        if (newNumerator == 0) {
+            return writeInt(whole, out, 0);
+        }
+        int length = 0;
+        if (whole != 0) {
+            length = writeInt(whole, out, 0);
+            out[length++] = '\'';
+            length = writeInt(Math.abs(newNumerator), out, length);
+        } else {
+            length = writeInt(newNumerator, out, 0);
+        }
+        out[length++] = '/';
+        return writeInt(denominator, out, length);
+    }
+
+    // 写出十进制整数, 返回写入后的位置
+    private static int writeInt(long value, byte[] out, int position) {
+        if (value < 0) {
+            out[position++] = '-';
+            value = -value;
+        }
+        int end = position + 1;
+        for (long rest = value / 10; rest != 0; rest /= 10) {
+            end++;
+        }
+        for (int i = end - 1; i >= position; i--) {
+            out[i] = (byte) ('0' + value % 10);
+            value /= 10;
+        }
+        return end;
+    }
+
+    /**
+     * 求最大公约数 (欧几里得算法, 迭代实现)
+     * @param a 非负数1
+     * @param b 非负数2
+     * @return long 最大公约数
+     * @author zyh
+     * @date 2026/10/18
+     */
+    public static long gcd(long a, long b) {
+        while (b != 0) {
+            long t = a % b;
+            a = b;
+            b = t;
+        }
+        return a;
+    }
+}
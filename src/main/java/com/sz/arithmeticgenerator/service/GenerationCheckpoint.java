@@ -0,0 +1,122 @@
+package com.sz.arithmeticgenerator.service;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.Objects;
+
+/**
+ * 生成任务的检查点
+ * 题目序列只由生成任务 (种子、分片) 与去重索引类型决定, 因此检查点只需记录已写出的题目数和两个输出文件的长度:
+ * 恢复时把文件截断到记录的长度, 再重放之前的随机数流重建去重索引 (不求值、不写文件), 从下一道题继续写出
+ * @param spec           生成任务
+ * @param dedupMode      去重索引类型
+ * @param written        本分片已写出 (并已落盘) 的题目数
+ * @param exerciseOffset 题目文件中对应的字节长度
+ * @param answerOffset   答案文件中对应的字节长度
+ * @author zyh
+ * @version 1.0.0
+ * @date 2026/10/18
+ */
+public record GenerationCheckpoint(GenerationSpec spec, String dedupMode, long written,
+                                   long exerciseOffset, long answerOffset) {
+
+    /**
+     * 文件头 "GCKP"
+     */
+    private static final int MAGIC = 0x47434B50;
+
+    private static final int VERSION = 1;
+
+    public GenerationCheckpoint {
+        Objects.requireNonNull(spec);
+        Objects.requireNonNull(dedupMode);
+        if (written < 0 || written > spec.size() || exerciseOffset < 0 || answerOffset < 0) {
+            throw new IllegalArgumentException("检查点数据不合法: " + written + " " + exerciseOffset + " " + answerOffset);
+        }
+    }
+
+    /**
+     * 检查点是否属于给定的生成任务
+     * @param other          生成任务
+     * @param otherDedupMode 去重索引类型
+     * @return boolean 参数完全一致时返回 true
+     * @author zyh
+     * @date 2026/10/18
+     */
+    public boolean matches(GenerationSpec other, String otherDedupMode) {
+        return spec.equals(other) && dedupMode.equals(otherDedupMode);
+    }
+
+    /**
+     * 更新进度
+     * @param newWritten        已写出的题目数
+     * @param newExerciseOffset 题目文件长度
+     * @param newAnswerOffset   答案文件长度
+     * @return {@code GenerationCheckpoint} 新的检查点
+     * @author zyh
+     * @date 2026/10/18
+     */
+    public GenerationCheckpoint withProgress(long newWritten, long newExerciseOffset, long newAnswerOffset) {
+        return new GenerationCheckpoint(spec, dedupMode, newWritten, newExerciseOffset, newAnswerOffset);
+    }
+
+    /**
+     * 写出检查点: 先写临时文件再原子替换, 进程在任何时刻被终止都不会留下半个检查点
+     * @param file 检查点文件
+     * @throws IOException 写出失败
+     * @author zyh
+     * @date 2026/10/18
+     */
+    public void write(Path file) throws IOException {
+        Path directory = file.toAbsolutePath().getParent();
+        Path temp = Files.createTempFile(directory, file.getFileName().toString(), ".tmp");
+        try {
+            try (OutputStream out = Files.newOutputStream(temp)) {
+                DataOutputStream data = new DataOutputStream(out);
+                data.writeInt(MAGIC);
+                data.writeInt(VERSION);
+                data.writeInt(spec.numQuestions());
+                data.writeInt(spec.range());
+                data.writeLong(spec.seed());
+                data.writeInt(spec.shardIndex());
+                data.writeInt(spec.shardCount());
+                data.writeUTF(dedupMode);
+                data.writeLong(written);
+                data.writeLong(exerciseOffset);
+                data.writeLong(answerOffset);
+                data.flush();
+            }
+            Files.move(temp, file, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+
+    /**
+     * 读取检查点
+     * @param file 检查点文件
+     * @return {@code GenerationCheckpoint} 检查点, 文件不存在时为 null
+     * @throws IOException 读取失败或格式错误
+     * @author zyh
+     * @date 2026/10/18
+     */
+    public static GenerationCheckpoint read(Path file) throws IOException {
+        try (InputStream in = Files.newInputStream(file)) {
+            DataInputStream data = new DataInputStream(in);
+            if (data.readInt() != MAGIC || data.readInt() != VERSION) {
+                throw new IOException("检查点格式错误: " + file);
+            }
+            GenerationSpec spec = new GenerationSpec(data.readInt(), data.readInt(), data.readLong(), data.readInt(), data.readInt());
+            return new GenerationCheckpoint(spec, data.readUTF(), data.readLong(), data.readLong(), data.readLong());
+        } catch (NoSuchFileException e) {
+            return null;
+        }
+    }
+}
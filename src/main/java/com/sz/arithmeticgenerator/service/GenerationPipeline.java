@@ -0,0 +1,386 @@
+package com.sz.arithmeticgenerator.service;
+
+import com.sz.arithmeticgenerator.util.MappedLineReader;
+import com.sz.arithmeticgenerator.util.NumberedLineWriter;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.concurrent.*;
+
+/**
+ * 流水线式生成题目与答案
+ * 生成线程 (可多线程生成, 按顺序合并) 把题目放入有界队列, 计算线程池并发计算答案, 写入线程按顺序把题目和答案追加到文件 (可同时写出二进制题目集),
+ * 因此首字节时间和堆内存占用都不随题目数量增长
+ * @author zyh
+ * @version 1.0.0
+ * @date 2026/10/18
+ */
+public class GenerationPipeline {
+
+    /**
+     * 每个计算线程对应的队列容量
+     */
+    private static final int QUEUE_CAPACITY_PER_WORKER = 1024;
+
+    /**
+     * 队列中的一项: 题目和 (可能尚未算完的) 答案
+     * question 为 null 表示生成结束
+     */
+    private record Item(String question, Future<String> answer) {
+    }
+
+    private static final Item END = new Item(null, null);
+
+    /**
+     * 写出检查点的间隔 (题目数)
+     */
+    private static final int CHECKPOINT_INTERVAL = 1 << 20;
+
+    /**
+     * 生成题目并把题目和答案分别写入文件
+     * @param numQuestions 题目数量
+     * @param range        运算范围
+     * @param workers      计算答案的线程数
+     * @param exerciseFile 题目文件
+     * @param answerFile   答案文件
+     * @author zyh
+     * @date 2026/10/18
+     */
+    public static void generate(int numQuestions, int range, int workers, String exerciseFile, String answerFile) {
+        generate(numQuestions, range, workers, QuestionGenerator.DEFAULT_DEDUP_MODE, exerciseFile, answerFile);
+    }
+
+    /**
+     * 生成题目并把题目和答案分别写入文件
+     * @param numQuestions 题目数量
+     * @param range        运算范围
+     * @param workers      生成题目和计算答案的线程数
+     * @param dedupMode    去重索引类型 (见 {@link DedupIndex#create(String, int)})
+     * @param exerciseFile 题目文件
+     * @param answerFile   答案文件
+     * @author zyh
+     * @date 2026/10/18
+     */
+    public static void generate(int numQuestions, int range, int workers, String dedupMode,
+                                String exerciseFile, String answerFile) {
+        generate(GenerationSpec.of(numQuestions, range), workers, dedupMode, exerciseFile, answerFile);
+    }
+
+    /**
+     * 按生成任务 (种子、分片) 生成题目并把题目和答案分别写入文件
+     * 题目和答案的序号为全局序号, 各分片的文件按分片顺序拼接即得到完整的题目集合
+     * @param spec         生成任务
+     * @param workers      生成题目和计算答案的线程数
+     * @param dedupMode    去重索引类型 (见 {@link DedupIndex#create(String, int)})
+     * @param exerciseFile 题目文件
+     * @param answerFile   答案文件
+     * @author zyh
+     * @date 2026/10/18
+     */
+    public static void generate(GenerationSpec spec, int workers, String dedupMode,
+                                String exerciseFile, String answerFile) {
+        generate(spec, workers, dedupMode, exerciseFile, answerFile, null);
+    }
+
+    /**
+     * 按生成任务 (种子、分片) 生成题目, 把题目和答案分别写入文件, 并可同时写出二进制题目集
+     * @param spec         生成任务
+     * @param workers      生成题目和计算答案的线程数
+     * @param dedupMode    去重索引类型 (见 {@link DedupIndex#create(String, int)})
+     * @param exerciseFile 题目文件
+     * @param answerFile   答案文件
+     * @param binaryFile   二进制题目集文件 (见 {@link ExerciseSet}), 为 null 时不写出
+     * @author zyh
+     * @date 2026/10/18
+     */
+    public static void generate(GenerationSpec spec, int workers, String dedupMode,
+                                String exerciseFile, String answerFile, String binaryFile) {
+        generate(spec, workers, dedupMode, exerciseFile, answerFile, binaryFile, null);
+    }
+
+    /**
+     * 按生成任务生成题目, 并可定期写出检查点: 进程中途被终止后以相同参数重新运行, 从最后一个检查点继续写出
+     * 检查点文件存在时先校验参数是否一致, 再把题目文件和答案文件截断到检查点记录的长度后续写;
+     * 全部写完后删除检查点文件。续写时序号与全局不重复性都与一次写完相同
+     * @param spec           生成任务
+     * @param workers        生成题目和计算答案的线程数
+     * @param dedupMode      去重索引类型 (见 {@link DedupIndex#create(String, int)})
+     * @param exerciseFile   题目文件
+     * @param answerFile     答案文件
+     * @param binaryFile     二进制题目集文件 (见 {@link ExerciseSet}), 为 null 时不写出; 不能与检查点同时使用
+     * @param checkpointFile 检查点文件 (见 {@link GenerationCheckpoint}), 为 null 时不写检查点
+     * @author zyh
+     * @date 2026/10/18
+     */
+    public static void generate(GenerationSpec spec, int workers, String dedupMode,
+                                String exerciseFile, String answerFile, String binaryFile, String checkpointFile) {
+        // 在打开 (清空) 输出文件之前检查参数
+        if (workers < 1) {
+            throw new IllegalArgumentException("parallelism must be positive");
+        }
+        // 题目数量超过不重复题目的总数时提前报错
+        ExpressionSpace.of(spec.range()).checkCapacity(spec.numQuestions());
+        GenerationCheckpoint checkpoint = checkpointFile == null ? null : openCheckpoint(spec, dedupMode,
+                exerciseFile, answerFile, binaryFile, Path.of(checkpointFile));
+        // 从检查点恢复时跳过已写出的题目
+        long skip = checkpoint == null ? 0 : checkpoint.written();
+        // 只有随机生成时才需要去重索引 (在调用线程中按顺序去重), 构造式抽样不分配索引
+        DedupIndex index = QuestionGenerator.createIndex(spec, dedupMode);
+        // 没有进度可恢复时清空文件重新写入
+        boolean resume = skip > 0;
+        run(spec, skip, workers, index, spec.first() + skip + 1, exerciseFile, resume ? checkpoint.exerciseOffset() : -1,
+                answerFile, resume ? checkpoint.answerOffset() : -1, binaryFile,
+                checkpoint == null ? null : Path.of(checkpointFile), checkpoint);
+        // 全部写完 (文件已关闭) 后检查点不再需要
+        if (checkpointFile != null) {
+            try {
+                Files.deleteIfExists(Path.of(checkpointFile));
+            } catch (IOException e) {
+                throw new RuntimeException("文件写错误: " + checkpointFile + ": " + e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * 从题库 (一个或多个已有的题目文件, 可以是二进制题目集) 继续出题: 新题目与题库中的任何一道都不重复,
+     * 追加到题目文件和答案文件末尾 (文件不存在时新建), 序号接着题目文件最后一道题的序号编号 (没有序号时接着其行数);
+     * 题库先经 {@link ExerciseBank} 批量加载进去重索引; 分片时各分片取新题目中互不相交的一段;
+     * 题库以外的题目不够时, 两个文件恢复为追加之前的内容
+     * @param spec          生成任务 (题目数量为新题目的数量)
+     * @param workers       加载题库、生成题目和计算答案的线程数
+     * @param dedupMode     去重索引类型 (见 {@link DedupIndex#create(String, int)})
+     * @param exerciseFiles 题库中已有的题目文件
+     * @param exerciseFile  追加新题目的题目文件
+     * @param answerFile    追加答案的答案文件
+     * @param binaryFile    只包含新题目的二进制题目集文件, 为 null 时不写出
+     * @author zyh
+     * @date 2026/10/18
+     */
+    public static void append(GenerationSpec spec, int workers, String dedupMode, List<String> exerciseFiles,
+                              String exerciseFile, String answerFile, String binaryFile) {
+        if (workers < 1) {
+            throw new IllegalArgumentException("parallelism must be positive");
+        }
+        ExpressionSpace.of(spec.range()).checkCapacity(spec.numQuestions());
+        ExerciseBank bank = ExerciseBank.load(exerciseFiles, dedupMode, (int) spec.last(), workers);
+        long exerciseLength = existingLength(exerciseFile);
+        long answerLength = existingLength(answerFile);
+        try {
+            run(spec, 0, workers, bank.index(), lastNumber(exerciseFile) + spec.first() + 1, exerciseFile, exerciseLength,
+                    answerFile, answerLength, binaryFile, null, null);
+        } catch (RuntimeException | Error e) {
+            // 题库以外的题目不够等错误只在生成过程中才能发现, 此时已写出一部分题目
+            restore(exerciseFile, exerciseLength);
+            restore(answerFile, answerLength);
+            if (binaryFile != null) {
+                restore(binaryFile, -1);
+            }
+            throw e;
+        }
+    }
+
+    // 题目文件最后一道题的序号: 最后一个非空行以 "N." 开头时为 N, 没有序号时为非空行数, 文件不存在时为 0
+    private static long lastNumber(String file) {
+        if (!Files.exists(Path.of(file))) {
+            return 0;
+        }
+        try (MappedLineReader lines = new MappedLineReader(file)) {
+            long count = 0;
+            long last = -1;
+            while (lines.nextLine()) {
+                if (lines.lineEnd() > lines.lineStart()) {
+                    count++;
+                    last = leadingNumber(lines.buffer(), lines.lineStart(), lines.lineEnd());
+                }
+            }
+            return last >= 0 ? last : count;
+        } catch (IOException e) {
+            throw new RuntimeException("Error reading files: " + e.getMessage());
+        }
+    }
+
+    // 行首 "N." 中的序号, 没有序号时为 -1
+    private static long leadingNumber(ByteBuffer buffer, int start, int end) {
+        long number = 0;
+        int i = start;
+        // 最多 18 位, 不会溢出
+        while (i < end && i - start < 18 && buffer.get(i) >= '0' && buffer.get(i) <= '9') {
+            number = number * 10 + (buffer.get(i) - '0');
+            i++;
+        }
+        return i > start && i < end && buffer.get(i) == '.' ? number : -1;
+    }
+
+    // 把文件恢复为追加之前的长度, 原本不存在时删除; 恢复失败只提示, 不掩盖原来的错误
+    private static void restore(String file, long length) {
+        try {
+            if (length < 0) {
+                Files.deleteIfExists(Path.of(file));
+            } else {
+                try (FileChannel channel = FileChannel.open(Path.of(file), StandardOpenOption.WRITE)) {
+                    channel.truncate(length);
+                }
+            }
+        } catch (IOException e) {
+            System.err.println("恢复文件失败: " + file + ": " + e.getMessage());
+        }
+    }
+
+    // 已有文件的长度 (在其后追加), 文件不存在时为 -1 (新建)
+    private static long existingLength(String file) {
+        try {
+            return Files.exists(Path.of(file)) ? Files.size(Path.of(file)) : -1;
+        } catch (IOException e) {
+            throw new RuntimeException("Error reading files: " + e.getMessage());
+        }
+    }
+
+    // 生成、求值并写出: 题目从 firstNumber 开始编号, 两个输出文件分别截断到给定长度后续写 (为 -1 时清空)
+    private static void run(GenerationSpec spec, long skip, int workers, DedupIndex index, long firstNumber,
+                            String exerciseFile, long exerciseOffset, String answerFile, long answerOffset,
+                            String binaryFile, Path checkpointFile, GenerationCheckpoint checkpoint) {
+        BlockingQueue<Item> queue = new ArrayBlockingQueue<>(QUEUE_CAPACITY_PER_WORKER * workers);
+        ExecutorService evaluators = Executors.newFixedThreadPool(workers);
+        // 写入线程出错时记录异常, 生成线程据此停止
+        CompletableFuture<Void> writerDone = new CompletableFuture<>();
+        try (NumberedLineWriter exercises = new NumberedLineWriter(exerciseFile, firstNumber, exerciseOffset);
+             NumberedLineWriter answers = new NumberedLineWriter(answerFile, firstNumber, answerOffset);
+             ExerciseSetWriter binary = binaryFile == null ? null : new ExerciseSetWriter(binaryFile, firstNumber)) {
+            Checkpointer checkpointer = checkpoint == null ? null
+                    : new Checkpointer(checkpointFile, checkpoint, exercises, answers);
+            Thread writer = new Thread(() -> drain(queue, exercises, answers, binary, checkpointer, writerDone), "question-writer");
+            writer.start();
+            try {
+                QuestionGenerator.generateQuestions(spec, skip, workers, index, question -> {
+                    if (writerDone.isCompletedExceptionally()) {
+                        throw new CompletionException(writerDone.exceptionNow());
+                    }
+                    // 生成的题目互不重复, 不经过编译缓存, 以免占满缓存
+                    Future<String> answer = evaluators.submit(() -> AnswerEvaluator.evaluateUniqueQuestion(question));
+                    put(queue, new Item(question, answer));
+                });
+            } finally {
+                put(queue, END);
+                join(writer);
+            }
+            writerDone.join();
+        } finally {
+            evaluators.shutdownNow();
+        }
+    }
+
+    // 读取已有的检查点并校验参数, 不存在时返回进度为 0 的新检查点
+    private static GenerationCheckpoint openCheckpoint(GenerationSpec spec, String dedupMode, String exerciseFile,
+                                                       String answerFile, String binaryFile, Path checkpointFile) {
+        if (binaryFile != null) {
+            throw new IllegalArgumentException("二进制题目集不支持断点续写");
+        }
+        if (exerciseFile.endsWith(NumberedLineWriter.GZIP_SUFFIX) || answerFile.endsWith(NumberedLineWriter.GZIP_SUFFIX)) {
+            throw new IllegalArgumentException("压缩文件不支持断点续写");
+        }
+        GenerationCheckpoint checkpoint;
+        try {
+            checkpoint = GenerationCheckpoint.read(checkpointFile);
+        } catch (IOException e) {
+            throw new RuntimeException("Error reading files: " + e.getMessage());
+        }
+        if (checkpoint == null) {
+            return new GenerationCheckpoint(spec, dedupMode, 0, 0, 0);
+        }
+        if (!checkpoint.matches(spec, dedupMode)) {
+            throw new IllegalArgumentException("检查点与本次生成的参数不一致: " + checkpoint.spec() + " " + checkpoint.dedupMode());
+        }
+        return checkpoint;
+    }
+
+    /**
+     * 写入线程上的检查点: 每写出 {@link #CHECKPOINT_INTERVAL} 道题, 先让两个输出文件落盘, 再原子地更新检查点
+     */
+    private static final class Checkpointer {
+
+        private final Path file;
+        private final NumberedLineWriter exercises;
+        private final NumberedLineWriter answers;
+        private GenerationCheckpoint checkpoint;
+        private int sinceLast;
+
+        Checkpointer(Path file, GenerationCheckpoint checkpoint, NumberedLineWriter exercises, NumberedLineWriter answers) {
+            this.file = file;
+            this.checkpoint = checkpoint;
+            this.exercises = exercises;
+            this.answers = answers;
+        }
+
+        // 写出一道题之后调用
+        void written() {
+            if (++sinceLast >= CHECKPOINT_INTERVAL) {
+                save();
+            }
+        }
+
+        private void save() {
+            long exerciseOffset = exercises.sync();
+            long answerOffset = answers.sync();
+            checkpoint = checkpoint.withProgress(checkpoint.written() + sinceLast, exerciseOffset, answerOffset);
+            sinceLast = 0;
+            try {
+                checkpoint.write(file);
+            } catch (IOException e) {
+                throw new RuntimeException("文件写错误: " + file + ": " + e.getMessage());
+            }
+        }
+    }
+
+    // 写入线程: 按入队顺序写出题目和答案; 出错后继续取出剩余项, 避免生成线程阻塞
+    private static void drain(BlockingQueue<Item> queue, NumberedLineWriter exercises, NumberedLineWriter answers,
+                              ExerciseSetWriter binary, Checkpointer checkpointer, CompletableFuture<Void> done) {
+        try {
+            Item item;
+            while ((item = queue.take()) != END) {
+                if (done.isDone()) {
+                    continue;
+                }
+                try {
+                    String answer = item.answer().get();
+                    exercises.write(item.question());
+                    answers.write(answer);
+                    if (binary != null) {
+                        binary.write(item.question());
+                    }
+                    if (checkpointer != null) {
+                        checkpointer.written();
+                    }
+                } catch (ExecutionException | RuntimeException e) {
+                    done.completeExceptionally(e instanceof ExecutionException ? e.getCause() : e);
+                }
+            }
+            done.complete(null);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            done.completeExceptionally(e);
+        }
+    }
+
+    private static void put(BlockingQueue<Item> queue, Item item) {
+        try {
+            queue.put(item);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("题目生成被中断", e);
+        }
+    }
+
+    private static void join(Thread thread) {
+        try {
+            thread.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("题目生成被中断", e);
+        }
+    }
+}
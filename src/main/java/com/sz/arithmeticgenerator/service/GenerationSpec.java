@@ -0,0 +1,89 @@
+package com.sz.arithmeticgenerator.service;
+
+import java.util.SplittableRandom;
+
+/**
+ * 一次生成任务的参数
+ * (seed, numQuestions, range) 唯一确定一个全局不重复的题目集合 (按顺序排列);
+ * 分片 shardIndex / shardCount 取其中连续的一段, 各分片互不相交, 按分片顺序拼接即得到完整集合
+ * @param numQuestions 全局题目数量
+ * @param range        运算范围
+ * @param seed         随机种子
+ * @param shardIndex   分片序号, 从 0 开始
+ * @param shardCount   分片总数
+ * @author zyh
+ * @version 1.0.0
+ * @date 2026/10/18
+ */
+public record GenerationSpec(int numQuestions, int range, long seed, int shardIndex, int shardCount) {
+
+    public GenerationSpec {
+        if (range <= 0) {
+            throw new IllegalArgumentException("bound must be positive");
+        }
+        if (numQuestions < 0) {
+            throw new IllegalArgumentException("题目数量不能为负数: " + numQuestions);
+        }
+        if (shardCount < 1 || shardIndex < 0 || shardIndex >= shardCount) {
+            throw new IllegalArgumentException("分片参数不合法: " + shardIndex + "/" + shardCount);
+        }
+    }
+
+    /**
+     * 使用随机种子、不分片的生成任务
+     * @param numQuestions 题目数量
+     * @param range        运算范围
+     * @return {@code GenerationSpec} 生成任务
+     * @author zyh
+     * @date 2026/10/18
+     */
+    public static GenerationSpec of(int numQuestions, int range) {
+        return new GenerationSpec(numQuestions, range, new SplittableRandom().nextLong(), 0, 1);
+    }
+
+    /**
+     * 解析 "序号/总数" 形式的分片参数, 返回对应分片的生成任务
+     * @param shard 分片参数, 如 "0/4"
+     * @return {@code GenerationSpec} 生成任务
+     * @author zyh
+     * @date 2026/10/18
+     */
+    public GenerationSpec withShard(String shard) {
+        int slash = shard.indexOf('/');
+        if (slash < 0) {
+            throw new IllegalArgumentException("分片参数应为 序号/总数: " + shard);
+        }
+        return new GenerationSpec(numQuestions, range, seed,
+                Integer.parseInt(shard.substring(0, slash).trim()), Integer.parseInt(shard.substring(slash + 1).trim()));
+    }
+
+    /**
+     * 本分片第一道题在全局集合中的序号 (从 0 开始)
+     * @return long 序号
+     * @author zyh
+     * @date 2026/10/18
+     */
+    public long first() {
+        return (long) numQuestions * shardIndex / shardCount;
+    }
+
+    /**
+     * 本分片最后一道题之后的全局序号
+     * @return long 序号
+     * @author zyh
+     * @date 2026/10/18
+     */
+    public long last() {
+        return (long) numQuestions * (shardIndex + 1) / shardCount;
+    }
+
+    /**
+     * 本分片的题目数量
+     * @return int 题目数量
+     * @author zyh
+     * @date 2026/10/18
+     */
+    public int size() {
+        return (int) (last() - first());
+    }
+}
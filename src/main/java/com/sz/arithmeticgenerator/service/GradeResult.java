@@ -0,0 +1,105 @@
+package com.sz.arithmeticgenerator.service;
+
+import java.io.IOException;
+import java.util.BitSet;
+
+/**
+ * 评分结果
+ * 用 BitSet 记录每道题是否正确 (每题 1 位), 输出时逐段写出, 不构建整段字符串
+ * @author zyh
+ * @version 1.0.0
+ * @date 2026/10/18
+ */
+public class GradeResult {
+
+    /**
+     * 第 i 位表示第 i + 1 题是否正确
+     */
+    private final BitSet correct = new BitSet();
+
+    /**
+     * 题目总数
+     */
+    private int total;
+
+    /**
+     * 记录下一道题的评分结果
+     * @param isCorrect 是否正确
+     * @author zyh
+     * @date 2026/10/18
+     */
+    public void record(boolean isCorrect) {
+        if (isCorrect) {
+            correct.set(total);
+        }
+        total++;
+    }
+
+    public int getTotal() {
+        return total;
+    }
+
+    public int getCorrectCount() {
+        return correct.cardinality();
+    }
+
+    public int getWrongCount() {
+        return total - correct.cardinality();
+    }
+
+    /**
+     * 第 number 题 (从 1 开始) 是否正确
+     * @param number 题目编号
+     * @return boolean 是否正确
+     * @author zyh
+     * @date 2026/10/18
+     */
+    public boolean isCorrect(int number) {
+        return correct.get(number - 1);
+    }
+
+    /**
+     * 按 Grade.txt 的格式写出结果
+     * Correct: 2 [1, 3]
+     * Wrong: 1 [2]
+     * @param out 输出目标
+     * @throws IOException 写出失败
+     * @author zyh
+     * @date 2026/10/18
+     */
+    public void writeTo(Appendable out) throws IOException {
+        out.append("Correct: ").append(String.valueOf(getCorrectCount())).append(" [");
+        boolean first = true;
+        for (int i = correct.nextSetBit(0); i >= 0; i = correct.nextSetBit(i + 1)) {
+            first = appendNumber(out, i + 1, first);
+        }
+        out.append("]\n");
+        out.append("Wrong: ").append(String.valueOf(getWrongCount())).append(" [");
+        first = true;
+        for (int i = correct.nextClearBit(0); i < total; i = correct.nextClearBit(i + 1)) {
+            first = appendNumber(out, i + 1, first);
+        }
+        out.append("]");
+    }
+
+    // 写出一个题目编号, 返回下一个编号是否仍是第一个
+    private static boolean appendNumber(Appendable out, int number, boolean first) throws IOException {
+        if (!first) {
+            out.append(", ");
+        }
+        out.append(String.valueOf(number));
+        return false;
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder builder = new StringBuilder();
+        try {
+            writeTo(builder);
+        } catch (IOException e) {
+            // StringBuilder 不会抛出 IOException
+            throw new IllegalStateException(e);
+        }
+        return builder.toString();
+    }
+}
@@ -0,0 +1,157 @@
+package com.sz.arithmeticgenerator.service;
+
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 评分请求合批器
+ * 并发到达的评分请求先进入队列, 由后台线程在很短的时间窗口内把它们合成一批,
+ * 一次性交给 {@link AnswerEvaluator#evaluateQuestions(List, ForkJoinPool)} 在常驻的线程池中并行求值, 再按请求拆分答案;
+ * 线程池和求值器 (编译缓存、求值栈) 在服务运行期间一直保持预热, 不会每批重新创建线程
+ * @author zyh
+ * @version 1.0.0
+ * @date 2026/10/18
+ */
+@Service
+public class GradingBatcher implements DisposableBean {
+
+    /**
+     * 等待更多请求加入同一批的最长时间
+     */
+    private static final long BATCH_WINDOW_NANOS = TimeUnit.MILLISECONDS.toNanos(2);
+
+    /**
+     * 一批最多包含的题目数, 超过后立即求值
+     */
+    private static final int MAX_BATCH_QUESTIONS = 1 << 16;
+
+    /**
+     * 等待求值的请求: 题目与对应的答案结果
+     * @param questions 题目
+     * @param answers   求值完成后填入答案
+     */
+    private record Pending(List<String> questions, CompletableFuture<List<String>> answers) {
+    }
+
+    private final BlockingQueue<Pending> queue = new LinkedBlockingQueue<>();
+    private final ForkJoinPool pool = new ForkJoinPool(Runtime.getRuntime().availableProcessors());
+    private final Thread worker;
+
+    public GradingBatcher() {
+        worker = Thread.ofPlatform().name("grading-batcher").daemon().start(this::drainLoop);
+    }
+
+    /**
+     * 提交一组题目求值, 与其它并发请求合批计算
+     * @param questions 题目
+     * @return {@code CompletableFuture<List<String>>} 答案, 顺序与题目一致
+     * @author zyh
+     * @date 2026/10/18
+     */
+    public CompletableFuture<List<String>> evaluate(List<String> questions) {
+        CompletableFuture<List<String>> answers = new CompletableFuture<>();
+        if (questions.isEmpty()) {
+            answers.complete(List.of());
+        } else {
+            queue.add(new Pending(questions, answers));
+        }
+        return answers;
+    }
+
+    /**
+     * 提交一组题目和用户答案评分
+     * @param questions   题目
+     * @param userAnswers 用户答案
+     * @return {@code CompletableFuture<GradeResult>} 评分结果
+     * @author zyh
+     * @date 2026/10/18
+     */
+    public CompletableFuture<GradeResult> grade(List<String> questions, List<String> userAnswers) {
+        if (questions.size() != userAnswers.size()) {
+            return CompletableFuture.failedFuture(new IllegalArgumentException("题目数量与答案数量不一致"));
+        }
+        return evaluate(questions).thenApply(answers -> {
+            GradeResult result = new GradeResult();
+            for (int i = 0; i < answers.size(); i++) {
+                result.record(AnswerEvaluator.isCorrectAnswer(answers.get(i), userAnswers.get(i)));
+            }
+            return result;
+        });
+    }
+
+    // 后台线程: 取出一批请求, 合并求值后逐个完成
+    private void drainLoop() {
+        List<Pending> batch = new ArrayList<>();
+        while (!Thread.currentThread().isInterrupted()) {
+            try {
+                batch.add(queue.take());
+                collect(batch);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            evaluateBatch(batch);
+            batch.clear();
+        }
+        // 停止时让仍在等待的请求失败, 而不是永远挂起
+        queue.drainTo(batch);
+        for (Pending pending : batch) {
+            pending.answers().completeExceptionally(new IllegalStateException("评分服务已停止"));
+        }
+    }
+
+    // 在时间窗口内继续收集请求, 直到题目数达到上限
+    private void collect(List<Pending> batch) throws InterruptedException {
+        int questions = batch.getFirst().questions().size();
+        long deadline = System.nanoTime() + BATCH_WINDOW_NANOS;
+        while (questions < MAX_BATCH_QUESTIONS) {
+            Pending next = queue.poll(deadline - System.nanoTime(), TimeUnit.NANOSECONDS);
+            if (next == null) {
+                return;
+            }
+            batch.add(next);
+            questions += next.questions().size();
+        }
+    }
+
+    private void evaluateBatch(List<Pending> batch) {
+        if (batch.isEmpty()) {
+            return;
+        }
+        try {
+            List<String> all;
+            if (batch.size() == 1) {
+                all = batch.getFirst().questions();
+            } else {
+                all = new ArrayList<>();
+                for (Pending pending : batch) {
+                    all.addAll(pending.questions());
+                }
+            }
+            List<String> answers = AnswerEvaluator.evaluateQuestions(all, pool);
+            int from = 0;
+            for (Pending pending : batch) {
+                int to = from + pending.questions().size();
+                pending.answers().complete(answers.subList(from, to));
+                from = to;
+            }
+        } catch (RuntimeException e) {
+            for (Pending pending : batch) {
+                pending.answers().completeExceptionally(e);
+            }
+        }
+    }
+
+    @Override
+    public void destroy() {
+        worker.interrupt();
+        pool.shutdown();
+    }
+}
@@ -0,0 +1,35 @@
+package com.sz.arithmeticgenerator.service;
+
+import com.sz.arithmeticgenerator.util.LongHashSet;
+
+/**
+ * 只保存 64 位哈希的去重索引
+ * 每道题约占 8 / 0.6 字节; 两个不同的题目哈希碰撞时后者会被当作重复题拒绝,
+ * 因此不会放过真正的重复题
+ * @author zyh
+ * @version 1.0.0
+ * @date 2026/10/18
+ */
+public class HashDedupIndex implements DedupIndex {
+
+    private final LongHashSet hashes;
+
+    public HashDedupIndex(int expectedSize) {
+        this.hashes = new LongHashSet(expectedSize);
+    }
+
+    @Override
+    public boolean add(byte[] key, long hash) {
+        return hashes.add(hash);
+    }
+
+    @Override
+    public boolean contains(byte[] key, long hash) {
+        return hashes.contains(hash);
+    }
+
+    @Override
+    public int size() {
+        return hashes.size();
+    }
+}
@@ -0,0 +1,31 @@
+package com.sz.arithmeticgenerator.service;
+
+/**
+ * 不保存任何键的去重索引
+ * 用于构造式抽样: 题目空间的排列本身保证不重复, 不需要为去重分配内存
+ * @author zyh
+ * @version 1.0.0
+ * @date 2026/10/18
+ */
+public final class NoDedupIndex implements DedupIndex {
+
+    static final NoDedupIndex INSTANCE = new NoDedupIndex();
+
+    private NoDedupIndex() {
+    }
+
+    @Override
+    public boolean add(byte[] key, long hash) {
+        return true;
+    }
+
+    @Override
+    public boolean contains(byte[] key, long hash) {
+        return false;
+    }
+
+    @Override
+    public int size() {
+        return 0;
+    }
+}
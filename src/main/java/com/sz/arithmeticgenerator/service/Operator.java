@@ -0,0 +1,80 @@
+package com.sz.arithmeticgenerator.service;
+
+/**
+ * 四则运算符
+ * 直接绑定 Fraction 的运算方法, 取代按方法名反射调用
+ * @author zyh
+ * @version 1.0.0
+ * @date 2026/10/18
+ */
+public enum Operator {
+    ADD('+'),
+    SUBTRACT('-'),
+    MULTIPLY('*'),
+    DIVIDE('/');
+
+    /**
+     * 运算符在表达式中的符号
+     */
+    private final char symbol;
+
+    Operator(char symbol) {
+        this.symbol = symbol;
+    }
+
+    public char getSymbol() {
+        return symbol;
+    }
+
+    /**
+     * 对两个分数执行运算
+     * @param left  左操作数
+     * @param right 右操作数
+     * @return {@code Fraction} 运算结果
+     * @author zyh
+     * @date 2026/10/18
+     */
+    public Fraction apply(Fraction left, Fraction right) {
+        // 用 switch 直接调用, 避免反射查找与参数装箱
+        return switch (this) {
+            case ADD -> left.add(right);
+            case SUBTRACT -> left.subtract(right);
+            case MULTIPLY -> left.multiply(right);
+            case DIVIDE -> left.divide(right);
+        };
+    }
+
+    /**
+     * 对两个打包分数执行运算, 不分配对象
+     * @param left  左操作数 (见 {@link FractionMath})
+     * @param right 右操作数
+     * @return long 运算结果, 溢出时为 {@link FractionMath#OVERFLOW}
+     * @author zyh
+     * @date 2026/10/18
+     */
+    public long apply(long left, long right) {
+        return switch (this) {
+            case ADD -> FractionMath.add(left, right);
+            case SUBTRACT -> FractionMath.subtract(left, right);
+            case MULTIPLY -> FractionMath.multiply(left, right);
+            case DIVIDE -> FractionMath.divide(left, right);
+        };
+    }
+
+    /**
+     * 根据符号查找运算符, "÷" 与 "/" 均视为除法
+     * @param symbol 运算符符号
+     * @return {@code Operator} 对应的运算符
+     * @author zyh
+     * @date 2026/10/18
+     */
+    public static Operator of(String symbol) {
+        return switch (symbol) {
+            case "+" -> ADD;
+            case "-" -> SUBTRACT;
+            case "*" -> MULTIPLY;
+            case "/", "÷" -> DIVIDE;
+            default -> throw new IllegalArgumentException("Invalid operator: " + symbol);
+        };
+    }
+}
@@ -1,6 +1,13 @@
 package com.sz.arithmeticgenerator.service;
 
+import com.sz.arithmeticgenerator.util.HashUtil;
+import com.sz.arithmeticgenerator.util.Metrics;
+
 import java.util.*;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.Consumer;
+import java.util.random.RandomGenerator;
+import java.util.stream.IntStream;
 
 /**
  * 题目生成器
@@ -15,6 +22,34 @@ public class QuestionGenerator {
      */
     private static final String[] OPERATORS = {"+", "-", "*", "÷"};
 
+    /**
+     * 运算符在 OPERATORS 中的下标
+     */
+    private static final int ADD = 0;
+    private static final int SUBTRACT = 1;
+    private static final int MULTIPLY = 2;
+    private static final int DIVIDE = 3;
+
+    /**
+     * 随机表达式中运算符的最大个数
+     */
+    private static final int MAX_OPERATORS = 2;
+
+    /**
+     * 操作数 0 (中间值小于减数时减去 0)
+     */
+    private static final long ZERO_OPERAND = operand(0, 1);
+
+    /**
+     * 默认的去重索引类型
+     */
+    public static final String DEFAULT_DEDUP_MODE = "hash";
+
+    /**
+     * 随机生成时每批的候选题目数
+     */
+    private static final int RANDOM_BATCH_SIZE = 4096;
+
     /**
      * 生成指定数量和范围的数学题目
      * @param numQuestions 题目数量
@@ -24,210 +59,373 @@ public class QuestionGenerator {
      * @date 2025/03/16
      */
     public static List<String> generateQuestions(int numQuestions, int range) {
-        // 用于存储不重复的题目 这里用hashset检查快
-        Set<String> uniqueQuestions = new HashSet<>();
         // 存储生成的题目
         List<String> questions = new ArrayList<>();
-        // 随机数生成器
-        Random rand = new Random();
-        // 生成题目
-        while (uniqueQuestions.size() < numQuestions) {
-            // 生成随机表达式
-            String question = generateRandomExpression(range, rand);
-            // 归一化表达式，避免重复
-            String normalized = normalizeExpression(question);
-            // 确保唯一性 检查uniqueQuestions是否存在该表达式
-            if (!uniqueQuestions.contains(normalized)) {
-                // 不存在则添加到哈希set便于后续快速筛查
-                uniqueQuestions.add(normalized);
-                // 添加到列表
-                questions.add(question + " =");
-            }
-        }
+        generateQuestions(numQuestions, range, questions::add);
         // 返回
         return questions;
     }
 
+    /**
+     * 生成指定数量和范围的数学题目, 每生成一道不重复的题目就立即交给 consumer
+     * @param numQuestions 题目数量
+     * @param range        运算范围
+     * @param consumer     题目的接收方
+     * @author zyh
+     * @date 2026/10/18
+     */
+    public static void generateQuestions(int numQuestions, int range, Consumer<String> consumer) {
+        GenerationSpec spec = GenerationSpec.of(numQuestions, range);
+        generateQuestions(spec, 1, createIndex(spec, DEFAULT_DEDUP_MODE), consumer);
+    }
+
+    /**
+     * 生成指定数量和范围的数学题目
+     * @param numQuestions 题目数量
+     * @param range        运算范围
+     * @param index        去重索引 (仅随机生成时使用)
+     * @param consumer     题目的接收方
+     * @author zyh
+     * @date 2026/10/18
+     */
+    public static void generateQuestions(int numQuestions, int range, DedupIndex index, Consumer<String> consumer) {
+        generateQuestions(GenerationSpec.of(numQuestions, range), 1, index, consumer);
+    }
+
+    /**
+     * 多线程生成指定数量和范围的数学题目
+     * @param numQuestions 题目数量
+     * @param range        运算范围
+     * @param threads      线程数
+     * @return {@code List<String> } 题目列表
+     * @author zyh
+     * @date 2026/10/18
+     */
+    public static List<String> generateQuestions(int numQuestions, int range, int threads) {
+        return generateQuestions(GenerationSpec.of(numQuestions, range), threads);
+    }
+
+    /**
+     * 按生成任务 (种子、分片) 生成题目
+     * @param spec    生成任务
+     * @param threads 线程数
+     * @return {@code List<String> } 本分片的题目列表
+     * @author zyh
+     * @date 2026/10/18
+     */
+    public static List<String> generateQuestions(GenerationSpec spec, int threads) {
+        List<String> questions = new ArrayList<>(spec.size());
+        generateQuestions(spec, threads, createIndex(spec, DEFAULT_DEDUP_MODE), questions::add);
+        return questions;
+    }
+
+    /**
+     * 为生成任务创建去重索引
+     * 题目空间可以按编号遍历时构造式抽样本身不会产生重复, 返回不占内存的 {@link DedupIndex#none()};
+     * 否则随机生成时之前分片的题目也要加入索引, 因此按全局题目数 (而不是本分片的题目数) 预留容量
+     * @param spec      生成任务
+     * @param dedupMode 去重索引类型 (见 {@link DedupIndex#create(String, int)})
+     * @return {@code DedupIndex} 去重索引
+     * @author zyh
+     * @date 2026/10/18
+     */
+    public static DedupIndex createIndex(GenerationSpec spec, String dedupMode) {
+        if (ExpressionSpace.of(spec.range()).isEnumerable()) {
+            // 仍然校验类型名称, 与随机生成时一样拒绝不支持的类型
+            DedupIndex.create(dedupMode, 0);
+            return DedupIndex.none();
+        }
+        return DedupIndex.create(dedupMode, (int) spec.last());
+    }
+
+    /**
+     * 按生成任务 (种子、分片) 多线程生成题目, 结果只由 spec 决定, 与线程数无关
+     * 题目空间可以按编号遍历时使用构造式抽样, 不放回地抽取规范形式的题目, 不会产生重复;
+     * 否则 (范围过大) 按批随机生成, 每批使用由种子和批号派生的独立 SplittableRandom,
+     * 各批在线程池中并行生成, 再在调用线程中按批号顺序用去重索引判断重复
+     * @param spec     生成任务
+     * @param threads  线程数
+     * @param index    去重索引 (仅随机生成时使用)
+     * @param consumer 题目的接收方, 在调用线程中按顺序调用
+     * @author zyh
+     * @date 2026/10/18
+     */
+    public static void generateQuestions(GenerationSpec spec, int threads, DedupIndex index, Consumer<String> consumer) {
+        generateQuestions(spec, 0, threads, index, consumer);
+    }
+
+    /**
+     * 按生成任务多线程生成题目, 跳过本分片的前 skip 道题 (用于从检查点恢复)
+     * 构造式抽样直接从第 skip 道题开始; 随机生成时被跳过的题目仍要生成并加入去重索引, 但不交给 consumer;
+     * 索引中已有的题目 (如 {@link ExerciseBank} 加载的题库) 不会再次生成
+     * @param spec     生成任务
+     * @param skip     跳过的题目数
+     * @param threads  线程数
+     * @param index    去重索引 (仅随机生成时使用)
+     * @param consumer 题目的接收方, 在调用线程中按顺序调用
+     * @author zyh
+     * @date 2026/10/18
+     */
+    public static void generateQuestions(GenerationSpec spec, long skip, int threads, DedupIndex index, Consumer<String> consumer) {
+        if (threads < 1) {
+            throw new IllegalArgumentException("parallelism must be positive");
+        }
+        if (skip < 0 || skip > spec.size()) {
+            throw new IllegalArgumentException("跳过的题目数不合法: " + skip);
+        }
+        long start = Metrics.start();
+        // 第一道交给 consumer 的题目的全局序号
+        long from = spec.first() + skip;
+        ExpressionSpace space = ExpressionSpace.of(spec.range());
+        if (space.isEnumerable() && index.size() > 0) {
+            sampleExcluding(space, spec, from, threads, index, consumer);
+            Metrics.GENERATION_TIME.stop(start);
+            return;
+        }
+        if (space.isEnumerable()) {
+            // 题目数量超过不重复题目的总数时直接报错, 而不是无限循环
+            space.sample((int) (spec.last() - from), spec.seed(), from, threads, question -> consumer.accept(question + " ="));
+            Metrics.QUESTIONS_GENERATED.add(spec.last() - from);
+            Metrics.GENERATION_TIME.stop(start);
+            return;
+        }
+        ForkJoinPool pool = threads == 1 ? null : new ForkJoinPool(threads);
+        // 全局序号: 之前的分片的题目也要加入去重索引, 保证各分片之间不重复
+        long accepted = 0;
+        // 候选题目数和重复数在本地累计, 结束时一次计入指标
+        long checked = 0;
+        try {
+            for (long batch = 0; accepted < spec.last(); batch += threads) {
+                long firstBatch = batch;
+                List<List<Candidate>> round = pool == null
+                        ? List.of(generateBatch(spec, firstBatch))
+                        : pool.submit(() -> IntStream.range(0, threads).parallel()
+                                .mapToObj(i -> generateBatch(spec, firstBatch + i))
+                                .toList()).join();
+                for (List<Candidate> candidates : round) {
+                    for (int i = 0; i < candidates.size() && accepted < spec.last(); i++) {
+                        Candidate candidate = candidates.get(i);
+                        checked++;
+                        // 确保唯一性 加入去重索引成功说明此前不存在
+                        if (index.add(candidate.key()) && accepted++ >= from) {
+                            // 交给接收方
+                            consumer.accept(candidate.question() + " =");
+                        }
+                    }
+                }
+            }
+        } finally {
+            if (pool != null) {
+                pool.shutdown();
+            }
+            Metrics.QUESTIONS_GENERATED.add(Math.max(0, accepted - from));
+            Metrics.CANDIDATES_CHECKED.add(checked);
+            Metrics.DUPLICATES_REJECTED.add(checked - accepted);
+            Metrics.GENERATION_TIME.stop(start);
+        }
+    }
+
+    // 索引非空时的构造式抽样: 沿排列顺序一次遍历, 跳过索引中已有的题目, 凑够本分片的题目即停止
+    private static void sampleExcluding(ExpressionSpace space, GenerationSpec spec, long from, int threads,
+                                        DedupIndex index, Consumer<String> consumer) {
+        // accepted[0]: 已接受的题目数 (全局序号), checked[0]: 经过去重判断的题目数
+        long[] accepted = {0};
+        long[] checked = {0};
+        if (spec.last() > 0) {
+            space.sampleWhile(spec.seed(), 0, threads, question -> {
+                checked[0]++;
+                if (index.add(CompiledExpression.compile(question).canonicalKey()) && accepted[0]++ >= from) {
+                    consumer.accept(question + " =");
+                }
+                return accepted[0] < spec.last();
+            });
+        }
+        if (accepted[0] < spec.last()) {
+            throw new IllegalArgumentException("题目数量超过范围 " + spec.range() + " 内 (除题库以外) 不重复题目的总数");
+        }
+        Metrics.QUESTIONS_GENERATED.add(spec.last() - from);
+        Metrics.CANDIDATES_CHECKED.add(checked[0]);
+        Metrics.DUPLICATES_REJECTED.add(checked[0] - accepted[0]);
+    }
+
+    /**
+     * 随机生成的候选题目及其规范化键
+     */
+    private record Candidate(String question, byte[] key) {
+    }
+
+    // 随机生成一批候选题目 (不含 " ="), 随机数流只由种子和批号决定
+    private static List<Candidate> generateBatch(GenerationSpec spec, long batch) {
+        SplittableRandom rand = new SplittableRandom(HashUtil.mix64(spec.seed() + batch * 0x9e3779b97f4a7c15L));
+        List<Candidate> candidates = new ArrayList<>(RANDOM_BATCH_SIZE);
+        for (int i = 0; i < RANDOM_BATCH_SIZE; i++) {
+            // 生成随机表达式
+            String question = generateRandomExpression(spec.range(), rand);
+            // 规范化表达式 (在表达式树上交换 + 和 * 的子表达式)，避免重复
+            candidates.add(new Candidate(question, CompiledExpression.compile(question).canonicalKey()));
+        }
+        return candidates;
+    }
+
     /**
      * 生成一个随机数学表达式，最多3个运算符
+     * 构造过程中操作数以未约分的分子分母 (见 {@link #operand(long, long)}) 保存, 比较大小时交叉相乘精确比较,
+     * 只在最后拼接一次字符串
      * @param range 运算范围
      * @param rand  随机数生成器
      * @return {@code String } 数学表达式
      * @author zyh
      * @date 2025/03/16
      */
-    public static String generateRandomExpression(int range, Random rand) {
+    public static String generateRandomExpression(int range, RandomGenerator rand) {
         int numOperators = rand.nextInt(2) + 1; // 生成 1-3 个运算符
-        List<String> elements = new ArrayList<>(); // 存储表达式的元素
+        // 操作数与运算符交替排列: operands[first..last] 为操作数, operators[k] 为 operands[k] 与 operands[k + 1] 之间的运算符;
+        // 两端都可能插入, 因此从数组中间开始存放
+        long[] operands = new long[2 * MAX_OPERATORS + 1];
+        int[] operators = new int[2 * MAX_OPERATORS];
+        int first = MAX_OPERATORS;
+        int last = MAX_OPERATORS;
 
         // 生成第一个操作数
-        elements.add(generateOperand(range, rand));
+        operands[first] = randomOperand(range, rand);
 
         for (int i = 0; i < numOperators; i++) {
             // 随机选择运算符
-            String operator = OPERATORS[rand.nextInt(OPERATORS.length)];
+            int operator = rand.nextInt(OPERATORS.length);
             // 生成下一个操作数
-            String operand = generateOperand(range, rand);
-
-            if (elements.size() == 1) { // 只有一个操作数
-                if (operator.equals("-")) {
-                    if (isSmaller(elements.getFirst(), operand)) {
-                        elements.addFirst(operator);
-                        elements.addFirst(operand);
-                    } else {
-                        elements.add(operator); // 添加运算符
-                        elements.add(operand); // 添加操作数
-                    }
-                } else if (operator.equals("÷")) {// 确保除法不会生成不合理的分数
-                    if (isSmaller(elements.getFirst(), operand)) {
-                        elements.add(operator); // 添加运算符
-                        elements.add(operand); // 添加操作数
-                    } else {
-                        elements.addFirst(operator);
-                        elements.addFirst(operand);
-                    }
-                } else {
-                    elements.add(operator); // 添加运算符
-                    elements.add(operand); // 添加操作数
+            long operand = randomOperand(range, rand);
+            // 新的运算符和操作数是加在末尾还是开头
+            boolean append = true;
+
+            if (first == last) { // 只有一个操作数
+                if (operator == SUBTRACT) {
+                    // 被减数较小时交换到前面, 避免负数
+                    append = !isSmaller(operands[first], operand);
+                } else if (operator == DIVIDE) {// 确保除法不会生成不合理的分数
+                    append = isSmaller(operands[first], operand);
                 }
-            } else if (elements.size() == 3) {
-                if (operator.equals("-")) {
-                    //计算中间值
-                    String result = computeIntermediateResult(elements.get(0), elements.get(1), elements.get(2));
-                    if (isSmaller(result, operand)) {
-                        operand = "0";
-                        elements.add(operator); // 添加运算符
-                        elements.add(operand); // 添加操作数
-                    } else {
-                        elements.add(operator); // 添加运算符
-                        elements.add(operand); // 添加操作数
+            } else {
+                long left = operands[first];
+                long right = operands[first + 1];
+                if (operator == SUBTRACT) {
+                    // 中间值小于减数时减 0
+                    if (isResultSmaller(left, operators[first], right, operand)) {
+                        operand = ZERO_OPERAND;
                     }
-                } else if (operator.equals("*") && Objects.equals(elements.get(1), "-")) {
-                    //计算中间值
-                    String result = computeIntermediateResult(elements.get(2), operator, operand);
-                    if (isSmaller(result, elements.get(0))) {
-                        elements.add(operator); // 添加运算符
-                        elements.add(operand); // 添加操作数
-                    } else {
-                        elements.addFirst(operator); // 添加运算符
-                        elements.addFirst(operand); // 添加操作数
+                } else if (operator == MULTIPLY && operators[first] == SUBTRACT) {
+                    // 减数乘上新操作数后仍小于被减数时放在末尾, 否则放到开头
+                    append = isResultSmaller(right, MULTIPLY, operand, left);
+                } else if (operator == DIVIDE && operators[first] == SUBTRACT) {
+                    // 减数除以新操作数后仍小于被减数时放在末尾, 否则改为加法放到开头
+                    append = isResultSmaller(right, DIVIDE, operand, left);
+                    if (!append) {
+                        operator = ADD;
                     }
-                } else if (operator.equals("÷") && Objects.equals(elements.get(1), "-")) {
-                    //计算中间值
-                    String result = computeIntermediateResult(elements.get(2), operator, operand);
-                    if (isSmaller(result, elements.get(0))) {
-                        elements.add(operator); // 添加运算符
-                        elements.add(operand); // 添加操作数
-                    } else {
-                        elements.addFirst("+"); // 添加运算符
-                        elements.addFirst(operand); // 添加操作数
-                    }
-                } else {
-                    elements.add(operator); // 添加运算符
-                    elements.add(operand); // 添加操作数
                 }
-            } else throw new RuntimeException();
+            }
+
+            if (append) {
+                operators[last] = operator; // 添加运算符
+                operands[++last] = operand; // 添加操作数
+            } else {
+                operands[--first] = operand; // 添加操作数
+                operators[first] = operator; // 添加运算符
+            }
         }
 
-        return String.join(" ", elements); // 以空格拼接表达式
+        // 以空格拼接表达式
+        StringBuilder expression = new StringBuilder(32);
+        appendOperand(expression, operands[first]);
+        for (int k = first; k < last; k++) {
+            expression.append(' ').append(OPERATORS[operators[k]]).append(' ');
+            appendOperand(expression, operands[k + 1]);
+        }
+        return expression.toString();
     }
 
     /**
-     * 计算两个操作数的中间结果，支持整数和分数运算
-     * @param num1 操作数1（可以是整数或分数，如 "3" 或 "1/2"）
-     * @param op   运算符（"+"、"-"、"*"、"÷"）
-     * @param num2 操作数2（可以是整数或分数，如 "4" 或 "2/3"）
-     * @return 计算后的结果（以最简分数或整数形式返回，例如 "5/6" 或 "2"）
+     * 把未约分的分子分母打包为一个操作数 (布局与 {@link FractionMath#pack(int, int)} 相同, 但不约分, 以保留生成时的写法)
+     * @param numerator   分子
+     * @param denominator 分母 (正数)
+     * @return long 操作数
      * @author zyh
-     * @date 2025/03/16
+     * @date 2026/10/18
      */
-    private static String computeIntermediateResult(String num1, String op, String num2) {
-        // 解析操作数，将其转换为 [分子, 分母] 数组
-        int[] fraction1 = parseFraction(num1);
-        int[] fraction2 = parseFraction(num2);
-
-        // 提取分子和分母
-        int numerator1 = fraction1[0], denominator1 = fraction1[1];
-        int numerator2 = fraction2[0], denominator2 = fraction2[1];
-
-        // 计算结果的分子和分母
-        int resultNumerator, resultDenominator;
-
-        // 根据运算符执行相应的运算
-        switch (op) {
-            case "+": // 加法，使用交叉相乘法
-                resultNumerator = numerator1 * denominator2 + numerator2 * denominator1;
-                resultDenominator = denominator1 * denominator2;
-                break;
-            case "-": // 减法，使用交叉相乘法
-                resultNumerator = numerator1 * denominator2 - numerator2 * denominator1;
-                resultDenominator = denominator1 * denominator2;
-                break;
-            case "*": // 乘法，直接分子乘分子，分母乘分母
-                resultNumerator = numerator1 * numerator2;
-                resultDenominator = denominator1 * denominator2;
-                break;
-            case "÷": // 除法，相当于乘以倒数
-                if (numerator2 == 0) {
-                    throw new ArithmeticException("除数不能为零");
-                }
-                resultNumerator = numerator1 * denominator2;
-                resultDenominator = denominator1 * numerator2;
-                break;
-            default:
-                throw new IllegalArgumentException("不支持的运算符: " + op);
-        }
-
-        // 返回化简后的结果
-        return simplifyFraction(resultNumerator, resultDenominator);
+    private static long operand(long numerator, long denominator) {
+        return FractionMath.pack((int) numerator, (int) denominator);
     }
 
-    /**
-     * 解析整数或分数为 [分子, 分母] 数组
-     * @param fractionStr 操作数，可能是整数（如 "3"）或分数（如 "2/5"）
-     * @return 一个包含分子和分母的数组 [numerator, denominator]
-     * @author zyh
-     * @date 2025/03/16
-     */
-    private static int[] parseFraction(String fractionStr) {
-        if (fractionStr.contains("/")) { // 处理分数
-            String[] parts = fractionStr.split("/");
-            return new int[]{Integer.parseInt(parts[0]), Integer.parseInt(parts[1])};
+    // 随机生成操作数 (整数或真分数), 随机数的取法与 generateOperand 相同
+    private static long randomOperand(int range, RandomGenerator rand) {
+        if (rand.nextBoolean()) {
+            // 生成真分数
+            int denominator = rand.nextInt(9) + 2; // 生成 2-10 之间的分母
+            int numerator = rand.nextInt(denominator - 1) + 1; // 确保是真分数 (分子 < 分母)
+            return operand(numerator, denominator);
+        } else {
+            return operand(rand.nextInt(range) + 1, 1); // 生成 1-range 之间的整数
         }
-        // 处理整数，将其视为分母为 1 的分数
-        return new int[]{Integer.parseInt(fractionStr), 1};
     }
 
-    /**
-     * 约分分数
-     * @param numerator   计算得到的分子
-     * @param denominator 计算得到的分母
-     * @return 约分后的分数字符串（如 "1/2" 或 "3"）
-     * @author zyh
-     * @date 2025/03/16
-     */
-    private static String simplifyFraction(int numerator, int denominator) {
-        if (denominator == 1) { // 如果分母是 1，则直接返回整数
-            return String.valueOf(numerator);
+    // 写出操作数: 整数 (分母为 1) 或 "分子/分母"
+    private static void appendOperand(StringBuilder out, long operand) {
+        out.append(FractionMath.numerator(operand));
+        if (FractionMath.denominator(operand) != 1) {
+            out.append('/').append(FractionMath.denominator(operand));
         }
-        // 计算最大公约数（GCD）
-        int gcd = gcd(Math.abs(numerator), Math.abs(denominator));
-        // 进行约分
-        numerator /= gcd;
-        denominator /= gcd;
-        return numerator + "/" + denominator;
+    }
+
+    // 操作数 a 是否小于 b
+    private static boolean isSmaller(long a, long b) {
+        return FractionMath.compare(FractionMath.numerator(a), FractionMath.denominator(a),
+                FractionMath.numerator(b), FractionMath.denominator(b)) < 0;
     }
 
     /**
-     * 计算最大公约数（GCD）使用欧几里得算法（辗转相除法）
-     * @param a 数字1
-     * @param b 数字2
-     * @return a 和 b 的最大公约数
+     * 计算两个操作数的中间结果并与另一个操作数比较, 中间结果以 long 分子分母表示, 不约分也不溢出
+     * (操作数的分子不超过 int 范围、分母不超过 10, 一次运算的分子分母都在 long 范围内)
+     * @param left     左操作数
+     * @param operator 运算符在 OPERATORS 中的下标
+     * @param right    右操作数
+     * @param other    比较的操作数
+     * @return boolean 中间结果是否小于 other
      * @author zyh
-     * @date 2025/03/16
+     * @date 2026/10/18
      */
-    private static int gcd(int a, int b) {
-        return b == 0 ? a : gcd(b, a % b);
+    private static boolean isResultSmaller(long left, int operator, long right, long other) {
+        long leftNumerator = FractionMath.numerator(left);
+        long leftDenominator = FractionMath.denominator(left);
+        long rightNumerator = FractionMath.numerator(right);
+        long rightDenominator = FractionMath.denominator(right);
+        long numerator;
+        long denominator;
+        switch (operator) {
+            case ADD -> {
+                numerator = leftNumerator * rightDenominator + rightNumerator * leftDenominator;
+                denominator = leftDenominator * rightDenominator;
+            }
+            case SUBTRACT -> {
+                numerator = leftNumerator * rightDenominator - rightNumerator * leftDenominator;
+                denominator = leftDenominator * rightDenominator;
+            }
+            case MULTIPLY -> {
+                numerator = leftNumerator * rightNumerator;
+                denominator = leftDenominator * rightDenominator;
+            }
+            default -> {
+                if (rightNumerator == 0) {
+                    throw new ArithmeticException("Denominator cannot be zero.");
+                }
+                numerator = leftNumerator * rightDenominator;
+                denominator = leftDenominator * rightNumerator;
+            }
+        }
+        if (denominator < 0) {
+            numerator = -numerator;
+            denominator = -denominator;
+        }
+        return FractionMath.compare(numerator, denominator,
+                FractionMath.numerator(other), FractionMath.denominator(other)) < 0;
     }
 
     /**
@@ -238,19 +436,15 @@ public class QuestionGenerator {
      * @author zyh
      * @date 2025/03/16
      */
-    public static String generateOperand(int range, Random rand) {
-        if (rand.nextBoolean()) {
-            // 生成真分数
-            int denominator = rand.nextInt(9) + 2; // 生成 2-10 之间的分母
-            int numerator = rand.nextInt(denominator - 1) + 1; // 确保是真分数 (分子 < 分母)
-            return numerator + "/" + denominator;
-        } else {
-            return String.valueOf(rand.nextInt(range) + 1); // 生成 1-range 之间的整数
-        }
+    public static String generateOperand(int range, RandomGenerator rand) {
+        StringBuilder operand = new StringBuilder(8);
+        appendOperand(operand, randomOperand(range, rand));
+        return operand.toString();
     }
 
     /**
      * 比较两个操作数（整数或分数）的大小 判断 e1 是否小于 e2（适用于整数和分数）
+     * 直接在字符串上解析分子分母, 交叉相乘精确比较, 不拆分字符串也不经过浮点除法
      * @param num1 操作数1
      * @param num2 操作数2
      * @return boolean
@@ -261,11 +455,36 @@ public class QuestionGenerator {
         if (num1 == null || num1.trim().isEmpty() || num2 == null || num2.trim().isEmpty()) {
             throw new IllegalArgumentException("输入的数字不能为空");
         }
-        // 解析操作数，将其转换为 [分子, 分母] 数组
-        int[] fraction1 = parseFraction(num1);
-        int[] fraction2 = parseFraction(num2);
+        int slash1 = num1.indexOf('/');
+        int slash2 = num2.indexOf('/');
+        long numerator1 = parseNumerator(num1, slash1);
+        long denominator1 = parseDenominator(num1, slash1);
+        long numerator2 = parseNumerator(num2, slash2);
+        long denominator2 = parseDenominator(num2, slash2);
+        if (denominator1 == 0 || denominator2 == 0) {
+            throw new ArithmeticException("Denominator cannot be zero.");
+        }
+        // 把负号移到分子上
+        if (denominator1 < 0) {
+            numerator1 = -numerator1;
+            denominator1 = -denominator1;
+        }
+        if (denominator2 < 0) {
+            numerator2 = -numerator2;
+            denominator2 = -denominator2;
+        }
         // 比较大小
-        return  (double) fraction1[0] / fraction1[1] < (double) fraction2[0] / fraction2[1];
+        return FractionMath.compare(numerator1, denominator1, numerator2, denominator2) < 0;
+    }
+
+    // 解析整数或分数的分子, slash 为 '/' 的位置 (没有时为 -1)
+    private static long parseNumerator(String text, int slash) {
+        return Long.parseLong(text, 0, slash < 0 ? text.length() : slash, 10);
+    }
+
+    // 解析整数或分数的分母, 整数的分母为 1
+    private static long parseDenominator(String text, int slash) {
+        return slash < 0 ? 1 : Long.parseLong(text, slash + 1, text.length(), 10);
     }
 
     /**
@@ -0,0 +1,73 @@
+package com.sz.arithmeticgenerator.service;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * 把 UTF-8 字节区间当作字符序列的可复用视图, 供 {@link ExpressionLexer} 直接扫描映射文件中的一行
+ * 下标是字节偏移: 多字节字符 (如 "÷"、"×") 在首字节处解码为完整字符, 其后的续字节当作空白, 由词法分析器跳过;
+ * 题目中的数字、运算符和序号都是单字节或二字节字符, 因此无需先解码整行
+ * @author zyh
+ * @version 1.0.0
+ * @date 2026/10/18
+ */
+final class Utf8LineView implements CharSequence {
+
+    private ByteBuffer buffer;
+    private int offset;
+    private int length;
+
+    /**
+     * 指向 buffer 中 [start, end) 的字节
+     * @param buffer 字节
+     * @param start  起始位置
+     * @param end    结束位置
+     * @return {@code Utf8LineView} 当前视图
+     * @author zyh
+     * @date 2026/10/18
+     */
+    Utf8LineView reset(ByteBuffer buffer, int start, int end) {
+        this.buffer = buffer;
+        this.offset = start;
+        this.length = end - start;
+        return this;
+    }
+
+    @Override
+    public int length() {
+        return length;
+    }
+
+    @Override
+    public char charAt(int index) {
+        byte b = buffer.get(offset + index);
+        if (b >= 0) {
+            return (char) b;
+        }
+        if ((b & 0xC0) == 0x80) {
+            // 续字节
+            return ' ';
+        }
+        if ((b & 0xE0) == 0xC0 && index + 1 < length) {
+            return (char) ((b & 0x1F) << 6 | buffer.get(offset + index + 1) & 0x3F);
+        }
+        if ((b & 0xF0) == 0xE0 && index + 2 < length) {
+            return (char) ((b & 0x0F) << 12 | (buffer.get(offset + index + 1) & 0x3F) << 6
+                    | buffer.get(offset + index + 2) & 0x3F);
+        }
+        return '�';
+    }
+
+    @Override
+    public CharSequence subSequence(int start, int end) {
+        return new Utf8LineView().reset(buffer, offset + start, offset + end);
+    }
+
+    // 解码为字符串, 只在回退到字符串路径 (溢出、出错) 时使用
+    @Override
+    public String toString() {
+        byte[] bytes = new byte[length];
+        buffer.get(offset, bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,71 @@
+package com.sz.arithmeticgenerator.util;
+
+/**
+ * 布隆过滤器
+ * 判断 "一定不存在" 时没有误差, 判断 "可能存在" 时有一定误判率
+ * @author zyh
+ * @version 1.0.0
+ * @date 2026/10/18
+ */
+public class BloomFilter {
+
+    private final long[] bits;
+    private final long bitCount;
+    private final int hashCount;
+
+    /**
+     * @param expectedSize      预计元素数量
+     * @param falsePositiveRate 期望的误判率
+     */
+    public BloomFilter(int expectedSize, double falsePositiveRate) {
+        long n = Math.max(1, expectedSize);
+        // 最优位数 m = -n ln p / (ln 2)^2, 最优哈希函数个数 k = m / n ln 2
+        long m = Math.max(64, (long) Math.ceil(-n * Math.log(falsePositiveRate) / (Math.log(2) * Math.log(2))));
+        this.bits = new long[(int) ((m + 63) >>> 6)];
+        this.bitCount = (long) bits.length << 6;
+        this.hashCount = Math.max(1, (int) Math.round((double) bitCount / n * Math.log(2)));
+    }
+
+    /**
+     * 加入一个 64 位哈希值
+     * @param hash 哈希值
+     * @return boolean 加入前是否 "可能存在"
+     * @author zyh
+     * @date 2026/10/18
+     */
+    public boolean put(long hash) {
+        boolean present = true;
+        // 双重哈希派生 k 个位置
+        long h1 = hash;
+        long h2 = HashUtil.mix64(hash) | 1;
+        for (int i = 0; i < hashCount; i++) {
+            long bit = Long.remainderUnsigned(h1 + i * h2, bitCount);
+            int word = (int) (bit >>> 6);
+            long mask = 1L << bit;
+            if ((bits[word] & mask) == 0) {
+                present = false;
+                bits[word] |= mask;
+            }
+        }
+        return present;
+    }
+
+    /**
+     * 是否可能包含某个 64 位哈希值
+     * @param hash 哈希值
+     * @return boolean false 表示一定不存在
+     * @author zyh
+     * @date 2026/10/18
+     */
+    public boolean mightContain(long hash) {
+        long h1 = hash;
+        long h2 = HashUtil.mix64(hash) | 1;
+        for (int i = 0; i < hashCount; i++) {
+            long bit = Long.remainderUnsigned(h1 + i * h2, bitCount);
+            if ((bits[(int) (bit >>> 6)] & (1L << bit)) == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
@@ -0,0 +1,75 @@
+package com.sz.arithmeticgenerator.util;
+
+/**
+ * 区间 [0, size) 上的伪随机排列 (Feistel 网络 + 循环游走)
+ * 按 0, 1, 2, ... 依次取 permute(i) 即可不放回地随机遍历整个区间, 不需要记录已经取过的值
+ * @author zyh
+ * @version 1.0.0
+ * @date 2026/10/18
+ */
+public class FeistelPermutation {
+
+    /**
+     * Feistel 轮数
+     */
+    private static final int ROUNDS = 4;
+
+    /**
+     * 支持的最大区间长度
+     */
+    public static final long MAX_SIZE = 1L << 62;
+
+    private final long size;
+    private final int halfBits;
+    private final long halfMask;
+    private final long[] keys = new long[ROUNDS];
+
+    /**
+     * @param size 区间长度
+     * @param seed 种子, 相同的种子得到相同的排列
+     */
+    public FeistelPermutation(long size, long seed) {
+        if (size <= 0 || size > MAX_SIZE) {
+            throw new IllegalArgumentException("size must be in (0, 2^62]: " + size);
+        }
+        this.size = size;
+        // 把区间扩展到 2^(2 * halfBits), 左右两半各 halfBits 位
+        int bits = 64 - Long.numberOfLeadingZeros(Math.max(size - 1, 1));
+        this.halfBits = (bits + 1) / 2;
+        this.halfMask = (1L << halfBits) - 1;
+        for (int i = 0; i < ROUNDS; i++) {
+            keys[i] = HashUtil.mix64(seed + (i + 1) * 0x9e3779b97f4a7c15L);
+        }
+    }
+
+    /**
+     * 第 index 个位置上的值
+     * @param index 位置, 取值 [0, size)
+     * @return long 排列后的值, 取值 [0, size)
+     * @author zyh
+     * @date 2026/10/18
+     */
+    public long permute(long index) {
+        long x = index;
+        // 扩展后的区间不超过 size 的 4 倍, 平均游走不超过 4 次
+        do {
+            x = encrypt(x);
+        } while (x >= size);
+        return x;
+    }
+
+    public long size() {
+        return size;
+    }
+
+    private long encrypt(long x) {
+        long left = x >>> halfBits;
+        long right = x & halfMask;
+        for (long key : keys) {
+            long next = left ^ (HashUtil.mix64(right ^ key) & halfMask);
+            left = right;
+            right = next;
+        }
+        return left << halfBits | right;
+    }
+}
@@ -3,7 +3,8 @@ package com.sz.arithmeticgenerator.util;
 import java.io.BufferedWriter;
 import java.io.FileWriter;
 import java.io.IOException;
-import java.util.List;
+import java.nio.charset.StandardCharsets;
+import java.util.stream.Stream;
 
 /**
  * 文件读写工具类
@@ -14,25 +15,31 @@ import java.util.List;
 public class FileUtil {
 
     /**
-     * 将内容写入文件
+     * 将内容逐行写入文件, 每行自动加上序号; 文件名以 ".gz" 结尾时压缩
      * @param filename 文件名
-     * @param content  内容
+     * @param content  内容, 可以是任意可迭代的集合, 无需事先全部放进 List
      * @author zyh
      * @date 2025/03/16
      */
-    public static void writeToFile(String filename, List<String> content) {
-        try (BufferedWriter writer = new BufferedWriter(new FileWriter(filename))) {
-            // 使用索引遍历内容列表
-            for (int i = 0; i < content.size(); i++) {
-                // 构造带序号的行
-                String lineWithNumber = (i + 1) + ". " + content.get(i);
-                // 将带序号的行写入文件
-                writer.write(lineWithNumber);
-                // 添加换行符
-                writer.newLine();
+    public static void writeToFile(String filename, Iterable<? extends CharSequence> content) {
+        try (NumberedLineWriter writer = new NumberedLineWriter(filename)) {
+            // 逐行写入, 序号由写入器自动添加
+            for (CharSequence line : content) {
+                writer.write(line);
             }
-        } catch (IOException e) {
-            throw new RuntimeException("文件写错误: " + filename + ": " + e.getMessage());
+        }
+    }
+
+    /**
+     * 将流中的内容逐行写入文件, 每行自动加上序号, 边产生边写出
+     * @param filename 文件名
+     * @param content  内容
+     * @author zyh
+     * @date 2026/10/18
+     */
+    public static void writeToFile(String filename, Stream<? extends CharSequence> content) {
+        try (NumberedLineWriter writer = new NumberedLineWriter(filename)) {
+            content.sequential().forEachOrdered(writer::write);
         }
     }
 
@@ -44,11 +51,16 @@ public class FileUtil {
      * @date 2025/03/16
      */
     public static void writeToFile(String filename, String content) {
+        long start = Metrics.start();
         try (BufferedWriter writer = new BufferedWriter(new FileWriter(filename))) {
             // 将整个内容写入文件
             writer.write(content);
         } catch (IOException e) {
             throw new RuntimeException("文件写错误: " + filename + ": " + e.getMessage());
         }
+        if (Metrics.isEnabled()) {
+            Metrics.BYTES_WRITTEN.add(content.getBytes(StandardCharsets.UTF_8).length);
+        }
+        Metrics.WRITE_TIME.stop(start);
     }
 }
\ No newline at end of file
@@ -0,0 +1,81 @@
+package com.sz.arithmeticgenerator.util;
+
+/**
+ * 哈希工具类
+ * @author zyh
+ * @version 1.0.0
+ * @date 2026/10/18
+ */
+public class HashUtil {
+
+    private static final long M = 0xc6a4a7935bd1e995L;
+    private static final int R = 47;
+
+    /**
+     * 计算字节数组的 64 位哈希 (MurmurHash64A)
+     * @param data   数据
+     * @param offset 起始位置
+     * @param length 长度
+     * @param seed   种子
+     * @return long 64 位哈希值
+     * @author zyh
+     * @date 2026/10/18
+     */
+    public static long hash64(byte[] data, int offset, int length, long seed) {
+        long h = seed ^ (length * M);
+        int end = offset + (length & ~7);
+        for (int i = offset; i < end; i += 8) {
+            long k = (data[i] & 0xFFL)
+                    | (data[i + 1] & 0xFFL) << 8
+                    | (data[i + 2] & 0xFFL) << 16
+                    | (data[i + 3] & 0xFFL) << 24
+                    | (data[i + 4] & 0xFFL) << 32
+                    | (data[i + 5] & 0xFFL) << 40
+                    | (data[i + 6] & 0xFFL) << 48
+                    | (data[i + 7] & 0xFFL) << 56;
+            k *= M;
+            k ^= k >>> R;
+            k *= M;
+            h ^= k;
+            h *= M;
+        }
+        // 处理剩余不足 8 字节的部分
+        int remaining = length & 7;
+        if (remaining > 0) {
+            long k = 0;
+            for (int i = remaining - 1; i >= 0; i--) {
+                k = k << 8 | (data[end + i] & 0xFFL);
+            }
+            h ^= k;
+            h *= M;
+        }
+        h ^= h >>> R;
+        h *= M;
+        h ^= h >>> R;
+        return h;
+    }
+
+    /**
+     * 计算字节数组的 64 位哈希
+     * @param data 数据
+     * @return long 64 位哈希值
+     * @author zyh
+     * @date 2026/10/18
+     */
+    public static long hash64(byte[] data) {
+        return hash64(data, 0, data.length, 0);
+    }
+
+    /**
+     * 把 64 位值打散 (SplitMix64 的混合函数), 用于由一个哈希派生多个哈希
+     * @param x 输入
+     * @return long 打散后的值
+     * @author zyh
+     * @date 2026/10/18
+     */
+    public static long mix64(long x) {
+        x = (x ^ (x >>> 30)) * 0xbf58476d1ce4e5b9L;
+        x = (x ^ (x >>> 27)) * 0x94d049bb133111ebL;
+        return x ^ (x >>> 31);
+    }
+}
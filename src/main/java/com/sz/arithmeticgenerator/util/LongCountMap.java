@@ -0,0 +1,144 @@
+package com.sz.arithmeticgenerator.util;
+
+import java.util.Arrays;
+
+/**
+ * 基本类型 long 到计数的开放寻址哈希表 (线性探测)
+ * 用于按值分组计数, 没有装箱对象
+ * @author zyh
+ * @version 1.0.0
+ * @date 2026/10/18
+ */
+public class LongCountMap {
+
+    /**
+     * 最大装载因子
+     */
+    private static final double LOAD_FACTOR = 0.6;
+
+    private long[] keys;
+    private long[] counts;
+    /**
+     * 槽位是否已被占用 (键可以为任意值, 包括 0)
+     */
+    private boolean[] used;
+    private int mask;
+    private int size;
+    private int resizeThreshold;
+
+    public LongCountMap(int expectedSize) {
+        long needed = Math.max(16, (long) (expectedSize / LOAD_FACTOR) + 1);
+        allocate((int) Math.min(1 << 30, Long.highestOneBit(needed - 1) << 1));
+    }
+
+    /**
+     * 把 key 的计数加上 delta
+     * @param key   键
+     * @param delta 增量
+     * @author zyh
+     * @date 2026/10/18
+     */
+    public void add(long key, long delta) {
+        int index = slot(key);
+        while (used[index]) {
+            if (keys[index] == key) {
+                counts[index] += delta;
+                return;
+            }
+            index = (index + 1) & mask;
+        }
+        used[index] = true;
+        keys[index] = key;
+        counts[index] = delta;
+        if (++size > resizeThreshold) {
+            resize();
+        }
+    }
+
+    /**
+     * 获取 key 的计数
+     * @param key 键
+     * @return long 计数, 不存在时为 0
+     * @author zyh
+     * @date 2026/10/18
+     */
+    public long get(long key) {
+        int index = slot(key);
+        while (used[index]) {
+            if (keys[index] == key) {
+                return counts[index];
+            }
+            index = (index + 1) & mask;
+        }
+        return 0;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    /**
+     * 导出全部键, 顺序与 {@link #countArray()} 一致
+     * @return long[] 键数组
+     * @author zyh
+     * @date 2026/10/18
+     */
+    public long[] keyArray() {
+        long[] result = new long[size];
+        int n = 0;
+        for (int i = 0; i < keys.length; i++) {
+            if (used[i]) {
+                result[n++] = keys[i];
+            }
+        }
+        return result;
+    }
+
+    /**
+     * 导出全部计数, 顺序与 {@link #keyArray()} 一致
+     * @return long[] 计数数组
+     * @author zyh
+     * @date 2026/10/18
+     */
+    public long[] countArray() {
+        long[] result = new long[size];
+        int n = 0;
+        for (int i = 0; i < counts.length; i++) {
+            if (used[i]) {
+                result[n++] = counts[i];
+            }
+        }
+        return result;
+    }
+
+    private int slot(long key) {
+        return (int) HashUtil.mix64(key) & mask;
+    }
+
+    private void allocate(int capacity) {
+        keys = new long[capacity];
+        counts = new long[capacity];
+        used = new boolean[capacity];
+        mask = capacity - 1;
+        resizeThreshold = (int) (capacity * LOAD_FACTOR);
+    }
+
+    private void resize() {
+        long[] oldKeys = keys;
+        long[] oldCounts = counts;
+        boolean[] oldUsed = used;
+        allocate(oldKeys.length * 2);
+        for (int i = 0; i < oldKeys.length; i++) {
+            if (oldUsed[i]) {
+                int index = slot(oldKeys[i]);
+                while (used[index]) {
+                    index = (index + 1) & mask;
+                }
+                used[index] = true;
+                keys[index] = oldKeys[i];
+                counts[index] = oldCounts[i];
+            }
+        }
+        Arrays.fill(oldUsed, false);
+    }
+}
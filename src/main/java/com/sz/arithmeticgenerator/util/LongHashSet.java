@@ -0,0 +1,132 @@
+package com.sz.arithmeticgenerator.util;
+
+/**
+ * 基本类型 long 的开放寻址哈希集合 (线性探测)
+ * 每个元素只占一个 long 槽位, 没有装箱对象和链表节点
+ * @author zyh
+ * @version 1.0.0
+ * @date 2026/10/18
+ */
+public class LongHashSet {
+
+    /**
+     * 空槽位标记; 值 0 单独记录
+     */
+    private static final long EMPTY = 0L;
+
+    /**
+     * 最大装载因子
+     */
+    private static final double LOAD_FACTOR = 0.6;
+
+    private long[] table;
+    private int mask;
+    private int size;
+    private boolean containsZero;
+    private int resizeThreshold;
+
+    public LongHashSet(int expectedSize) {
+        // 容量取不小于 expectedSize / LOAD_FACTOR 的 2 的幂
+        long needed = Math.max(16, (long) (expectedSize / LOAD_FACTOR) + 1);
+        allocate((int) Math.min(1 << 30, Long.highestOneBit(needed - 1) << 1));
+    }
+
+    /**
+     * 加入元素
+     * @param value 元素
+     * @return boolean 此前不存在时返回 true
+     * @author zyh
+     * @date 2026/10/18
+     */
+    public boolean add(long value) {
+        if (value == EMPTY) {
+            if (containsZero) {
+                return false;
+            }
+            containsZero = true;
+            size++;
+            return true;
+        }
+        int index = slot(value);
+        while (table[index] != EMPTY) {
+            if (table[index] == value) {
+                return false;
+            }
+            index = (index + 1) & mask;
+        }
+        table[index] = value;
+        if (++size > resizeThreshold) {
+            resize();
+        }
+        return true;
+    }
+
+    /**
+     * 是否包含元素
+     * @param value 元素
+     * @return boolean 是否包含
+     * @author zyh
+     * @date 2026/10/18
+     */
+    public boolean contains(long value) {
+        if (value == EMPTY) {
+            return containsZero;
+        }
+        int index = slot(value);
+        while (table[index] != EMPTY) {
+            if (table[index] == value) {
+                return true;
+            }
+            index = (index + 1) & mask;
+        }
+        return false;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    /**
+     * 按任意顺序导出全部元素
+     * @return long[] 元素数组
+     * @author zyh
+     * @date 2026/10/18
+     */
+    public long[] toArray() {
+        long[] values = new long[size];
+        int count = 0;
+        if (containsZero) {
+            values[count++] = 0L;
+        }
+        for (long value : table) {
+            if (value != EMPTY) {
+                values[count++] = value;
+            }
+        }
+        return values;
+    }
+
+    private int slot(long value) {
+        return (int) HashUtil.mix64(value) & mask;
+    }
+
+    private void allocate(int capacity) {
+        table = new long[capacity];
+        mask = capacity - 1;
+        resizeThreshold = (int) (capacity * LOAD_FACTOR);
+    }
+
+    private void resize() {
+        long[] old = table;
+        allocate(old.length * 2);
+        for (long value : old) {
+            if (value != EMPTY) {
+                int index = slot(value);
+                while (table[index] != EMPTY) {
+                    index = (index + 1) & mask;
+                }
+                table[index] = value;
+            }
+        }
+    }
+}
@@ -0,0 +1,104 @@
+package com.sz.arithmeticgenerator.util;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * 容量有界的线程安全 LRU 缓存
+ * 按键的哈希分为若干段, 每段是一个按访问顺序排列的 LinkedHashMap, 满了淘汰本段最久未访问的条目;
+ * 不同线程访问不同段时互不阻塞, 条目总数不超过构造时给定的容量
+ * @author zyh
+ * @version 1.0.0
+ * @date 2026/10/18
+ */
+public class LruCache<K, V> {
+
+    private final Segment<K, V>[] segments;
+    private final int mask;
+
+    /**
+     * @param capacity 最大条目数
+     * @param segments 分段数, 向下取为 2 的幂且不超过容量
+     */
+    @SuppressWarnings("unchecked")
+    public LruCache(int capacity, int segments) {
+        if (capacity < 1 || segments < 1) {
+            throw new IllegalArgumentException("capacity and segments must be positive");
+        }
+        // 每段至少容纳一个条目
+        int count = Integer.highestOneBit(Math.min(segments, capacity));
+        this.segments = new Segment[count];
+        this.mask = count - 1;
+        for (int i = 0; i < count; i++) {
+            // 各段容量之和不超过总容量
+            this.segments[i] = new Segment<>(capacity / count);
+        }
+    }
+
+    /**
+     * 获取缓存的值, 命中时把条目移到本段最近访问的位置
+     * @param key 键
+     * @return V 值, 不存在时为 null
+     * @author zyh
+     * @date 2026/10/18
+     */
+    public V get(K key) {
+        Segment<K, V> segment = segmentFor(key);
+        synchronized (segment) {
+            return segment.get(key);
+        }
+    }
+
+    /**
+     * 加入或替换一个条目, 本段已满时淘汰最久未访问的条目
+     * @param key   键
+     * @param value 值
+     * @author zyh
+     * @date 2026/10/18
+     */
+    public void put(K key, V value) {
+        Segment<K, V> segment = segmentFor(key);
+        synchronized (segment) {
+            segment.put(key, value);
+        }
+    }
+
+    /**
+     * 当前条目数
+     * @return int 条目数
+     * @author zyh
+     * @date 2026/10/18
+     */
+    public int size() {
+        int size = 0;
+        for (Segment<K, V> segment : segments) {
+            synchronized (segment) {
+                size += segment.size();
+            }
+        }
+        return size;
+    }
+
+    private Segment<K, V> segmentFor(K key) {
+        int h = key.hashCode();
+        return segments[(h ^ (h >>> 16)) & mask];
+    }
+
+    /**
+     * 一段: 按访问顺序排列, 超出容量时淘汰最久未访问的条目
+     */
+    private static final class Segment<K, V> extends LinkedHashMap<K, V> {
+
+        private final int capacity;
+
+        Segment(int capacity) {
+            super(16, 0.75f, true);
+            this.capacity = capacity;
+        }
+
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<K, V> eldest) {
+            return size() > capacity;
+        }
+    }
+}
@@ -0,0 +1,161 @@
+package com.sz.arithmeticgenerator.util;
+
+import java.io.Closeable;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.security.MessageDigest;
+
+/**
+ * 基于内存映射的逐行读取器
+ * 按窗口映射文件, 直接在映射的字节上查找行边界, 每行只给出 [lineStart, lineEnd) 区间, 不解码为字符串;
+ * 行尾的 "\n" 或 "\r\n" 不属于该行, 与 BufferedReader.readLine 一致, 文件末尾的换行不产生空行;
+ * 可以同时对读到的字节计算摘要, 摘要与解析的内容来自同一次映射, 读取过程中文件被修改也不会不一致
+ * @author zyh
+ * @version 1.0.0
+ * @date 2026/10/18
+ */
+public class MappedLineReader implements Closeable {
+
+    /**
+     * 每次映射的窗口大小, 单行不能超过该长度
+     */
+    private static final long WINDOW_SIZE = 1L << 28;
+
+    private final FileInputStream input;
+    private final FileChannel channel;
+    private final long fileSize;
+    private final long windowSize;
+    /**
+     * 读到的字节的摘要, 为 null 时不计算
+     */
+    private final MessageDigest digest;
+    /**
+     * 已计入摘要的字节在文件中的结束位置
+     */
+    private long digestedEnd;
+
+    private MappedByteBuffer buffer;
+    /**
+     * 当前窗口在文件中的起始位置
+     */
+    private long bufferStart;
+    /**
+     * 窗口内下一行的起始位置
+     */
+    private int position;
+    private int lineStart;
+    private int lineEnd;
+
+    public MappedLineReader(String filename) throws IOException {
+        this(filename, WINDOW_SIZE);
+    }
+
+    /**
+     * @param filename   文件名
+     * @param windowSize 映射窗口大小
+     */
+    public MappedLineReader(String filename, long windowSize) throws IOException {
+        this(filename, windowSize, null);
+    }
+
+    /**
+     * @param filename   文件名
+     * @param windowSize 映射窗口大小
+     * @param digest     对文件的全部字节 (按顺序, 每个字节一次) 计算摘要, 为 null 时不计算
+     */
+    public MappedLineReader(String filename, long windowSize, MessageDigest digest) throws IOException {
+        // 经由 FileInputStream 打开, 文件不存在时的异常信息与 FileReader 相同
+        this.input = new FileInputStream(filename);
+        this.channel = input.getChannel();
+        this.fileSize = channel.size();
+        this.windowSize = windowSize;
+        this.digest = digest;
+        map(0);
+    }
+
+    public MappedLineReader(String filename, MessageDigest digest) throws IOException {
+        this(filename, WINDOW_SIZE, digest);
+    }
+
+    /**
+     * 前进到下一行
+     * @return boolean 没有更多行时返回 false
+     * @throws IOException 映射失败
+     * @author zyh
+     * @date 2026/10/18
+     */
+    public boolean nextLine() throws IOException {
+        while (true) {
+            int limit = buffer.limit();
+            for (int i = position; i < limit; i++) {
+                if (buffer.get(i) == '\n') {
+                    setLine(position, i);
+                    position = i + 1;
+                    return true;
+                }
+            }
+            long mappedEnd = bufferStart + limit;
+            if (mappedEnd >= fileSize) {
+                // 最后一行没有换行符
+                if (position < limit) {
+                    setLine(position, limit);
+                    position = limit;
+                    return true;
+                }
+                return false;
+            }
+            if (position == 0) {
+                throw new IOException("行长度超过映射窗口: " + windowSize);
+            }
+            // 行跨越了窗口边界, 从该行开头重新映射
+            map(bufferStart + position);
+        }
+    }
+
+    private void setLine(int start, int end) {
+        lineStart = start;
+        lineEnd = end > start && buffer.get(end - 1) == '\r' ? end - 1 : end;
+    }
+
+    private void map(long start) throws IOException {
+        long begin = Metrics.start();
+        bufferStart = start;
+        buffer = channel.map(FileChannel.MapMode.READ_ONLY, start, Math.min(windowSize, fileSize - start));
+        position = 0;
+        // 重新映射的窗口与上一个窗口重叠, 只把新增的字节计入摘要
+        if (digest != null && start + buffer.limit() > digestedEnd) {
+            int from = (int) (digestedEnd - start);
+            digest.update(buffer.slice(from, buffer.limit() - from));
+            digestedEnd = start + buffer.limit();
+        }
+        // 映射只建立页表, 实际读盘发生在访问时, 因此耗时只包含映射本身
+        Metrics.BYTES_READ.add(buffer.limit());
+        Metrics.READ_TIME.stop(begin);
+    }
+
+    /**
+     * 当前窗口, 行的内容为其中 [lineStart, lineEnd) 的字节; 下一次 nextLine 后可能失效
+     * @return {@code MappedByteBuffer} 映射的字节
+     * @author zyh
+     * @date 2026/10/18
+     */
+    public MappedByteBuffer buffer() {
+        return buffer;
+    }
+
+    public int lineStart() {
+        return lineStart;
+    }
+
+    public int lineEnd() {
+        return lineEnd;
+    }
+
+    @Override
+    public void close() throws IOException {
+        channel.close();
+        input.close();
+    }
+}
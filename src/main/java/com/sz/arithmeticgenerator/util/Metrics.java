@@ -0,0 +1,344 @@
+package com.sz.arithmeticgenerator.util;
+
+import java.io.BufferedWriter;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 生成与评分热路径的内置指标
+ * 计数器与延迟直方图都是进程内的静态对象, 默认关闭; 关闭时每次记录只多一次布尔判断, 不调用 System.nanoTime;
+ * 启用方式: 系统属性 -Darithmetic.metrics=true, 命令行 -metrics 选项, 或以服务方式启动 (同时导出到 Micrometer)
+ * @author zyh
+ * @version 1.0.0
+ * @date 2026/10/18
+ */
+public final class Metrics {
+
+    /**
+     * 启用指标的系统属性
+     */
+    public static final String ENABLED_PROPERTY = "arithmetic.metrics";
+
+    private static volatile boolean enabled = Boolean.getBoolean(ENABLED_PROPERTY);
+
+    private static final List<Counter> COUNTERS = new ArrayList<>();
+    private static final List<Histogram> HISTOGRAMS = new ArrayList<>();
+
+    /**
+     * 生成的题目数
+     */
+    public static final Counter QUESTIONS_GENERATED = counter("generation.questions", "生成的题目数", null);
+    /**
+     * 随机生成时经过去重索引判断的候选题目数
+     */
+    public static final Counter CANDIDATES_CHECKED = counter("generation.candidates", "经过去重判断的候选题目数", null);
+    /**
+     * 随机生成时因重复被丢弃的候选题目数
+     */
+    public static final Counter DUPLICATES_REJECTED = counter("generation.duplicates", "因重复被丢弃的候选题目数", null);
+    /**
+     * 每次调用 generateQuestions 的耗时
+     */
+    public static final Histogram GENERATION_TIME = histogram("generation.time", "生成一批题目的耗时");
+    /**
+     * 单道题目的解析 (编译) 耗时
+     */
+    public static final Histogram PARSE_TIME = histogram("evaluation.parse", "单道题目的解析耗时");
+    /**
+     * 单道题目的求值耗时
+     */
+    public static final Histogram EVALUATE_TIME = histogram("evaluation.evaluate", "单道题目的求值耗时");
+    /**
+     * 解析或求值失败的题目数
+     */
+    public static final Counter EVALUATION_ERRORS = counter("evaluation.errors", "解析或求值失败的题目数", null);
+    /**
+     * 评分时比较过的答案数
+     */
+    public static final Counter ANSWERS_GRADED = counter("grading.answers", "评分时比较过的答案数", null);
+    /**
+     * 读取 (映射) 的文件字节数
+     */
+    public static final Counter BYTES_READ = counter("io.read.bytes", "读取 (映射) 的文件字节数", "bytes");
+    /**
+     * 读取 (映射) 文件的耗时
+     */
+    public static final Histogram READ_TIME = histogram("io.read.time", "读取 (映射) 文件的耗时");
+    /**
+     * 写出的文件字节数
+     */
+    public static final Counter BYTES_WRITTEN = counter("io.write.bytes", "写出的文件字节数", "bytes");
+    /**
+     * 写出文件的耗时
+     */
+    public static final Histogram WRITE_TIME = histogram("io.write.time", "写出文件的耗时");
+
+    private Metrics() {
+    }
+
+    public static boolean isEnabled() {
+        return enabled;
+    }
+
+    public static void enable() {
+        enabled = true;
+    }
+
+    public static void disable() {
+        enabled = false;
+    }
+
+    /**
+     * 清零全部指标
+     * @author zyh
+     * @date 2026/10/18
+     */
+    public static void reset() {
+        COUNTERS.forEach(Counter::reset);
+        HISTOGRAMS.forEach(Histogram::reset);
+    }
+
+    /**
+     * 开始计时
+     * @return long 起始时间, 指标关闭时为 0 (传给 {@link Histogram#stop(long)} 时不记录)
+     * @author zyh
+     * @date 2026/10/18
+     */
+    public static long start() {
+        return enabled ? System.nanoTime() : 0;
+    }
+
+    public static List<Counter> counters() {
+        return Collections.unmodifiableList(COUNTERS);
+    }
+
+    public static List<Histogram> histograms() {
+        return Collections.unmodifiableList(HISTOGRAMS);
+    }
+
+    private static Counter counter(String name, String description, String unit) {
+        Counter counter = new Counter(name, description, unit);
+        COUNTERS.add(counter);
+        return counter;
+    }
+
+    private static Histogram histogram(String name, String description) {
+        Histogram histogram = new Histogram(name, description);
+        HISTOGRAMS.add(histogram);
+        return histogram;
+    }
+
+    /**
+     * 以 JSON 写出全部指标的汇总, 另附生成速率 (题目/秒) 和重复率
+     * @param filename 汇总文件
+     * @author zyh
+     * @date 2026/10/18
+     */
+    public static void writeSummary(String filename) {
+        try (BufferedWriter writer = new BufferedWriter(new FileWriter(filename))) {
+            writer.write(summary());
+        } catch (IOException e) {
+            throw new RuntimeException("文件写错误: " + filename + ": " + e.getMessage());
+        }
+    }
+
+    /**
+     * 全部指标的 JSON 汇总
+     * @return {@code String} JSON 文本
+     * @author zyh
+     * @date 2026/10/18
+     */
+    public static String summary() {
+        StringBuilder json = new StringBuilder("{\n  \"counters\": {");
+        for (int i = 0; i < COUNTERS.size(); i++) {
+            Counter counter = COUNTERS.get(i);
+            json.append(i == 0 ? "\n" : ",\n").append("    \"").append(counter.name()).append("\": ").append(counter.count());
+        }
+        json.append("\n  },\n  \"histograms\": {");
+        for (int i = 0; i < HISTOGRAMS.size(); i++) {
+            Histogram histogram = HISTOGRAMS.get(i);
+            json.append(i == 0 ? "\n" : ",\n").append("    \"").append(histogram.name()).append("\": {")
+                    .append("\"count\": ").append(histogram.count())
+                    .append(", \"totalNanos\": ").append(histogram.totalNanos())
+                    .append(", \"meanNanos\": ").append(histogram.meanNanos())
+                    .append(", \"p50Nanos\": ").append(histogram.percentileNanos(0.5))
+                    .append(", \"p99Nanos\": ").append(histogram.percentileNanos(0.99))
+                    .append(", \"maxNanos\": ").append(histogram.maxNanos()).append('}');
+        }
+        long generationNanos = GENERATION_TIME.totalNanos();
+        long candidates = CANDIDATES_CHECKED.count();
+        json.append("\n  },\n  \"derived\": {\n    \"generation.questionsPerSecond\": ")
+                .append(generationNanos == 0 ? 0 : QUESTIONS_GENERATED.count() * 1_000_000_000L / generationNanos)
+                .append(",\n    \"generation.duplicateRate\": ")
+                .append(candidates == 0 ? 0.0 : (double) DUPLICATES_REJECTED.count() / candidates)
+                .append("\n  }\n}\n");
+        return json.toString();
+    }
+
+    /**
+     * 计数器
+     */
+    public static final class Counter {
+
+        private final String name;
+        private final String description;
+        private final String unit;
+        private final LongAdder count = new LongAdder();
+
+        private Counter(String name, String description, String unit) {
+            this.name = name;
+            this.description = description;
+            this.unit = unit;
+        }
+
+        /**
+         * 增加计数, 指标关闭时不记录
+         * @param delta 增量
+         * @author zyh
+         * @date 2026/10/18
+         */
+        public void add(long delta) {
+            if (enabled) {
+                count.add(delta);
+            }
+        }
+
+        public long count() {
+            return count.sum();
+        }
+
+        public String name() {
+            return name;
+        }
+
+        public String description() {
+            return description;
+        }
+
+        /**
+         * 单位, 没有单位时为 null
+         */
+        public String unit() {
+            return unit;
+        }
+
+        private void reset() {
+            count.reset();
+        }
+    }
+
+    /**
+     * 延迟直方图
+     * 按纳秒数的二进制位数分桶 (第 i 桶为 [2^(i-1), 2^i)), 记录只是几次无锁累加, 多线程同时记录时也很少竞争
+     */
+    public static final class Histogram {
+
+        private static final int BUCKETS = 64;
+
+        private final String name;
+        private final String description;
+        private final LongAdder[] buckets = new LongAdder[BUCKETS];
+        private final LongAdder count = new LongAdder();
+        private final LongAdder total = new LongAdder();
+        private final LongAccumulator max = new LongAccumulator(Math::max, 0);
+
+        private Histogram(String name, String description) {
+            this.name = name;
+            this.description = description;
+            for (int i = 0; i < BUCKETS; i++) {
+                buckets[i] = new LongAdder();
+            }
+        }
+
+        /**
+         * 记录从 start 到现在的耗时
+         * @param start {@link Metrics#start()} 的返回值, 为 0 时不记录
+         * @author zyh
+         * @date 2026/10/18
+         */
+        public void stop(long start) {
+            if (start != 0) {
+                record(System.nanoTime() - start);
+            }
+        }
+
+        /**
+         * 记录一次耗时, 指标关闭时不记录
+         * @param nanos 纳秒数
+         * @author zyh
+         * @date 2026/10/18
+         */
+        public void record(long nanos) {
+            if (!enabled) {
+                return;
+            }
+            long value = Math.max(0, nanos);
+            buckets[Math.min(BUCKETS - 1, 64 - Long.numberOfLeadingZeros(value))].increment();
+            count.increment();
+            total.add(value);
+            max.accumulate(value);
+        }
+
+        public long count() {
+            return count.sum();
+        }
+
+        public long totalNanos() {
+            return total.sum();
+        }
+
+        public long maxNanos() {
+            return max.get();
+        }
+
+        public long meanNanos() {
+            long n = count();
+            return n == 0 ? 0 : totalNanos() / n;
+        }
+
+        /**
+         * 近似分位数: 所在桶的上界, 不超过最大值
+         * @param quantile 分位, 取值 (0, 1]
+         * @return long 纳秒数
+         * @author zyh
+         * @date 2026/10/18
+         */
+        public long percentileNanos(double quantile) {
+            long n = count();
+            if (n == 0) {
+                return 0;
+            }
+            long rank = (long) Math.ceil(quantile * n);
+            long seen = 0;
+            for (int i = 0; i < BUCKETS; i++) {
+                seen += buckets[i].sum();
+                if (seen >= rank) {
+                    return Math.min(i == 0 ? 0 : (1L << i) - 1, maxNanos());
+                }
+            }
+            return maxNanos();
+        }
+
+        public String name() {
+            return name;
+        }
+
+        public String description() {
+            return description;
+        }
+
+        private void reset() {
+            for (LongAdder bucket : buckets) {
+                bucket.reset();
+            }
+            count.reset();
+            total.reset();
+            max.reset();
+        }
+    }
+}
@@ -0,0 +1,227 @@
+package com.sz.arithmeticgenerator.util;
+
+import java.io.Closeable;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * 带序号的逐行文件写入器
+ * 每写入一行自动加上 "序号. " 前缀, 适合边生成边写出;
+ * 序号和内容直接按 UTF-8 编码进一块复用的大缓冲区, 写满后经 FileChannel 一次写出, 每行不创建中间字符串;
+ * 文件名以 ".gz" 结尾时按 gzip 压缩写出
+ * @author zyh
+ * @version 1.0.0
+ * @date 2026/10/18
+ */
+public class NumberedLineWriter implements Closeable {
+
+    /**
+     * 压缩文件的后缀
+     */
+    public static final String GZIP_SUFFIX = ".gz";
+
+    /**
+     * 缓冲区大小
+     */
+    private static final int BUFFER_SIZE = 1 << 20;
+
+    /**
+     * 序号 (最多 20 位)、". " 与换行符所需的最大字节数
+     */
+    private static final int MAX_PREFIX_BYTES = 32;
+
+    private static final byte[] LINE_SEPARATOR = System.lineSeparator().getBytes(StandardCharsets.US_ASCII);
+
+    private final String filename;
+    private final FileOutputStream file;
+    /**
+     * 不压缩时直接写入的通道
+     */
+    private final FileChannel channel;
+    /**
+     * 压缩时的输出流, 不压缩时为 null
+     */
+    private final OutputStream compressed;
+    private final byte[] buffer = new byte[BUFFER_SIZE];
+    private final ByteBuffer wrapped = ByteBuffer.wrap(buffer);
+    private int position;
+    /**
+     * 上一行的序号
+     */
+    private long number;
+    private final long firstNumber;
+
+    public NumberedLineWriter(String filename) {
+        this(filename, 1);
+    }
+
+    /**
+     * @param filename    文件名, 以 ".gz" 结尾时压缩
+     * @param firstNumber 第一行的序号
+     */
+    public NumberedLineWriter(String filename, long firstNumber) {
+        this(filename, firstNumber, -1);
+    }
+
+    /**
+     * 接着已有文件继续写入: 文件先截断到 offset (丢弃其后未完成的内容), 新的行追加在其后
+     * @param filename    文件名, 不能是压缩文件
+     * @param firstNumber 接下来第一行的序号
+     * @param offset      保留的文件长度, 为 -1 时清空文件重新写入
+     */
+    public NumberedLineWriter(String filename, long firstNumber, long offset) {
+        this.filename = filename;
+        this.firstNumber = firstNumber;
+        this.number = firstNumber - 1;
+        try {
+            // 经由 FileOutputStream 打开, 出错时的异常信息与 FileWriter 相同
+            this.file = new FileOutputStream(filename, offset >= 0);
+            this.channel = file.getChannel();
+            if (offset >= 0) {
+                if (filename.endsWith(GZIP_SUFFIX)) {
+                    file.close();
+                    throw new IOException("压缩文件不能续写");
+                }
+                if (channel.size() < offset) {
+                    file.close();
+                    throw new IOException("文件长度 " + channel.size() + " 小于续写位置 " + offset);
+                }
+                channel.truncate(offset);
+            }
+            this.compressed = filename.endsWith(GZIP_SUFFIX) ? new GZIPOutputStream(file, BUFFER_SIZE) : null;
+        } catch (IOException e) {
+            throw new RuntimeException("文件写错误: " + filename + ": " + e.getMessage());
+        }
+    }
+
+    /**
+     * 写入一行, 自动加上序号
+     * @param content 内容
+     * @author zyh
+     * @date 2026/10/18
+     */
+    public void write(CharSequence content) {
+        if (BUFFER_SIZE - position < MAX_PREFIX_BYTES) {
+            flushBuffer();
+        }
+        // 构造带序号的行
+        writeNumber(++number);
+        buffer[position++] = '.';
+        buffer[position++] = ' ';
+        int length = content.length();
+        for (int i = 0; i < length; i++) {
+            // 每个字符最多 4 字节, 另留出换行符的位置
+            if (BUFFER_SIZE - position < 4 + LINE_SEPARATOR.length) {
+                flushBuffer();
+            }
+            char c = content.charAt(i);
+            if (c < 0x80) {
+                buffer[position++] = (byte) c;
+            } else if (c < 0x800) {
+                buffer[position++] = (byte) (0xC0 | c >> 6);
+                buffer[position++] = (byte) (0x80 | c & 0x3F);
+            } else if (Character.isHighSurrogate(c) && i + 1 < length && Character.isLowSurrogate(content.charAt(i + 1))) {
+                int codePoint = Character.toCodePoint(c, content.charAt(++i));
+                buffer[position++] = (byte) (0xF0 | codePoint >> 18);
+                buffer[position++] = (byte) (0x80 | codePoint >> 12 & 0x3F);
+                buffer[position++] = (byte) (0x80 | codePoint >> 6 & 0x3F);
+                buffer[position++] = (byte) (0x80 | codePoint & 0x3F);
+            } else if (Character.isSurrogate(c)) {
+                // 不成对的代理字符, 与 String.getBytes 一样替换为 '?'
+                buffer[position++] = '?';
+            } else {
+                buffer[position++] = (byte) (0xE0 | c >> 12);
+                buffer[position++] = (byte) (0x80 | c >> 6 & 0x3F);
+                buffer[position++] = (byte) (0x80 | c & 0x3F);
+            }
+        }
+        // 添加换行符
+        for (byte b : LINE_SEPARATOR) {
+            buffer[position++] = b;
+        }
+    }
+
+    // 写出十进制序号
+    private void writeNumber(long value) {
+        if (value < 0) {
+            buffer[position++] = '-';
+            value = -value;
+        }
+        int end = position + 1;
+        for (long rest = value / 10; rest != 0; rest /= 10) {
+            end++;
+        }
+        for (int i = end - 1; i >= position; i--) {
+            buffer[i] = (byte) ('0' + value % 10);
+            value /= 10;
+        }
+        position = end;
+    }
+
+    // 把缓冲区的内容写出到文件 (或压缩流)
+    private void flushBuffer() {
+        long start = Metrics.start();
+        try {
+            if (compressed != null) {
+                compressed.write(buffer, 0, position);
+            } else {
+                wrapped.limit(position).position(0);
+                while (wrapped.hasRemaining()) {
+                    channel.write(wrapped);
+                }
+                wrapped.clear();
+            }
+            Metrics.BYTES_WRITTEN.add(position);
+            Metrics.WRITE_TIME.stop(start);
+            position = 0;
+        } catch (IOException e) {
+            throw new RuntimeException("文件写错误: " + filename + ": " + e.getMessage());
+        }
+    }
+
+    /**
+     * 把缓冲区写出并落盘 (不压缩时), 之后进程被终止也不会丢失已写入的行
+     * @return long 已落盘的文件长度, 压缩时返回 -1
+     * @author zyh
+     * @date 2026/10/18
+     */
+    public long sync() {
+        flushBuffer();
+        if (compressed != null) {
+            return -1;
+        }
+        try {
+            channel.force(false);
+            return channel.size();
+        } catch (IOException e) {
+            throw new RuntimeException("文件写错误: " + filename + ": " + e.getMessage());
+        }
+    }
+
+    /**
+     * 已写入的行数
+     * @return int 行数
+     * @author zyh
+     * @date 2026/10/18
+     */
+    public int getLineCount() {
+        return (int) (number - firstNumber + 1);
+    }
+
+    @Override
+    public void close() {
+        try (file) {
+            flushBuffer();
+            if (compressed != null) {
+                compressed.close();
+            }
+        } catch (IOException e) {
+            throw new RuntimeException("文件写错误: " + filename + ": " + e.getMessage());
+        }
+    }
+}
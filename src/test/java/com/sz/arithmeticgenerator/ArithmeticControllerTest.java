@@ -0,0 +1,141 @@
+package com.sz.arithmeticgenerator;
+
+import com.sz.arithmeticgenerator.service.GradeResult;
+import com.sz.arithmeticgenerator.service.GradingBatcher;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * 评分与生成接口
+ * @author zyh
+ * @version 1.0.0
+ * @date 2026/10/18
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+public class ArithmeticControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private GradingBatcher batcher;
+
+    /**
+     * 评分接口返回正确与错误的题号及耗时
+     * @author zyh
+     * @date 2026/10/18
+     */
+    @Test
+    public void testGrade() throws Exception {
+        String body = """
+                {"questions": ["1. 1/2 + 1/3 =", "2. 3 × 4 =", "3. 5 - 2 ="],
+                 "answers": ["1. 5/6", "2. 11", "3. 3"]}
+                """;
+        mockMvc.perform(post("/api/grade").contentType(MediaType.APPLICATION_JSON).content(body))
+                .andExpect(status().isOk())
+                .andExpect(header().exists("Server-Timing"))
+                .andExpect(jsonPath("$.correctCount").value(2))
+                .andExpect(jsonPath("$.wrong[0]").value(2))
+                .andExpect(jsonPath("$.latencyMicros").isNumber());
+
+        String mismatch = """
+                {"questions": ["1 + 1 ="], "answers": []}
+                """;
+        mockMvc.perform(post("/api/grade").contentType(MediaType.APPLICATION_JSON).content(mismatch))
+                .andExpect(status().isBadRequest());
+    }
+
+    /**
+     * 相同种子生成相同题目, 超出范围的数量返回 400
+     * @author zyh
+     * @date 2026/10/18
+     */
+    @Test
+    public void testGenerate() throws Exception {
+        String body = """
+                {"n": 20, "r": 10, "seed": 42, "shard": "1/2"}
+                """;
+        String first = mockMvc.perform(post("/api/generate").contentType(MediaType.APPLICATION_JSON).content(body))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.seed").value(42))
+                .andExpect(jsonPath("$.firstNumber").value(11))
+                .andExpect(jsonPath("$.questions.length()").value(10))
+                .andExpect(jsonPath("$.answers.length()").value(10))
+                .andReturn().getResponse().getContentAsString();
+        String second = mockMvc.perform(post("/api/generate").contentType(MediaType.APPLICATION_JSON).content(body))
+                .andReturn().getResponse().getContentAsString();
+        assertEquals(first.substring(0, first.indexOf("\"latencyMicros\"")),
+                second.substring(0, second.indexOf("\"latencyMicros\"")));
+
+        mockMvc.perform(post("/api/generate").contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"n\": 1000000, \"r\": 1}"))
+                .andExpect(status().isBadRequest());
+    }
+
+    /**
+     * 并发提交的评分请求合批求值后各自得到正确的结果
+     * @author zyh
+     * @date 2026/10/18
+     */
+    @Test
+    public void testConcurrentGradeBatching() {
+        List<CompletableFuture<GradeResult>> futures = new ArrayList<>();
+        for (int i = 1; i <= 200; i++) {
+            List<String> questions = List.of(i + " + 1 =", i + " × 2 =");
+            List<String> answers = List.of(String.valueOf(i + 1), String.valueOf(i % 2 == 0 ? i * 2 : -1));
+            futures.add(batcher.grade(questions, answers));
+        }
+        for (int i = 1; i <= 200; i++) {
+            GradeResult result = futures.get(i - 1).join();
+            assertEquals(2, result.getTotal());
+            assertTrue(result.isCorrect(1));
+            assertEquals(i % 2 == 0, result.isCorrect(2));
+        }
+        assertFalse(batcher.evaluate(List.of()).join().iterator().hasNext());
+        // 较大的批次在常驻线程池中并行求值, 连续多批复用同一个线程池
+        List<String> large = IntStream.range(0, 5000).mapToObj(i -> i + " + 1 =").toList();
+        for (int round = 0; round < 2; round++) {
+            List<String> answers = batcher.evaluate(large).join();
+            assertEquals(5000, answers.size());
+            assertEquals("5000", answers.getLast());
+        }
+    }
+
+    /**
+     * 服务方式下内置指标经 Micrometer 导出到 /actuator/metrics
+     * @author zyh
+     * @date 2026/10/18
+     */
+    @Test
+    public void testMetricsExport() throws Exception {
+        mockMvc.perform(post("/api/generate").contentType(MediaType.APPLICATION_JSON).content("""
+                        {"n": 5, "r": 10, "seed": 1}
+                        """))
+                .andExpect(status().isOk());
+        mockMvc.perform(get("/actuator/metrics/arithmetic.generation.questions"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.measurements[0].value").isNumber());
+        mockMvc.perform(get("/actuator/metrics/arithmetic.evaluation.evaluate"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.baseUnit").value("seconds"));
+    }
+}
@@ -1,15 +1,49 @@
 package com.sz.arithmeticgenerator;
 
 import com.sz.arithmeticgenerator.service.AnswerEvaluator;
+import com.sz.arithmeticgenerator.service.AnswerKey;
+import com.sz.arithmeticgenerator.service.AnswerKeyCache;
+import com.sz.arithmeticgenerator.service.BulkGrader;
+import com.sz.arithmeticgenerator.service.CompiledExpression;
+import com.sz.arithmeticgenerator.service.DedupIndex;
+import com.sz.arithmeticgenerator.service.ExerciseSet;
+import com.sz.arithmeticgenerator.service.ExpressionSpace;
+import com.sz.arithmeticgenerator.service.GenerationCheckpoint;
 import com.sz.arithmeticgenerator.service.Fraction;
+import com.sz.arithmeticgenerator.service.FractionMath;
+import com.sz.arithmeticgenerator.service.GenerationPipeline;
+import com.sz.arithmeticgenerator.service.GenerationSpec;
+import com.sz.arithmeticgenerator.service.GradeResult;
+import com.sz.arithmeticgenerator.service.Operator;
 import com.sz.arithmeticgenerator.service.QuestionGenerator;
+import com.sz.arithmeticgenerator.util.FileUtil;
+import com.sz.arithmeticgenerator.util.LruCache;
+import com.sz.arithmeticgenerator.util.MappedLineReader;
+import com.sz.arithmeticgenerator.util.Metrics;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
 import org.springframework.boot.test.context.SpringBootTest;
 
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.HashSet;
+import java.util.HexFormat;
 import java.util.List;
 import java.util.Random;
 import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+import java.util.zip.GZIPInputStream;
 
 import static com.sz.arithmeticgenerator.service.QuestionGenerator.isSmaller;
 import static org.junit.jupiter.api.Assertions.*;
@@ -123,6 +157,755 @@ class ArithmeticGeneratorApplicationTests {
         assertEquals("1'1/2", new Fraction("3/2").toMixedNumberString());
         assertNotEquals("1'1/2", new Fraction("4/2").toMixedNumberString());
     }
+    /**
+     * 测试运算符直接分派与 Fraction 方法结果一致
+     */
+    @Test
+    public void testOperatorDispatch() {
+        Fraction a = new Fraction("2'3/8");
+        Fraction b = new Fraction("5/7");
+        assertEquals(a.add(b), Operator.of("+").apply(a, b));
+        assertEquals(a.subtract(b), Operator.of("-").apply(a, b));
+        assertEquals(a.multiply(b), Operator.of("*").apply(a, b));
+        assertEquals(a.divide(b), Operator.of("÷").apply(a, b));
+        assertEquals("5'1/2", AnswerEvaluator.evaluateQuestions(List.of("1. (1 + 2) * 3/2 ÷ 1 + 1 =")).getFirst());
+    }
+
+    /**
+     * 测试 long 分数内核的溢出检测与 BigInteger 回退
+     */
+    @Test
+    public void testFractionOverflowFallback() {
+        long big = FractionMath.parse("100000");
+        assertTrue(FractionMath.isOverflow(FractionMath.multiply(big, big)));
+        assertEquals(FractionMath.pack(3, 4), FractionMath.add(FractionMath.parse("1/4"), FractionMath.parse("1/2")));
+        assertEquals("10000000000", new Fraction("100000").multiply(new Fraction("100000")).toMixedNumberString());
+        assertEquals(new Fraction("1/2"), new Fraction("100000").multiply(new Fraction("100000")).divide(new Fraction("20000000000")));
+        assertEquals(List.of("10000000000'1/2", "1"),
+                AnswerEvaluator.evaluateQuestions(List.of("1. 100000 * 100000 + 1/2 =", "2. 100000 * 100000 ÷ 10000000000 =")));
+    }
+
+    /**
+     * 测试表达式编译一次、多次求值
+     */
+    @Test
+    public void testCompiledExpression() {
+        CompiledExpression compiled = CompiledExpression.compile("3. ((1/2 + 1'1/2) * (3 - 1)) ÷ 8 =");
+        assertEquals(new Fraction("1/2"), compiled.evaluate());
+        assertEquals(compiled.evaluate(), compiled.evaluate());
+        assertSame(AnswerEvaluator.compile("1. 1 + 2 ="), AnswerEvaluator.compile("7. 1 + 2 ="));
+        assertNull(AnswerEvaluator.evaluateExpression("(1 + 2"));
+        assertNull(AnswerEvaluator.evaluateExpression("1 + 2)"));
+    }
+
+    /**
+     * 测试单遍词法分析: 序号、÷、带分数与空白
+     */
+    @Test
+    public void testExpressionLexer() {
+        assertEquals(List.of("1'1/2", "1", "5'3/4"),
+                AnswerEvaluator.evaluateQuestions(List.of("12.1 ÷ 2/3 =", "  2'3/8÷2'3/8", "3. 2'3/8 + 3'3/8=")));
+        assertEquals("N/A", AnswerEvaluator.evaluateQuestions(List.of("1. 1 + x =")).getFirst());
+    }
+
+    /**
+     * 测试编译缓存: 生成大量 (超过缓存容量的) 题目之后, 重复出现的题目仍然命中缓存; 缓存满了淘汰最久未用的条目
+     */
+    @Test
+    public void testCompileCache(@TempDir Path directory) {
+        CompiledExpression hot = AnswerEvaluator.compile("1. 3 + 4/5 =");
+        GenerationPipeline.generate(300_000, 100, 2,
+                directory.resolve("Exercises.txt").toString(), directory.resolve("Answers.txt").toString());
+        assertSame(hot, AnswerEvaluator.compile("9. 3 + 4/5 ="));
+
+        LruCache<Integer, Integer> cache = new LruCache<>(4, 1);
+        for (int i = 0; i < 4; i++) {
+            cache.put(i, i);
+        }
+        cache.get(0);
+        cache.put(4, 4);
+        assertNull(cache.get(1));
+        assertEquals(0, cache.get(0));
+        assertEquals(4, cache.size());
+        LruCache<Integer, Integer> striped = new LruCache<>(1000, 16);
+        for (int i = 0; i < 100_000; i++) {
+            striped.put(i, i);
+        }
+        assertTrue(striped.size() <= 1000);
+    }
+
+    /**
+     * 测试并行计算答案: 顺序与串行一致, 出错的题目仍为 N/A
+     */
+    @Test
+    public void testParallelEvaluation() {
+        List<String> questions = new ArrayList<>(QuestionGenerator.generateQuestions(5000, 20));
+        questions.set(1234, "1235. 1 ÷ 0 =");
+        List<String> parallel = AnswerEvaluator.evaluateQuestions(questions, 4);
+        assertEquals(AnswerEvaluator.evaluateQuestions(questions), parallel);
+        assertEquals("N/A", parallel.get(1234));
+        // 调用方提供的线程池可以反复使用, 求值后不会被关闭
+        ForkJoinPool pool = new ForkJoinPool(3);
+        try {
+            assertEquals(parallel, AnswerEvaluator.evaluateQuestions(questions, pool));
+            assertEquals(parallel, AnswerEvaluator.evaluateQuestions(questions, pool));
+            assertFalse(pool.isShutdown());
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    /**
+     * 测试流式评分: 结果文件与字符串结果一致, 数量不一致时报错
+     */
+    @Test
+    public void testStreamingGrade(@TempDir Path dir) throws IOException {
+        Path exercises = Files.write(dir.resolve("Exercises.txt"), List.of("1. 1 + 2 =", "2. 1/2 * 4 =", "3. 3 - 1/2 ="));
+        Path answers = Files.write(dir.resolve("Answers.txt"), List.of("1. 3", "2. 3", "3. 2'1/2"));
+        Path grade = dir.resolve("Grade.txt");
+        AnswerEvaluator.gradeAnswers(exercises.toString(), answers.toString(), grade.toString());
+        assertEquals("Correct: 2 [1, 3]\nWrong: 1 [2]", Files.readString(grade));
+        assertEquals(Files.readString(grade), AnswerEvaluator.gradeAnswers(exercises.toString(), answers.toString()));
+
+        Files.write(answers, List.of("1. 3"));
+        assertTrue(AnswerEvaluator.gradeAnswers(exercises.toString(), answers.toString()).startsWith("Error"));
+    }
+
+    /**
+     * 测试流水线生成: 题目与答案逐行对应且序号连续
+     */
+    @Test
+    public void testGenerationPipeline(@TempDir Path dir) throws IOException {
+        Path exercises = dir.resolve("Exercises.txt");
+        Path answers = dir.resolve("Answers.txt");
+        GenerationPipeline.generate(3000, 20, 3, exercises.toString(), answers.toString());
+        List<String> questionLines = Files.readAllLines(exercises);
+        List<String> answerLines = Files.readAllLines(answers);
+        assertEquals(3000, questionLines.size());
+        assertEquals(3000, answerLines.size());
+        assertTrue(questionLines.getLast().startsWith("3000. "));
+        List<String> expected = AnswerEvaluator.evaluateQuestions(questionLines);
+        for (int i = 0; i < answerLines.size(); i++) {
+            assertEquals((i + 1) + ". " + expected.get(i), answerLines.get(i));
+        }
+    }
+
+    /**
+     * 测试各类去重索引: 新键返回 true, 重复键返回 false
+     */
+    @Test
+    public void testDedupIndex() {
+        for (String mode : List.of("hash", "exact", "bloom", "bloom-exact")) {
+            DedupIndex index = DedupIndex.create(mode, 4);
+            for (int i = 0; i < 1000; i++) {
+                assertTrue(index.add(("1 + " + i).getBytes()), mode);
+            }
+            for (int i = 0; i < 1000; i++) {
+                assertFalse(index.add(("1 + " + i).getBytes()), mode);
+                assertTrue(index.contains(("1 + " + i).getBytes()), mode);
+            }
+            assertFalse(index.contains("2 + 2".getBytes()), mode);
+            assertEquals(1000, index.size(), mode);
+        }
+        assertThrows(IllegalArgumentException.class, () -> DedupIndex.create("tree", 1));
+        // 只接受帮助中列出的名称
+        for (String mode : List.of("", "bloom-", "bloomhash", "bloomexact", "bloom-hash", "hash-exact")) {
+            assertThrows(IllegalArgumentException.class, () -> DedupIndex.create(mode, 1), mode);
+        }
+        assertNotNull(DedupIndex.create("Bloom-Exact", 1));
+    }
+
+    /**
+     * 测试构造式抽样不分配去重索引: 可遍历的范围返回空索引且生成结果仍不重复, 随机生成时按全局题目数创建索引
+     */
+    @Test
+    public void testEnumerableGenerationWithoutIndex() {
+        GenerationSpec spec = new GenerationSpec(20000, 20, 5, 1, 2);
+        DedupIndex index = QuestionGenerator.createIndex(spec, "exact");
+        assertSame(DedupIndex.none(), index);
+        List<String> questions = new ArrayList<>();
+        QuestionGenerator.generateQuestions(spec, 2, index, questions::add);
+        assertEquals(spec.size(), questions.size());
+        assertEquals(spec.size(), new HashSet<>(questions).size());
+        assertEquals(0, index.size());
+        assertEquals(QuestionGenerator.generateQuestions(spec, 2), questions);
+
+        assertNotSame(DedupIndex.none(), QuestionGenerator.createIndex(new GenerationSpec(100, 1_000_000, 5, 0, 1), "hash"));
+        // 不分配索引时仍然校验类型名称
+        assertThrows(IllegalArgumentException.class, () -> QuestionGenerator.createIndex(spec, "tree"));
+    }
+
+    /**
+     * 测试规范化键: 只交换 + 和 * 两侧子表达式得到的题目才算重复
+     */
+    @Test
+    public void testCanonicalKey() {
+        byte[] key = CompiledExpression.compile("(1 + 2) + 3 =").canonicalKey();
+        assertArrayEquals(key, CompiledExpression.compile("3 + (2 + 1) =").canonicalKey());
+        assertArrayEquals(key, CompiledExpression.compile("1 + 2 + 3").canonicalKey());
+        // 1 + 2 + 3 与 3 + 2 + 1 不重复
+        assertFalse(Arrays.equals(key, CompiledExpression.compile("3 + 2 + 1").canonicalKey()));
+        assertArrayEquals(CompiledExpression.compile("1/2 × (3 - 1/3)").canonicalKey(),
+                CompiledExpression.compile("(3 - 1/3) * 1/2").canonicalKey());
+        assertFalse(Arrays.equals(CompiledExpression.compile("3 - 1").canonicalKey(),
+                CompiledExpression.compile("1 - 3").canonicalKey()));
+        // 值相同但结构不同的子树按结构排序
+        assertArrayEquals(CompiledExpression.compile("(1 + 1) * (4 ÷ 2)").canonicalKey(),
+                CompiledExpression.compile("(4 ÷ 2) * (1 + 1)").canonicalKey());
+        // 超出 long 内核范围的常量
+        assertArrayEquals(CompiledExpression.compile("99999999999 + 1").canonicalKey(),
+                CompiledExpression.compile("1 + 99999999999").canonicalKey());
+    }
+
+    /**
+     * 测试构造式抽样: 计数与逐个编号检查的结果一致, 抽完整个空间不重复, 超出总数时提前报错
+     */
+    @Test
+    public void testExpressionSpace() {
+        ExpressionSpace space = ExpressionSpace.of(2);
+        long valid = 0;
+        for (long rank = 0; rank < space.size(); rank++) {
+            if (space.expressionAt(rank) != null) {
+                valid++;
+            }
+        }
+        assertEquals(valid, space.count());
+
+        int total = (int) valid;
+        DedupIndex keys = DedupIndex.create("exact", total);
+        List<String> questions = new ArrayList<>();
+        space.sample(total, 42, questions::add);
+        assertEquals(total, questions.size());
+        for (String question : questions) {
+            assertTrue(keys.add(CompiledExpression.compile(question).canonicalKey()), question);
+            String answer = AnswerEvaluator.evaluateQuestion(question);
+            assertFalse(answer.startsWith("-") || answer.equals("N/A"), question);
+        }
+        assertThrows(IllegalArgumentException.class, () -> space.sample(total + 1, 42, q -> { }));
+        assertThrows(IllegalArgumentException.class, () -> ExpressionSpace.of(0));
+    }
+
+    /**
+     * 测试构造式抽样的运算符个数分布: 1 个和 2 个运算符的题目各约占一半, 某种取完后只输出另一种
+     */
+    @Test
+    public void testSamplingOperatorDistribution() {
+        List<String> questions = new ArrayList<>();
+        ExpressionSpace.of(10).sample(2000, 3, questions::add);
+        long single = questions.stream().filter(q -> q.split(" ").length == 3).count();
+        assertTrue(single > 900 && single < 1100, "1 个运算符的题目数: " + single);
+
+        // 范围 2 内 1 个运算符的题目很少, 取完之后其余的题目都有 2 个运算符
+        ExpressionSpace space = ExpressionSpace.of(2);
+        List<String> all = new ArrayList<>();
+        space.sample((int) space.count(), 3, 2, all::add);
+        long singleTotal = all.stream().filter(q -> q.split(" ").length == 3).count();
+        List<String> head = all.subList(0, (int) singleTotal);
+        long singleInHead = head.stream().filter(q -> q.split(" ").length == 3).count();
+        assertTrue(singleInHead > singleTotal / 3, "前 " + singleTotal + " 道中 1 个运算符的题目数: " + singleInHead);
+        assertEquals(all.size(), new HashSet<>(all).size());
+    }
+
+    /**
+     * 测试多线程生成: 构造式抽样与单线程结果一致, 随机生成的题目不重复
+     */
+    @Test
+    public void testParallelGeneration() {
+        List<String> sequential = new ArrayList<>();
+        List<String> parallel = new ArrayList<>();
+        ExpressionSpace.of(20).sample(20000, 7, sequential::add);
+        ExpressionSpace.of(20).sample(20000, 7, 4, parallel::add);
+        assertEquals(sequential, parallel);
+
+        List<String> questions = QuestionGenerator.generateQuestions(20000, 20, 4);
+        assertEquals(20000, questions.size());
+        assertEquals(20000, new HashSet<>(questions).size());
+    }
+
+    /**
+     * 测试带种子的分片生成: 结果可重现, 各分片拼接后等于不分片的结果
+     */
+    @Test
+    public void testSeededShards() {
+        for (int range : new int[]{10, 1_000_000}) {
+            List<String> all = QuestionGenerator.generateQuestions(new GenerationSpec(5000, range, 99, 0, 1), 1);
+            assertEquals(all, QuestionGenerator.generateQuestions(new GenerationSpec(5000, range, 99, 0, 1), 3));
+            List<String> merged = new ArrayList<>();
+            for (int shard = 0; shard < 3; shard++) {
+                merged.addAll(QuestionGenerator.generateQuestions(new GenerationSpec(5000, range, 99, shard, 3), 2));
+            }
+            assertEquals(all, merged);
+            assertEquals(5000, new HashSet<>(merged).size());
+        }
+        assertThrows(IllegalArgumentException.class, () -> new GenerationSpec(10, 10, 1, 0, 1).withShard("3/3"));
+    }
+
+    /**
+     * 测试内存映射读取评分: 与逐行字符串评分结果一致, 支持 "÷"、"\r\n"、跨窗口的行
+     */
+    @Test
+    public void testMappedGrading(@TempDir Path directory) throws IOException {
+        List<String> questions = new ArrayList<>(QuestionGenerator.generateQuestions(new GenerationSpec(2000, 10, 5, 0, 1), 1));
+        questions.add("7 ÷ 2 × 3 =");
+        questions.add("1 - 2'1/2 =");
+        questions.add("99999999999 × 99999999999 =");
+        questions.add("1 + =");
+        List<String> answers = new ArrayList<>(AnswerEvaluator.evaluateQuestions(questions));
+        for (int i = 0; i < answers.size(); i += 3) {
+            answers.set(i, answers.get(i) + "1");
+        }
+        answers.set(1, "  " + answers.get(1).replace("/", " / ") + "\t");
+        Path exerciseFile = directory.resolve("Exercises.txt");
+        Path answerFile = directory.resolve("Answers.txt");
+        StringBuilder exercises = new StringBuilder();
+        StringBuilder answerLines = new StringBuilder();
+        for (int i = 0; i < questions.size(); i++) {
+            exercises.append(i + 1).append(". ").append(questions.get(i)).append("\r\n");
+            answerLines.append(i + 1).append(". ").append(answers.get(i)).append(i + 1 < answers.size() ? "\n" : "");
+        }
+        Files.writeString(exerciseFile, exercises);
+        Files.writeString(answerFile, answerLines);
+
+        GradeResult result = AnswerEvaluator.grade(exerciseFile.toString(), answerFile.toString());
+        assertNotNull(result);
+        assertEquals(questions.size(), result.getTotal());
+        List<String> correct = AnswerEvaluator.evaluateQuestions(questions);
+        for (int i = 0; i < questions.size(); i++) {
+            String expected = correct.get(i);
+            assertEquals(AnswerEvaluator.isCorrectAnswer(expected, (i + 1) + ". " + answers.get(i)), result.isCorrect(i + 1), questions.get(i));
+        }
+        assertTrue(result.isCorrect(2));
+
+        // 小窗口强制多次重新映射
+        int lines = 0;
+        try (MappedLineReader reader = new MappedLineReader(exerciseFile.toString(), 64)) {
+            while (reader.nextLine()) {
+                lines++;
+            }
+        }
+        assertEquals(questions.size(), lines);
+
+        Files.writeString(answerFile, "1. 1\n");
+        assertNull(AnswerEvaluator.grade(exerciseFile.toString(), answerFile.toString()));
+    }
+
+    /**
+     * 测试带序号的写入器: 按 UTF-8 编码, 支持流式输入和 gzip 压缩
+     */
+    @Test
+    public void testNumberedLineWriter(@TempDir Path directory) throws IOException {
+        List<String> lines = List.of("1 ÷ 2 =", "3 × 4 =", "𝟙 ?", "");
+        StringBuilder expected = new StringBuilder();
+        for (int i = 0; i < lines.size(); i++) {
+            expected.append(i + 1).append(". ").append(lines.get(i)).append(System.lineSeparator());
+        }
+        Path plain = directory.resolve("Exercises.txt");
+        FileUtil.writeToFile(plain.toString(), lines);
+        assertEquals(expected.toString(), Files.readString(plain));
+
+        Path streamed = directory.resolve("Streamed.txt");
+        FileUtil.writeToFile(streamed.toString(), lines.stream());
+        assertEquals(expected.toString(), Files.readString(streamed));
+
+        Path compressed = directory.resolve("Exercises.txt.gz");
+        FileUtil.writeToFile(compressed.toString(), IntStream.range(0, 200_000).mapToObj(i -> i + " + 1 ="));
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(
+                new GZIPInputStream(Files.newInputStream(compressed)), StandardCharsets.UTF_8))) {
+            List<String> read = reader.lines().toList();
+            assertEquals(200_000, read.size());
+            assertEquals("200000. 199999 + 1 =", read.getLast());
+        }
+    }
+
+    /**
+     * 测试二进制题目集: 随机访问的题目和答案与文本文件一致, 评分结果与文本评分一致
+     */
+    @Test
+    public void testExerciseSet(@TempDir Path directory) throws IOException {
+        String exerciseFile = directory.resolve("Exercises.txt").toString();
+        String answerFile = directory.resolve("Answers.txt").toString();
+        String binaryFile = directory.resolve("Exercises.qset").toString();
+        GenerationSpec spec = new GenerationSpec(3000, 100, 11, 1, 2);
+        GenerationPipeline.generate(spec, 2, "hash", exerciseFile, answerFile, binaryFile);
+        List<String> questions = Files.readAllLines(Path.of(exerciseFile));
+        List<String> answers = Files.readAllLines(Path.of(answerFile));
+
+        assertTrue(ExerciseSet.isExerciseSet(binaryFile));
+        assertFalse(ExerciseSet.isExerciseSet(exerciseFile));
+        try (ExerciseSet set = ExerciseSet.open(binaryFile)) {
+            assertEquals(spec.size(), set.size());
+            assertEquals(spec.first() + 1, set.firstNumber());
+            for (int k = (int) set.size() - 1; k >= 0; k -= 7) {
+                String answer = answers.get(k).substring(answers.get(k).indexOf(". ") + 2);
+                assertEquals(answer, set.answer(k).toMixedNumberString());
+                assertEquals(answer, set.expression(k).evaluate().toMixedNumberString());
+                assertEquals(answer, AnswerEvaluator.evaluateQuestion(set.question(k)));
+                assertArrayEquals(AnswerEvaluator.compile(questions.get(k)).canonicalKey(), set.expression(k).canonicalKey());
+            }
+            assertThrows(IndexOutOfBoundsException.class, () -> set.answer(set.size()));
+        }
+
+        answers.set(5, answers.get(5) + "0");
+        Files.write(Path.of(answerFile), answers);
+        GradeResult text = AnswerEvaluator.grade(exerciseFile, answerFile);
+        GradeResult binary = AnswerEvaluator.grade(binaryFile, answerFile);
+        assertEquals(text.toString(), binary.toString());
+        assertFalse(binary.isCorrect(6));
+    }
+
+    /**
+     * 测试答案键缓存: 内存与磁盘命中, 题目文件改变后不再命中旧的答案键, 损坏的缓存文件被重新计算
+     */
+    @Test
+    public void testAnswerKeyCache(@TempDir Path directory) throws IOException {
+        Path exerciseFile = directory.resolve("Exercises.txt");
+        Path cacheDirectory = directory.resolve("cache");
+        FileUtil.writeToFile(exerciseFile.toString(), List.of("1/2 + 1/3 =", "2 × 3 =", "1 ÷ 0 ="));
+        AnswerKeyCache cache = new AnswerKeyCache(cacheDirectory, 1 << 20);
+        AnswerKey key = cache.get(exerciseFile.toString());
+        assertEquals(List.of("5/6", "6", "N/A"), IntStream.range(0, key.size()).mapToObj(key::answer).toList());
+        assertSame(key, cache.get(exerciseFile.toString()));
+        assertEquals(1, cache.getHits());
+
+        // 新的缓存实例从磁盘读取
+        String name = AnswerKeyCache.cacheKey(exerciseFile.toString());
+        assertEquals(AnswerKeyCache.contentHash(exerciseFile.toString()) + "-" + AnswerEvaluator.EVALUATOR_VERSION, name.substring(0, name.lastIndexOf('-')));
+        Path cached = cacheDirectory.resolve(name + ".akey");
+        assertTrue(Files.exists(cached));
+        AnswerKey loaded = new AnswerKeyCache(cacheDirectory, 1 << 20).get(exerciseFile.toString());
+        assertNotSame(key, loaded);
+        assertEquals("5/6", loaded.answer(0));
+
+        // 损坏的缓存文件被丢弃并重新计算
+        Files.write(cached, new byte[]{1, 2, 3});
+        assertEquals("6", new AnswerKeyCache(cacheDirectory, 1 << 20).get(exerciseFile.toString()).answer(1));
+
+        // 题目文件改变后得到新的答案键
+        FileUtil.writeToFile(exerciseFile.toString(), List.of("1/2 + 1/4 =", "2 × 3 ="));
+        AnswerKey changed = cache.get(exerciseFile.toString());
+        assertEquals(2, changed.size());
+        assertEquals("3/4", changed.answer(0));
+
+        Path answerFile = directory.resolve("Answers.txt");
+        FileUtil.writeToFile(answerFile.toString(), List.of("3/4", "5"));
+        assertEquals("Correct: 1 [1]\nWrong: 1 [2]", AnswerEvaluator.grade(changed, answerFile.toString()).toString());
+    }
+
+    /**
+     * 测试答案键缓存的磁盘上限与单文件流式评分:
+     * 跨窗口读取时计算的摘要与整个文件的哈希相同; 磁盘缓存超出上限时删除最久未使用的文件; 单文件评分不经过缓存
+     */
+    @Test
+    public void testAnswerKeyCacheBound(@TempDir Path directory) throws IOException, NoSuchAlgorithmException {
+        Path cacheDirectory = directory.resolve("cache");
+        List<Path> exerciseFiles = new ArrayList<>();
+        for (int i = 0; i < 4; i++) {
+            Path exerciseFile = directory.resolve("Exercises" + i + ".txt");
+            List<String> questions = new ArrayList<>();
+            for (int j = 0; j < 500; j++) {
+                questions.add((i + j) + " + " + (j % 7) + "/" + (j % 5 + 2) + " =");
+            }
+            FileUtil.writeToFile(exerciseFile.toString(), questions);
+            exerciseFiles.add(exerciseFile);
+        }
+
+        // 小窗口下行跨越窗口边界, 重叠部分只计入一次摘要
+        MessageDigest digest = MessageDigest.getInstance("SHA-256");
+        try (MappedLineReader reader = new MappedLineReader(exerciseFiles.get(0).toString(), 100, digest)) {
+            while (reader.nextLine()) {
+                assertTrue(reader.lineEnd() > reader.lineStart());
+            }
+        }
+        assertEquals(AnswerKeyCache.contentHash(exerciseFiles.get(0).toString()), HexFormat.of().formatHex(digest.digest()));
+
+        // 每个答案键文件约 13KB, 上限只够保存两个
+        AnswerKeyCache cache = new AnswerKeyCache(cacheDirectory, 1 << 20, 32 << 10);
+        for (Path exerciseFile : exerciseFiles) {
+            cache.get(exerciseFile.toString());
+        }
+        long total = 0;
+        List<Path> cached;
+        try (Stream<Path> files = Files.list(cacheDirectory)) {
+            cached = files.toList();
+        }
+        for (Path file : cached) {
+            total += Files.size(file);
+        }
+        assertTrue(total <= 32 << 10);
+        assertEquals(2, cached.size());
+        // 最后写入的答案键保留
+        assertTrue(Files.exists(cacheDirectory.resolve(AnswerKeyCache.cacheKey(exerciseFiles.get(3).toString()) + ".akey")));
+
+        // 单文件评分逐题流式比较, 不读写共享缓存
+        Path answerFile = directory.resolve("Answers.txt");
+        AnswerKey key = cache.get(exerciseFiles.get(1).toString());
+        List<String> answers = new ArrayList<>(IntStream.range(0, key.size()).mapToObj(key::answer).toList());
+        answers.set(5, "0");
+        FileUtil.writeToFile(answerFile.toString(), answers);
+        AnswerKeyCache shared = AnswerKeyCache.shared();
+        long hits = shared.getHits();
+        long misses = shared.getMisses();
+        GradeResult result = AnswerEvaluator.grade(exerciseFiles.get(1).toString(), answerFile.toString());
+        assertEquals(hits, shared.getHits());
+        assertEquals(misses, shared.getMisses());
+        assertEquals(AnswerEvaluator.grade(key, answerFile.toString()).toString(), result.toString());
+        assertEquals(499, result.getCorrectCount());
+
+        // 题目与答案数量不一致
+        FileUtil.writeToFile(answerFile.toString(), answers.subList(0, 10));
+        assertNull(AnswerEvaluator.grade(exerciseFiles.get(1).toString(), answerFile.toString()));
+    }
+
+    /**
+     * 测试从检查点续写: 模拟写到一半被终止 (检查点之后还有未完成的半行), 续写后的文件与一次写完的完全相同
+     */
+    @Test
+    public void testResumeFromCheckpoint(@TempDir Path directory) throws IOException {
+        // 随机生成 (范围很大) 和构造式抽样各测一次
+        for (int range : new int[]{1_000_000, 10}) {
+            GenerationSpec spec = new GenerationSpec(3000, range, 11, 1, 2);
+            Path expectedExercises = directory.resolve("ExpectedExercises.txt");
+            Path expectedAnswers = directory.resolve("ExpectedAnswers.txt");
+            GenerationPipeline.generate(spec, 2, "hash", expectedExercises.toString(), expectedAnswers.toString());
+
+            // 前 600 道题已落盘并记入检查点, 其后写了一部分
+            int written = 600;
+            List<String> exerciseLines = Files.readAllLines(expectedExercises);
+            List<String> answerLines = Files.readAllLines(expectedAnswers);
+            Path exercises = directory.resolve("Exercises.txt");
+            Path answers = directory.resolve("Answers.txt");
+            String separator = System.lineSeparator();
+            Files.writeString(exercises, String.join(separator, exerciseLines.subList(0, written)) + separator);
+            Files.writeString(answers, String.join(separator, answerLines.subList(0, written)) + separator);
+            Path checkpointFile = directory.resolve("generation.ckpt");
+            new GenerationCheckpoint(spec, "hash", written, Files.size(exercises), Files.size(answers)).write(checkpointFile);
+            Files.writeString(exercises, exerciseLines.get(written) + separator + "1602. 3 +", StandardOpenOption.APPEND);
+            Files.writeString(answers, "16", StandardOpenOption.APPEND);
+
+            // 参数不一致时拒绝续写
+            GenerationSpec other = new GenerationSpec(3000, range, 12, 1, 2);
+            assertThrows(IllegalArgumentException.class, () -> GenerationPipeline.generate(other, 2, "hash",
+                    exercises.toString(), answers.toString(), null, checkpointFile.toString()));
+
+            GenerationPipeline.generate(spec, 2, "hash", exercises.toString(), answers.toString(), null, checkpointFile.toString());
+            assertEquals(exerciseLines, Files.readAllLines(exercises));
+            assertEquals(answerLines, Files.readAllLines(answers));
+            assertFalse(Files.exists(checkpointFile));
+            assertEquals("1501. ", exerciseLines.getFirst().substring(0, 6));
+        }
+    }
+
+    /**
+     * 测试 isSmaller 精确比较: 浮点除法无法区分的相邻值、交叉相乘超出 long 的分数、负号和分母为 0
+     */
+    @Test
+    public void testIsSmallerExact() {
+        assertTrue(isSmaller("9007199254740992", "9007199254740993"));
+        assertFalse(isSmaller("9007199254740993", "9007199254740992"));
+        assertTrue(isSmaller("9007199254740992", "27021597764222977/3"));
+        assertTrue(isSmaller("9223372036854775806/7", "9223372036854775807/7"));
+        assertFalse(isSmaller("9223372036854775807/7", "9223372036854775806/7"));
+        assertFalse(isSmaller("1/3", "2/6"));
+        assertFalse(isSmaller("2/6", "1/3"));
+        assertTrue(isSmaller("-1/2", "1/3"));
+        assertTrue(isSmaller("1/-2", "0"));
+        assertThrows(ArithmeticException.class, () -> isSmaller("1/0", "1"));
+        assertThrows(IllegalArgumentException.class, () -> isSmaller(" ", "1"));
+    }
+
+    /**
+     * 测试向已有题库追加: 新题目与文本和二进制题库中的题目都不重复, 接着题目文件的序号追加, 答案与题目对应
+     */
+    @Test
+    public void testAppendToExerciseBank(@TempDir Path directory) throws IOException {
+        // 随机生成 (范围很大) 和构造式抽样各测一次
+        for (int range : new int[]{1_000_000, 10}) {
+            Path exercises = directory.resolve("Exercises.txt");
+            Path answers = directory.resolve("Answers.txt");
+            Path other = directory.resolve("Other.qset");
+            GenerationPipeline.generate(new GenerationSpec(2000, range, 3, 0, 1), 2, "hash",
+                    exercises.toString(), answers.toString());
+            GenerationPipeline.generate(new GenerationSpec(500, range, 4, 0, 1), 2, "hash",
+                    directory.resolve("OtherExercises.txt").toString(), directory.resolve("OtherAnswers.txt").toString(),
+                    other.toString());
+
+            GenerationPipeline.append(new GenerationSpec(1000, range, 5, 0, 1), 2, "exact",
+                    List.of(exercises.toString(), other.toString()), exercises.toString(), answers.toString(), null);
+
+            List<String> lines = Files.readAllLines(exercises);
+            assertEquals(3000, lines.size());
+            assertTrue(lines.get(1999).startsWith("2000. "));
+            assertTrue(lines.get(2000).startsWith("2001. "));
+            assertTrue(lines.get(2999).startsWith("3000. "));
+            // 两份题库各自生成, 彼此之间可能有重复; 新题目与两份题库都不重复, 彼此也不重复
+            Set<String> keys = new HashSet<>();
+            for (String line : lines.subList(0, 2000)) {
+                keys.add(new String(CompiledExpression.compile(line).canonicalKey(), StandardCharsets.ISO_8859_1));
+            }
+            try (ExerciseSet set = ExerciseSet.open(other.toString())) {
+                for (long k = 0; k < set.size(); k++) {
+                    keys.add(new String(set.expression(k).canonicalKey(), StandardCharsets.ISO_8859_1));
+                }
+            }
+            for (String line : lines.subList(2000, 3000)) {
+                assertTrue(keys.add(new String(CompiledExpression.compile(line).canonicalKey(), StandardCharsets.ISO_8859_1)), line);
+            }
+            assertEquals(3000, AnswerEvaluator.grade(exercises.toString(), answers.toString()).getCorrectCount());
+        }
+    }
+
+    /**
+     * 测试追加的序号与失败恢复: 序号接着题目文件自己的最后一个序号 (没有序号时接着行数);
+     * 题库以外的题目不够时报错, 题目文件和答案文件恢复原样, 不留下二进制题目集
+     */
+    @Test
+    public void testAppendNumberingAndFailure(@TempDir Path directory) throws IOException {
+        Path exercises = directory.resolve("Exercises.txt");
+        Path answers = directory.resolve("Answers.txt");
+        Path binary = directory.resolve("New.qset");
+        // 分片写出的文件从 1501 开始编号
+        GenerationPipeline.generate(new GenerationSpec(3000, 1, 3, 0, 1).withShard("1/2"), 2, "hash",
+                exercises.toString(), answers.toString());
+        List<String> lines = Files.readAllLines(exercises);
+        assertTrue(lines.get(0).startsWith("1501. "));
+        GenerationPipeline.append(new GenerationSpec(10, 1, 5, 0, 1), 2, "hash",
+                List.of(exercises.toString()), exercises.toString(), answers.toString(), null);
+        lines = Files.readAllLines(exercises);
+        assertEquals(1510, lines.size());
+        assertTrue(lines.get(1500).startsWith("3001. "));
+        assertTrue(lines.get(1509).startsWith("3010. "));
+
+        // 题库以外的题目不够: 写出一部分之后才发现
+        byte[] exercisesBefore = Files.readAllBytes(exercises);
+        byte[] answersBefore = Files.readAllBytes(answers);
+        int tooMany = (int) ExpressionSpace.of(1).count() - 1000;
+        assertThrows(IllegalArgumentException.class, () -> GenerationPipeline.append(new GenerationSpec(tooMany, 1, 6, 0, 1), 2,
+                "hash", List.of(exercises.toString()), exercises.toString(), answers.toString(), binary.toString()));
+        assertArrayEquals(exercisesBefore, Files.readAllBytes(exercises));
+        assertArrayEquals(answersBefore, Files.readAllBytes(answers));
+        assertFalse(Files.exists(binary));
+
+        // 没有序号的题目文件接着非空行数编号
+        Path plain = directory.resolve("Plain.txt");
+        Files.write(plain, List.of("1 + 2 =", "", "3 × 4 ="));
+        GenerationPipeline.append(new GenerationSpec(1, 1, 7, 0, 1), 1, "hash",
+                List.of(plain.toString()), plain.toString(), directory.resolve("PlainAnswers.txt").toString(), null);
+        assertTrue(Files.readAllLines(plain).get(3).startsWith("3. "));
+    }
+
+    /**
+     * 测试内置指标: 关闭时不记录, 开启后记录生成、去重、求值延迟和读写字节, 并写出 JSON 汇总
+     */
+    @Test
+    public void testMetrics(@TempDir Path directory) throws IOException {
+        boolean wasEnabled = Metrics.isEnabled();
+        try {
+            Metrics.disable();
+            Metrics.reset();
+            QuestionGenerator.generateQuestions(100, 10);
+            assertEquals(0, Metrics.QUESTIONS_GENERATED.count());
+            assertEquals(0, Metrics.start());
+
+            Metrics.enable();
+            // 范围很大时走随机生成 + 去重索引的路径
+            GenerationPipeline.generate(new GenerationSpec(2000, 1_000_000, 7, 0, 1), 2, "hash",
+                    directory.resolve("Exercises.txt").toString(), directory.resolve("Answers.txt").toString());
+            assertEquals(2000, Metrics.QUESTIONS_GENERATED.count());
+            assertTrue(Metrics.CANDIDATES_CHECKED.count() >= 2000);
+            assertEquals(Metrics.CANDIDATES_CHECKED.count() - 2000, Metrics.DUPLICATES_REJECTED.count());
+            assertEquals(1, Metrics.GENERATION_TIME.count());
+            assertTrue(Metrics.PARSE_TIME.count() >= 2000);
+            assertEquals(Metrics.PARSE_TIME.count(), Metrics.EVALUATE_TIME.count());
+            assertTrue(Metrics.EVALUATE_TIME.maxNanos() >= Metrics.EVALUATE_TIME.percentileNanos(0.5));
+            long written = Files.size(directory.resolve("Exercises.txt")) + Files.size(directory.resolve("Answers.txt"));
+            assertEquals(written, Metrics.BYTES_WRITTEN.count());
+
+            AnswerEvaluator.grade(directory.resolve("Exercises.txt").toString(), directory.resolve("Answers.txt").toString());
+            assertEquals(2000, Metrics.ANSWERS_GRADED.count());
+            assertTrue(Metrics.BYTES_READ.count() >= Files.size(directory.resolve("Answers.txt")));
+            AnswerEvaluator.evaluateExpression("1 ÷ 0");
+            assertEquals(1, Metrics.EVALUATION_ERRORS.count());
+
+            Path summary = directory.resolve("metrics.json");
+            Metrics.writeSummary(summary.toString());
+            String json = Files.readString(summary);
+            assertTrue(json.contains("\"generation.questions\": 2000"));
+            assertTrue(json.contains("\"evaluation.parse\": {\"count\": "));
+            assertTrue(json.contains("\"generation.questionsPerSecond\": "));
+        } finally {
+            Metrics.reset();
+            if (wasEnabled) {
+                Metrics.enable();
+            } else {
+                Metrics.disable();
+            }
+        }
+    }
+
+    /**
+     * 测试批量评分: 目录与通配符, 逐份结果顺序与文件顺序一致, 汇总统计正确
+     */
+    @Test
+    public void testBulkGrading(@TempDir Path directory) throws IOException {
+        Path exerciseFile = directory.resolve("Exercises.txt");
+        List<String> questions = List.of("1 + 1 =", "2 × 3 =", "1/2 + 1/3 =");
+        FileUtil.writeToFile(exerciseFile.toString(), questions);
+        Path submissions = Files.createDirectory(directory.resolve("answers"));
+        for (int i = 0; i < 40; i++) {
+            List<String> answers = new ArrayList<>(List.of("2", "6", "5/6"));
+            answers.set(i % 3, i % 2 == 0 ? answers.get(i % 3) : "0");
+            FileUtil.writeToFile(submissions.resolve(String.format("s%02d.txt", i)).toString(), answers);
+        }
+        FileUtil.writeToFile(submissions.resolve("short.log").toString(), List.of("2"));
+
+        assertEquals(41, BulkGrader.resolveSubmissions(submissions.toString()).size());
+        List<Path> textFiles = BulkGrader.resolveSubmissions(submissions + "/*.txt");
+        assertEquals(40, textFiles.size());
+        assertEquals("s00.txt", textFiles.getFirst().getFileName().toString());
+
+        BulkGrader.Report report = BulkGrader.grade(exerciseFile.toString(), BulkGrader.resolveSubmissions(submissions.toString()), 4);
+        assertEquals(41, report.submissions().size());
+        assertEquals(40, report.gradedCount());
+        assertEquals(3, report.submissions().get(0).result().getCorrectCount());
+        assertFalse(report.submissions().get(1).result().isCorrect(2));
+        assertNull(report.submissions().get(40).result());
+        // 奇数份各错一题, 错题依次为第 2、1、3 题…
+        assertArrayEquals(new int[]{33, 33, 34}, report.correctCounts());
+
+        StringBuilder summary = new StringBuilder();
+        report.writeSummary(summary);
+        assertTrue(summary.toString().contains("Graded: 40"));
+        assertTrue(summary.toString().contains("Full marks: 20"));
+        StringBuilder csv = new StringBuilder();
+        report.writeSubmissions(csv);
+        assertEquals(42, csv.toString().split("\n").length);
+    }
+
+    /**
+     * 测试按数值比较答案: 等价的写法视为正确
+     */
+    @Test
+    public void testNumericAnswerComparison(@TempDir Path directory) throws IOException {
+        assertTrue(AnswerEvaluator.isCorrectAnswer("2", "1. 4/2"));
+        assertTrue(AnswerEvaluator.isCorrectAnswer("1'1/2", "3/2"));
+        assertTrue(AnswerEvaluator.isCorrectAnswer("1'1/2", "12. 1 ' 2/4"));
+        assertTrue(AnswerEvaluator.isCorrectAnswer("-1'1/2", "-3/2"));
+        assertTrue(AnswerEvaluator.isCorrectAnswer("N/A", "3. N/A"));
+        assertTrue(AnswerEvaluator.isCorrectAnswer("99999999999999999999'1/2", "199999999999999999999/2"));
+        assertTrue(AnswerEvaluator.isCorrectAnswer("5", "50000000000000000000/10000000000000000000"));
+        assertFalse(AnswerEvaluator.isCorrectAnswer("1'1/2", "1/2"));
+        assertFalse(AnswerEvaluator.isCorrectAnswer("2", "2/0"));
+        assertFalse(AnswerEvaluator.isCorrectAnswer("2", "abc"));
+        assertFalse(AnswerEvaluator.isCorrectAnswer("2", ""));
+        assertFalse(AnswerEvaluator.isCorrectAnswer("N/A", "0"));
+
+        Path exerciseFile = directory.resolve("Exercises.txt");
+        Path answerFile = directory.resolve("Answers.txt");
+        FileUtil.writeToFile(exerciseFile.toString(), List.of("1 + 1 =", "1 + 1/2 =", "1/2 - 1/2 =", "1 ÷ 0 ="));
+        FileUtil.writeToFile(answerFile.toString(), List.of("4/2", "6/4", "0/7", "N/A"));
+        assertEquals("Correct: 4 [1, 2, 3, 4]\nWrong: 0 []", AnswerEvaluator.gradeAnswers(exerciseFile.toString(), answerFile.toString()));
+    }
+
     @Test
     public void test() {
        boolean a= isSmaller("1/7", "1/2");
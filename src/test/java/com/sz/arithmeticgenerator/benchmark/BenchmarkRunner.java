@@ -0,0 +1,31 @@
+package com.sz.arithmeticgenerator.benchmark;
+
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.CommandLineOptionException;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * 运行本包中的全部基准测试, 并附加 GC 分析 (分配速率 gc.alloc.rate.norm)
+ * 可以追加任意 JMH 命令行参数, 如只运行部分基准测试或缩短迭代: GradingBenchmark -wi 1 -i 2 -p n=1000
+ * 用法: mvn -Pbenchmark verify [-Djmh.args="..."]
+ * @author zyh
+ * @version 1.0.0
+ * @date 2026/10/18
+ */
+public class BenchmarkRunner {
+
+    public static void main(String[] args) throws RunnerException, CommandLineOptionException {
+        CommandLineOptions commandLine = new CommandLineOptions(args);
+        OptionsBuilder options = new OptionsBuilder();
+        options.parent(commandLine);
+        // 未指定基准测试时运行本包中的全部基准测试
+        if (commandLine.getIncludes().isEmpty()) {
+            options.include(BenchmarkRunner.class.getPackageName() + ".*");
+        }
+        options.addProfiler(GCProfiler.class);
+        new Runner(options.build()).run();
+    }
+}
@@ -0,0 +1,63 @@
+package com.sz.arithmeticgenerator.benchmark;
+
+import com.sz.arithmeticgenerator.service.AnswerEvaluator;
+import com.sz.arithmeticgenerator.service.CompiledExpression;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 求值基准测试: 按运算符个数参数化, 分别测量带缓存的求值、每次重新编译和已编译程序的求值
+ * @author zyh
+ * @version 1.0.0
+ * @date 2026/10/18
+ */
+@State(Scope.Thread)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class EvaluationBenchmark {
+
+    /**
+     * 各运算符个数对应的题目
+     */
+    private static final String[] QUESTIONS = {
+            "1. 3/7 + 5 =",
+            "2. 6 * 2/9 - 1/2 =",
+            "3. (1/2 + 3) * 4 ÷ 2'2/3 - 5/6 ="
+    };
+
+    @Param({"1", "2", "3"})
+    public int operators;
+
+    private String question;
+    private CompiledExpression compiled;
+    private long[] stack;
+
+    @Setup
+    public void setup() {
+        question = QUESTIONS[operators - 1];
+        compiled = CompiledExpression.compile(question);
+        stack = new long[compiled.maxStackDepth()];
+    }
+
+    /**
+     * 评分使用的入口 (命中编译缓存)
+     */
+    @Benchmark
+    public Object evaluateExpression() {
+        return AnswerEvaluator.evaluateExpression(question);
+    }
+
+    @Benchmark
+    public Object compileAndEvaluate() {
+        return CompiledExpression.compile(question).evaluate();
+    }
+
+    @Benchmark
+    public long evaluatePacked() {
+        return compiled.evaluatePacked(stack);
+    }
+}
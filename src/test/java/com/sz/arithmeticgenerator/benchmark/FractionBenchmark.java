@@ -0,0 +1,65 @@
+package com.sz.arithmeticgenerator.benchmark;
+
+import com.sz.arithmeticgenerator.service.Fraction;
+import com.sz.arithmeticgenerator.service.FractionMath;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 分数运算基准测试: Fraction 对象 vs 打包的 long 内核
+ * @author zyh
+ * @version 1.0.0
+ * @date 2026/10/18
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class FractionBenchmark {
+
+    private Fraction a;
+    private Fraction b;
+    private long packedA;
+    private long packedB;
+
+    @Setup
+    public void setup() {
+        a = new Fraction(7, 12);
+        b = new Fraction(5, 18);
+        packedA = a.toPacked();
+        packedB = b.toPacked();
+    }
+
+    @Benchmark
+    public Fraction fractionAdd() {
+        return a.add(b);
+    }
+
+    @Benchmark
+    public Fraction fractionMultiply() {
+        return a.multiply(b);
+    }
+
+    @Benchmark
+    public Fraction fractionDivide() {
+        return a.divide(b);
+    }
+
+    @Benchmark
+    public long packedAdd() {
+        return FractionMath.add(packedA, packedB);
+    }
+
+    @Benchmark
+    public long packedMultiply() {
+        return FractionMath.multiply(packedA, packedB);
+    }
+
+    @Benchmark
+    public long packedDivide() {
+        return FractionMath.divide(packedA, packedB);
+    }
+}
@@ -0,0 +1,62 @@
+package com.sz.arithmeticgenerator.benchmark;
+
+import com.sz.arithmeticgenerator.service.ExpressionSpace;
+import com.sz.arithmeticgenerator.service.GenerationSpec;
+import com.sz.arithmeticgenerator.service.QuestionGenerator;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 题目生成基准测试: 按题目数量 n、范围 r 与运算符个数参数化
+ * @author zyh
+ * @version 1.0.0
+ * @date 2026/10/18
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class GenerationBenchmark {
+
+    @Param({"1000", "100000"})
+    public int n;
+
+    @Param({"10", "100"})
+    public int r;
+
+    @Param({"1", "2", "3"})
+    public int operators;
+
+    private long seed;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        // 题目总数只计算一次, 不计入每次生成的时间
+        ExpressionSpace.of(r, operators).checkCapacity(n);
+    }
+
+    @Setup(Level.Invocation)
+    public void nextSeed() {
+        seed++;
+    }
+
+    /**
+     * 构造式抽样 (按运算符个数)
+     */
+    @Benchmark
+    public void sample(Blackhole blackhole) {
+        ExpressionSpace.of(r, operators).sample(n, seed, blackhole::consume);
+    }
+
+    /**
+     * 完整的生成入口 (默认运算符个数, 单线程)
+     */
+    @Benchmark
+    public void generateQuestions(Blackhole blackhole) {
+        blackhole.consume(QuestionGenerator.generateQuestions(new GenerationSpec(n, r, seed, 0, 1), 1));
+    }
+}
@@ -0,0 +1,57 @@
+package com.sz.arithmeticgenerator.benchmark;
+
+import com.sz.arithmeticgenerator.service.AnswerEvaluator;
+import com.sz.arithmeticgenerator.service.GenerationSpec;
+import com.sz.arithmeticgenerator.service.QuestionGenerator;
+import com.sz.arithmeticgenerator.util.FileUtil;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 评分基准测试: 按题目数量参数化, 每次评分都读取题目文件与答案文件
+ * @author zyh
+ * @version 1.0.0
+ * @date 2026/10/18
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class GradingBenchmark {
+
+    @Param({"1000", "100000"})
+    public int n;
+
+    private Path directory;
+    private String exerciseFile;
+    private String answerFile;
+
+    @Setup(Level.Trial)
+    public void setup() throws IOException {
+        directory = Files.createTempDirectory("grading-benchmark");
+        exerciseFile = directory.resolve("Exercises.txt").toString();
+        answerFile = directory.resolve("Answers.txt").toString();
+        List<String> questions = QuestionGenerator.generateQuestions(new GenerationSpec(n, 20, 1, 0, 1), 1);
+        FileUtil.writeToFile(exerciseFile, questions);
+        FileUtil.writeToFile(answerFile, AnswerEvaluator.evaluateQuestions(questions));
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        Files.deleteIfExists(Path.of(exerciseFile));
+        Files.deleteIfExists(Path.of(answerFile));
+        Files.deleteIfExists(directory);
+    }
+
+    @Benchmark
+    public Object grade() {
+        return AnswerEvaluator.grade(exerciseFile, answerFile);
+    }
+}
@@ -0,0 +1,35 @@
+package com.sz.arithmeticgenerator.benchmark;
+
+import com.sz.arithmeticgenerator.service.CompiledExpression;
+import com.sz.arithmeticgenerator.service.QuestionGenerator;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 规范化基准测试: 旧的字符串归一化 vs 表达式树上的二进制规范化键
+ * @author zyh
+ * @version 1.0.0
+ * @date 2026/10/18
+ */
+@State(Scope.Thread)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class NormalizationBenchmark {
+
+    @Param({"3/7 + 5", "6 * 2/9 - 1/2", "(1/2 + 3) * (4 - 2/3) + 5/6"})
+    public String expression;
+
+    @Benchmark
+    public String normalizeExpression() {
+        return QuestionGenerator.normalizeExpression(expression);
+    }
+
+    @Benchmark
+    public byte[] canonicalKey() {
+        return CompiledExpression.compile(expression).canonicalKey();
+    }
+}
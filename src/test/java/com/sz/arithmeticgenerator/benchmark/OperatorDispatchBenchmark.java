@@ -0,0 +1,75 @@
+package com.sz.arithmeticgenerator.benchmark;
+
+import com.sz.arithmeticgenerator.service.Fraction;
+import com.sz.arithmeticgenerator.service.Operator;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.lang.reflect.Method;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 运算符分派基准测试: 反射调用 vs 枚举直接调用
+ * @author zyh
+ * @version 1.0.0
+ * @date 2026/10/18
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class OperatorDispatchBenchmark {
+
+    private static final String[] SYMBOLS = {"+", "-", "*", "/"};
+
+    private Fraction left;
+    private Fraction right;
+
+    @Setup
+    public void setup() {
+        left = new Fraction("2'3/8");
+        right = new Fraction("5/7");
+    }
+
+    /**
+     * 旧实现: 每次按方法名反射查找并调用
+     */
+    @Benchmark
+    public Fraction reflective() throws Exception {
+        Fraction result = left;
+        for (String symbol : SYMBOLS) {
+            String methodName = switch (symbol) {
+                case "+" -> "add";
+                case "-" -> "subtract";
+                case "*" -> "multiply";
+                case "/" -> "divide";
+                default -> throw new IllegalArgumentException("Invalid operator: " + symbol);
+            };
+            Method method = Fraction.class.getMethod(methodName, Object.class);
+            result = (Fraction) method.invoke(result, right);
+        }
+        return result;
+    }
+
+    /**
+     * 新实现: 词法分析阶段解析出运算符, 计算时直接分派
+     */
+    @Benchmark
+    public Fraction direct() {
+        Fraction result = left;
+        for (String symbol : SYMBOLS) {
+            result = Operator.of(symbol).apply(result, right);
+        }
+        return result;
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(OperatorDispatchBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
@@ -0,0 +1,79 @@
+package com.sz.arithmeticgenerator.benchmark;
+
+import com.sz.arithmeticgenerator.service.ExpressionLexer;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * 词法分析基准测试: 旧的正则分词 vs 单遍手写词法分析器
+ * @author zyh
+ * @version 1.0.0
+ * @date 2026/10/18
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TokenizerBenchmark {
+
+    @Param({"12. 2'3/8 + 6/8 * (4 ÷ 7) - 1/6 ="})
+    public String line;
+
+    /**
+     * 旧实现: 去序号、两次 replace、每个表达式编译正则, 每个 Token 再做一次 matches 分类
+     */
+    @Benchmark
+    public void regex(Blackhole blackhole) {
+        String expression = line.trim();
+        int dotIndex = expression.indexOf('.');
+        if (dotIndex > 0 && expression.substring(0, dotIndex).matches("\\d+")) {
+            expression = expression.substring(dotIndex + 1).trim();
+        }
+        if (expression.endsWith("=")) {
+            expression = expression.substring(0, expression.length() - 1).trim();
+        }
+        expression = expression.replace(" ", "").replace("÷", "/");
+        List<String> tokens = new ArrayList<>();
+        Pattern pattern = Pattern.compile("(\\d+'?\\d*/\\d+)|(\\d+)|([+\\-*/()])");
+        Matcher matcher = pattern.matcher(expression);
+        while (matcher.find()) {
+            String tokenStr = matcher.group();
+            if (tokenStr.matches("\\d+'?\\d*/\\d+|\\d+")) {
+                tokens.add(tokenStr);
+            } else if (tokenStr.matches("[+\\-*/]")) {
+                tokens.add(tokenStr);
+            } else {
+                tokens.add(tokenStr);
+            }
+        }
+        blackhole.consume(tokens);
+    }
+
+    /**
+     * 新实现: 直接在原始行上逐字符扫描
+     */
+    @Benchmark
+    public void lexer(Blackhole blackhole) {
+        ExpressionLexer lexer = new ExpressionLexer(line);
+        while (lexer.next() != ExpressionLexer.TokenType.END) {
+            blackhole.consume(lexer.number());
+        }
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(TokenizerBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}